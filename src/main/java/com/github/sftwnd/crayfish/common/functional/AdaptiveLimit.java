@@ -0,0 +1,151 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Адаптивное ограничение числа одновременно исполняемых вызовов по алгоритму TCP Vegas: по минимальному наблюдаемому
+ * времени ответа (время без нагрузки) и времени очередного успешного вызова оценивается длина очереди на стороне
+ * исполнителя limit * (1 - minRtt / rtt). Если очередь короче alpha, ограничение увеличивается, если длиннее beta -
+ * уменьшается. Вызовы сверх ограничения сразу отклоняются новым {@link RejectedExecutionException}
+ * без стека вызовов. Минимальное время периодически сбрасывается, чтобы ограничение подстраивалось под исполнителя,
+ * ставшего медленнее. Вызовы, завершившиеся исключением, время ответа не изменяют.
+ */
+public final class AdaptiveLimit {
+
+    // Число успешных вызовов между сбросами минимального времени ответа
+    private static final int PROBE_INTERVAL = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong minRtt = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicInteger samples = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private AdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("AdaptiveLimit - wrong limits, expected 0 < minLimit <= initialLimit <= maxLimit: "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = new AtomicInteger(initialLimit);
+    }
+
+    /**
+     * Вычисление в рамках ограничения с учётом времени ответа
+     * @param supplyable вычисляемая функция
+     * @return результат вычисления
+     * @param <X> тип результата
+     * @throws Exception исключение вычисления
+     * @throws RejectedExecutionException если число исполняемых вызовов достигло ограничения
+     */
+    public <X> X call(@NonNull Supplyable<X> supplyable) throws Exception {
+        Objects.requireNonNull(supplyable, "AdaptiveLimit::call - supplyable is null");
+        acquire();
+        long started = System.nanoTime();
+        boolean success = false;
+        try {
+            X result = supplyable.call();
+            success = true;
+            return result;
+        } finally {
+            int current = inFlight.getAndDecrement();
+            if (success) {
+                sample(System.nanoTime() - started, current);
+            }
+        }
+    }
+
+    /**
+     * Текущее ограничение числа одновременно исполняемых вызовов
+     * @return ограничение
+     */
+    public int limit() {
+        return limit.get();
+    }
+
+    /**
+     * Текущее число исполняемых вызовов
+     * @return число вызовов
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Количество отклонённых вызовов
+     * @return число отклонённых вызовов
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private void acquire() {
+        for (int current = inFlight.get(); ; current = inFlight.get()) {
+            if (current >= limit.get()) {
+                rejected.increment();
+                throw new LimitExceededException("AdaptiveLimit::call - limit exceeded");
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    private void sample(long rtt, int concurrent) {
+        long rttNanos = Math.max(1L, rtt);
+        if (samples.incrementAndGet() % PROBE_INTERVAL == 0) {
+            minRtt.set(rttNanos);
+        } else {
+            for (long min = minRtt.get(); rttNanos < min && !minRtt.compareAndSet(min, rttNanos); min = minRtt.get()) {
+                // Повтор до установки нового минимума
+            }
+        }
+        int current = limit.get();
+        // Пока вызовы не упираются в ограничение, время ответа ничего не говорит о его достаточности
+        if (concurrent * 2 < current) {
+            return;
+        }
+        double queue = current * (1.0 - (double) minRtt.get() / rttNanos);
+        double log = Math.max(1.0, Math.log10(current));
+        int next = current;
+        if (queue < 3 * log) {
+            next = current + (int) log;
+        } else if (queue > 6 * log) {
+            next = current - (int) log;
+        }
+        next = Math.max(minLimit, Math.min(maxLimit, next));
+        if (next != current) {
+            // Потерянное при гонке обновление будет учтено следующими замерами
+            limit.compareAndSet(current, next);
+        }
+    }
+
+    /**
+     * Построение ограничения с начальным значением 20 и диапазоном [1, 1000]
+     * @return адаптивное ограничение
+     */
+    public static @NonNull AdaptiveLimit vegas() {
+        return vegas(20, 1, 1000);
+    }
+
+    /**
+     * Построение ограничения с заданными начальным значением и диапазоном
+     * @param initialLimit начальное ограничение
+     * @param minLimit минимальное ограничение (больше 0)
+     * @param maxLimit максимальное ограничение
+     * @return адаптивное ограничение
+     */
+    public static @NonNull AdaptiveLimit vegas(int initialLimit, int minLimit, int maxLimit) {
+        return new AdaptiveLimit(initialLimit, minLimit, maxLimit);
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Конъюнкция условий с адаптивным порядком проверки. Обычный вызов проверяет условия в текущем порядке
+ * до первого ложного. Один вызов из sampleRate проверяет все условия, замеряя их стоимость и результат;
+ * по замерам поддерживаются экспоненциально сглаженные стоимость и доля отказов каждого условия, и после
+ * каждых {@link #REORDER_INTERVAL} замеров условия переупорядочиваются по возрастанию стоимости на один отказ
+ * (cost / rejectRate) - порядок, минимизирующий ожидаемую стоимость проверки для независимых условий.
+ * @param <T> тип параметра
+ */
+final class AdaptivePredicable<T> implements Predicable<T> {
+
+    /**
+     * Доля вызовов, на которых производится замер (1 из SAMPLE_RATE)
+     */
+    static final int SAMPLE_RATE = 64;
+    /**
+     * Число замеров между переупорядочиваниями
+     */
+    static final int REORDER_INTERVAL = 16;
+    // Вес нового замера в сглаженных значениях
+    private static final double ALPHA = 0.1;
+    // Нижняя граница доли отказов, чтобы никогда не отказывающие условия уходили в конец, а не делили на ноль
+    private static final double MIN_REJECT_RATE = 1e-6;
+
+    private final Stat<T>[] stats;
+    private final int sampleRate;
+    private volatile Predicable<? super T>[] order;
+    private int samples;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    AdaptivePredicable(@NonNull List<? extends Predicable<? super T>> predicables, int sampleRate) {
+        Objects.requireNonNull(predicables, "AdaptivePredicable - predicables is null");
+        this.stats = new Stat[predicables.size()];
+        Predicable[] initial = new Predicable[predicables.size()];
+        for (int i = 0; i < stats.length; i++) {
+            initial[i] = Objects.requireNonNull(predicables.get(i), "AdaptivePredicable - predicable is null");
+            stats[i] = new Stat<>(initial[i]);
+        }
+        this.sampleRate = sampleRate;
+        this.order = initial;
+    }
+
+    @Override
+    public boolean verify(T parameter) throws Exception {
+        if (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            return sample(parameter);
+        }
+        for (Predicable<? super T> predicable : order) {
+            if (!predicable.verify(parameter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Текущий порядок проверки условий
+     * @return условия в порядке проверки
+     */
+    @NonNull List<Predicable<? super T>> order() {
+        return List.of(order);
+    }
+
+    private boolean sample(T parameter) throws Exception {
+        long[] costs = new long[stats.length];
+        boolean[] results = new boolean[stats.length];
+        boolean result = true;
+        for (int i = 0; i < stats.length; i++) {
+            long started = System.nanoTime();
+            results[i] = stats[i].predicable.verify(parameter);
+            costs[i] = System.nanoTime() - started;
+            result &= results[i];
+        }
+        record(costs, results);
+        return result;
+    }
+
+    // Замеры редки, поэтому их учёт и переупорядочивание выполняются под блокировкой
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private synchronized void record(long[] costs, boolean[] results) {
+        boolean first = samples == 0;
+        for (int i = 0; i < stats.length; i++) {
+            Stat<T> stat = stats[i];
+            double rejected = results[i] ? 0.0 : 1.0;
+            stat.cost = first ? costs[i] : stat.cost + ALPHA * (costs[i] - stat.cost);
+            stat.rejectRate = first ? rejected : stat.rejectRate + ALPHA * (rejected - stat.rejectRate);
+        }
+        if (++samples % REORDER_INTERVAL == 0) {
+            Stat<T>[] sorted = Arrays.copyOf(stats, stats.length);
+            Arrays.sort(sorted, Comparator.comparingDouble(Stat::rank));
+            Predicable<? super T>[] next = new Predicable[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                next[i] = sorted[i].predicable;
+            }
+            order = next;
+        }
+    }
+
+    private static final class Stat<T> {
+        private final Predicable<? super T> predicable;
+        private double cost;
+        private double rejectRate;
+
+        private Stat(Predicable<? super T> predicable) {
+            this.predicable = predicable;
+        }
+
+        private double rank() {
+            return Math.max(1.0, cost) / Math.max(MIN_REJECT_RATE, rejectRate);
+        }
+    }
+
+}
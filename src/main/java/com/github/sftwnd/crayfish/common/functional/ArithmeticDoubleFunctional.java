@@ -0,0 +1,177 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@link DoubleFunctional}, построенный из арифметических комбинаторов (add, mul, fma, clamp). В отличие от
+ * произвольной функции, его {@link #applyAll(double[], double[])} применяет операции к массиву блоками по {@link #CHUNK}
+ * элементов: каждая операция исполняется простым циклом по блоку, который JIT-компилятор векторизует
+ * (SIMD), а блок остаётся в кеше процессора между операциями. Композиция через andThen двух арифметических
+ * функций остаётся арифметической.
+ */
+final class ArithmeticDoubleFunctional implements DoubleFunctional {
+
+    /**
+     * Число элементов массива, к которому подряд применяются все операции
+     */
+    static final int CHUNK = 1024;
+
+    private static final byte ADD = 0;
+    private static final byte MUL = 1;
+    private static final byte FMA = 2;
+    private static final byte CLAMP = 3;
+
+    private final byte[] codes;
+    private final double[] a;
+    private final double[] b;
+
+    private ArithmeticDoubleFunctional(byte[] codes, double[] a, double[] b) {
+        this.codes = codes;
+        this.a = a;
+        this.b = b;
+    }
+
+    @Override
+    public double execute(double parameter) {
+        double value = parameter;
+        for (int op = 0; op < codes.length; op++) {
+            switch (codes[op]) {
+                case ADD:
+                    value += a[op];
+                    break;
+                case MUL:
+                    value *= a[op];
+                    break;
+                case FMA:
+                    value = Math.fma(value, a[op], b[op]);
+                    break;
+                default:
+                    value = Math.min(Math.max(value, a[op]), b[op]);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void applyAll(@NonNull double[] in, @NonNull double[] out) {
+        checkBounds(in, out);
+        for (int from = 0; from < in.length; from += CHUNK) {
+            int to = Math.min(in.length, from + CHUNK);
+            if (in != out) {
+                System.arraycopy(in, from, out, from, to - from);
+            }
+            for (int op = 0; op < codes.length; op++) {
+                apply(codes[op], a[op], b[op], out, from, to);
+            }
+        }
+    }
+
+    /**
+     * Проверка массивов для {@link DoubleFunctional#applyAll(double[], double[])}
+     * @param in массив параметров
+     * @param out массив результатов
+     */
+    static void checkBounds(@NonNull double[] in, @NonNull double[] out) {
+        Objects.requireNonNull(in, "DoubleFunctional::applyAll - in is null");
+        Objects.requireNonNull(out, "DoubleFunctional::applyAll - out is null");
+        if (out.length < in.length) {
+            throw new IllegalArgumentException("DoubleFunctional::applyAll - out is shorter than in: " + out.length + " < " + in.length);
+        }
+    }
+
+    @Override
+    public @NonNull DoubleFunctional andThen(@NonNull DoubleFunctional after) {
+        Objects.requireNonNull(after, "DoubleFunctional::andThen - after is null");
+        if (after instanceof ArithmeticDoubleFunctional) {
+            ArithmeticDoubleFunctional next = (ArithmeticDoubleFunctional) after;
+            return new ArithmeticDoubleFunctional(concat(codes, next.codes), concat(a, next.a), concat(b, next.b));
+        }
+        return parameter -> after.execute(execute(parameter));
+    }
+
+    // Отдельные простые циклы на каждую операцию векторизуются JIT-компилятором
+    private static void apply(byte code, double factor, double addend, double[] out, int from, int to) {
+        switch (code) {
+            case ADD:
+                for (int i = from; i < to; i++) {
+                    out[i] += factor;
+                }
+                break;
+            case MUL:
+                for (int i = from; i < to; i++) {
+                    out[i] *= factor;
+                }
+                break;
+            case FMA:
+                for (int i = from; i < to; i++) {
+                    out[i] = Math.fma(out[i], factor, addend);
+                }
+                break;
+            default:
+                for (int i = from; i < to; i++) {
+                    out[i] = Math.min(Math.max(out[i], factor), addend);
+                }
+        }
+    }
+
+    private static byte[] concat(byte[] left, byte[] right) {
+        byte[] result = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, result, left.length, right.length);
+        return result;
+    }
+
+    private static double[] concat(double[] left, double[] right) {
+        double[] result = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, result, left.length, right.length);
+        return result;
+    }
+
+    private static ArithmeticDoubleFunctional single(byte code, double a, double b) {
+        return new ArithmeticDoubleFunctional(new byte[] { code }, new double[] { a }, new double[] { b });
+    }
+
+    /**
+     * Функция x + addend
+     * @param addend прибавляемое значение
+     * @return арифметическая функция
+     */
+    static @NonNull ArithmeticDoubleFunctional add(double addend) {
+        return single(ADD, addend, 0);
+    }
+
+    /**
+     * Функция x * factor
+     * @param factor множитель
+     * @return арифметическая функция
+     */
+    static @NonNull ArithmeticDoubleFunctional mul(double factor) {
+        return single(MUL, factor, 0);
+    }
+
+    /**
+     * Функция Math.fma(x, factor, addend)
+     * @param factor множитель
+     * @param addend прибавляемое значение
+     * @return арифметическая функция
+     */
+    static @NonNull ArithmeticDoubleFunctional fma(double factor, double addend) {
+        return single(FMA, factor, addend);
+    }
+
+    /**
+     * Функция min(max(x, min), max)
+     * @param min нижняя граница
+     * @param max верхняя граница
+     * @return арифметическая функция
+     */
+    static @NonNull ArithmeticDoubleFunctional clamp(double min, double max) {
+        if (!(min <= max)) {
+            throw new IllegalArgumentException("DoubleFunctional::clamp - min has to be not greater than max: " + min + ", " + max);
+        }
+        return single(CLAMP, min, max);
+    }
+
+}
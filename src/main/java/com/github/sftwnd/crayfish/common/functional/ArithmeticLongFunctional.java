@@ -0,0 +1,177 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@link LongFunctional}, построенный из арифметических комбинаторов (add, mul, fma, clamp). В отличие от
+ * произвольной функции, его {@link #applyAll(long[], long[])} применяет операции к массиву блоками по {@link #CHUNK}
+ * элементов: каждая операция исполняется простым циклом по блоку, который JIT-компилятор векторизует
+ * (SIMD), а блок остаётся в кеше процессора между операциями. Композиция через andThen двух арифметических
+ * функций остаётся арифметической.
+ */
+final class ArithmeticLongFunctional implements LongFunctional {
+
+    /**
+     * Число элементов массива, к которому подряд применяются все операции
+     */
+    static final int CHUNK = 1024;
+
+    private static final byte ADD = 0;
+    private static final byte MUL = 1;
+    private static final byte FMA = 2;
+    private static final byte CLAMP = 3;
+
+    private final byte[] codes;
+    private final long[] a;
+    private final long[] b;
+
+    private ArithmeticLongFunctional(byte[] codes, long[] a, long[] b) {
+        this.codes = codes;
+        this.a = a;
+        this.b = b;
+    }
+
+    @Override
+    public long execute(long parameter) {
+        long value = parameter;
+        for (int op = 0; op < codes.length; op++) {
+            switch (codes[op]) {
+                case ADD:
+                    value += a[op];
+                    break;
+                case MUL:
+                    value *= a[op];
+                    break;
+                case FMA:
+                    value = value * a[op] + b[op];
+                    break;
+                default:
+                    value = Math.min(Math.max(value, a[op]), b[op]);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void applyAll(@NonNull long[] in, @NonNull long[] out) {
+        checkBounds(in, out);
+        for (int from = 0; from < in.length; from += CHUNK) {
+            int to = Math.min(in.length, from + CHUNK);
+            if (in != out) {
+                System.arraycopy(in, from, out, from, to - from);
+            }
+            for (int op = 0; op < codes.length; op++) {
+                apply(codes[op], a[op], b[op], out, from, to);
+            }
+        }
+    }
+
+    /**
+     * Проверка массивов для {@link LongFunctional#applyAll(long[], long[])}
+     * @param in массив параметров
+     * @param out массив результатов
+     */
+    static void checkBounds(@NonNull long[] in, @NonNull long[] out) {
+        Objects.requireNonNull(in, "LongFunctional::applyAll - in is null");
+        Objects.requireNonNull(out, "LongFunctional::applyAll - out is null");
+        if (out.length < in.length) {
+            throw new IllegalArgumentException("LongFunctional::applyAll - out is shorter than in: " + out.length + " < " + in.length);
+        }
+    }
+
+    @Override
+    public @NonNull LongFunctional andThen(@NonNull LongFunctional after) {
+        Objects.requireNonNull(after, "LongFunctional::andThen - after is null");
+        if (after instanceof ArithmeticLongFunctional) {
+            ArithmeticLongFunctional next = (ArithmeticLongFunctional) after;
+            return new ArithmeticLongFunctional(concat(codes, next.codes), concat(a, next.a), concat(b, next.b));
+        }
+        return parameter -> after.execute(execute(parameter));
+    }
+
+    // Отдельные простые циклы на каждую операцию векторизуются JIT-компилятором
+    private static void apply(byte code, long factor, long addend, long[] out, int from, int to) {
+        switch (code) {
+            case ADD:
+                for (int i = from; i < to; i++) {
+                    out[i] += factor;
+                }
+                break;
+            case MUL:
+                for (int i = from; i < to; i++) {
+                    out[i] *= factor;
+                }
+                break;
+            case FMA:
+                for (int i = from; i < to; i++) {
+                    out[i] = out[i] * factor + addend;
+                }
+                break;
+            default:
+                for (int i = from; i < to; i++) {
+                    out[i] = Math.min(Math.max(out[i], factor), addend);
+                }
+        }
+    }
+
+    private static byte[] concat(byte[] left, byte[] right) {
+        byte[] result = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, result, left.length, right.length);
+        return result;
+    }
+
+    private static long[] concat(long[] left, long[] right) {
+        long[] result = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, result, left.length, right.length);
+        return result;
+    }
+
+    private static ArithmeticLongFunctional single(byte code, long a, long b) {
+        return new ArithmeticLongFunctional(new byte[] { code }, new long[] { a }, new long[] { b });
+    }
+
+    /**
+     * Функция x + addend
+     * @param addend прибавляемое значение
+     * @return арифметическая функция
+     */
+    static @NonNull ArithmeticLongFunctional add(long addend) {
+        return single(ADD, addend, 0);
+    }
+
+    /**
+     * Функция x * factor
+     * @param factor множитель
+     * @return арифметическая функция
+     */
+    static @NonNull ArithmeticLongFunctional mul(long factor) {
+        return single(MUL, factor, 0);
+    }
+
+    /**
+     * Функция x * factor + addend
+     * @param factor множитель
+     * @param addend прибавляемое значение
+     * @return арифметическая функция
+     */
+    static @NonNull ArithmeticLongFunctional fma(long factor, long addend) {
+        return single(FMA, factor, addend);
+    }
+
+    /**
+     * Функция min(max(x, min), max)
+     * @param min нижняя граница
+     * @param max верхняя граница
+     * @return арифметическая функция
+     */
+    static @NonNull ArithmeticLongFunctional clamp(long min, long max) {
+        if (!(min <= max)) {
+            throw new IllegalArgumentException("LongFunctional::clamp - min has to be not greater than max: " + min + ", " + max);
+        }
+        return single(CLAMP, min, max);
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Асинхронный {@link Consumable} с ограниченной очередью: вызов process только помещает параметр в очередь,
+ * а исходный {@link Consumable} вызывается последовательно задачей на {@link Executor}. При заполнении очереди
+ * поведение определяется {@link OverflowPolicy}, отброшенные элементы подсчитываются.
+ * @param <T> тип параметра
+ */
+public final class AsyncConsumable<T> implements Consumable<T> {
+
+    private final Consumable<? super T> consumable;
+    private final Executor executor;
+    private final OverflowPolicy overflowPolicy;
+    private final BiConsumable<? super T, ? super Exception> onError;
+    private final BlockingQueue<T> queue;
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final LongAdder dropped = new LongAdder();
+    private final Runnable drain = this::drain;
+
+    AsyncConsumable(@NonNull Consumable<? super T> consumable, @NonNull Executor executor, int capacity,
+                    @NonNull OverflowPolicy overflowPolicy, @NonNull BiConsumable<? super T, ? super Exception> onError) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("AsyncConsumable - capacity has to be positive: " + capacity);
+        }
+        this.consumable = Objects.requireNonNull(consumable, "AsyncConsumable - consumable is null");
+        this.executor = Objects.requireNonNull(executor, "AsyncConsumable - executor is null");
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "AsyncConsumable - overflowPolicy is null");
+        this.onError = Objects.requireNonNull(onError, "AsyncConsumable - onError is null");
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Помещает параметр в очередь с учётом {@link OverflowPolicy} и планирует её разбор
+     * @param parameter параметр метода (не null)
+     * @throws InterruptedException если ожидание места в очереди для {@link OverflowPolicy#BLOCK} прервано
+     * @throws RejectedExecutionException если очередь заполнена для {@link OverflowPolicy#FAIL_FAST}
+     */
+    @Override
+    public void process(@NonNull T parameter) throws InterruptedException {
+        Objects.requireNonNull(parameter, "AsyncConsumable::process - parameter is null");
+        switch (overflowPolicy) {
+            case BLOCK:
+                queue.put(parameter);
+                break;
+            case DROP_NEWEST:
+                if (!queue.offer(parameter)) {
+                    dropped.increment();
+                    return;
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(parameter)) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+                break;
+            default:
+                if (!queue.offer(parameter)) {
+                    dropped.increment();
+                    throw new RejectedExecutionException("AsyncConsumable::process - queue is full");
+                }
+        }
+        schedule();
+    }
+
+    /**
+     * Количество элементов, отброшенных из-за переполнения очереди
+     * @return число отброшенных элементов
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Текущая глубина очереди
+     * @return количество элементов, ожидающих обработки
+     */
+    public int depth() {
+        return queue.size();
+    }
+
+    /**
+     * Политика переполнения очереди
+     * @return {@link OverflowPolicy}
+     */
+    public @NonNull OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    private void drain() {
+        for (int processed = 0; processed < SerializedConsumable.BATCH_SIZE; processed++) {
+            T parameter = queue.poll();
+            if (parameter == null) {
+                scheduled.set(false);
+                // Производитель мог добавить элемент между проверкой очереди и сбросом флага
+                if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            } else {
+                deliver(parameter);
+            }
+        }
+        resubmit();
+    }
+
+    private void deliver(T parameter) {
+        try {
+            consumable.process(parameter);
+        } catch (Exception exception) {
+            try {
+                onError.process(parameter, exception);
+            } catch (Exception ignore) {
+                // Ошибка в обработчике ошибок не должна останавливать разбор очереди
+            }
+        }
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            resubmit();
+        }
+    }
+
+    private void resubmit() {
+        try {
+            executor.execute(drain);
+        } catch (RejectedExecutionException rejected) {
+            scheduled.set(false);
+            throw rejected;
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Неблокирующая мемоизация асинхронной загрузки: кешируются сами {@link CompletableFuture}, поэтому одновременные
+ * вызовы по одному ключу получают одну и ту же загрузку, и ни один поток не ждёт её завершения. Загрузка,
+ * завершившаяся исключением (в том числе отменённая одним из получателей), считается устаревшей сразу после
+ * завершения: следующий вызов, в том числе из обработчика неудачи этой же загрузки, загружает значение заново. Время жизни записи (TTL) отсчитывается от успешного завершения загрузки.
+ * Размер кеша ограничен: при превышении вытесняются записи в порядке добавления.
+ * @param <K> тип ключа (параметра функции)
+ * @param <V> тип значения
+ */
+public final class AsyncMemo<K, V> implements Functional<K, CompletableFuture<V>> {
+
+    private final Functional<? super K, ? extends CompletableFuture<? extends V>> loader;
+    private final long ttlNanos;
+    private final int maximumSize;
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    // Порядок добавления для вытеснения, может содержать уже удалённые из кеша записи
+    private final ConcurrentLinkedQueue<Entry<K, V>> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger ordered = new AtomicInteger();
+
+    private AsyncMemo(@NonNull Functional<? super K, ? extends CompletableFuture<? extends V>> loader, long ttlNanos, int maximumSize) {
+        this.loader = Objects.requireNonNull(loader, "AsyncMemo - loader is null");
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("AsyncMemo - maximumSize has to be positive: " + maximumSize);
+        }
+        this.ttlNanos = ttlNanos;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Загрузка значения: закешированная или выполняющаяся загрузка ключа, либо новая.
+     * Синхронное исключение загрузчика возвращается как исключительно завершённая {@link CompletableFuture}
+     * @param key ключ (не null)
+     * @return {@link CompletableFuture} загрузки, общая для всех вызовов по ключу
+     */
+    @Override
+    public @NonNull CompletableFuture<V> execute(@NonNull K key) {
+        Objects.requireNonNull(key, "AsyncMemo::execute - key is null");
+        while (true) {
+            Entry<K, V> current = entries.get(key);
+            if (current != null && !current.isStale()) {
+                return current.future;
+            }
+            Entry<K, V> entry = new Entry<>(key);
+            boolean installed = current == null ? entries.putIfAbsent(key, entry) == null : entries.replace(key, current, entry);
+            if (installed) {
+                if (current != null) {
+                    current.removed = true;
+                }
+                enqueue(entry);
+                load(entry);
+                return entry.future;
+            }
+        }
+    }
+
+    /**
+     * Удаление записи ключа. Выполняющаяся загрузка не отменяется, но её результат не кешируется
+     * @param key ключ
+     */
+    public void invalidate(@NonNull K key) {
+        Entry<K, V> entry = entries.remove(Objects.requireNonNull(key, "AsyncMemo::invalidate - key is null"));
+        if (entry != null) {
+            entry.removed = true;
+        }
+    }
+
+    /**
+     * Число записей в кеше, включая выполняющиеся загрузки
+     * @return число записей
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void load(Entry<K, V> entry) {
+        CompletableFuture<? extends V> loaded;
+        try {
+            loaded = Objects.requireNonNull(loader.execute(entry.key), "AsyncMemo::execute - loader result is null");
+        } catch (Exception exception) {
+            loaded = CompletableFuture.failedFuture(exception);
+        }
+        entry.future.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                remove(entry);
+            } else if (ttlNanos > 0L) {
+                entry.expiresAt = System.nanoTime() + ttlNanos;
+            }
+        });
+        loaded.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                entry.future.completeExceptionally(throwable);
+            } else {
+                entry.future.complete(value);
+            }
+        });
+    }
+
+    private void remove(Entry<K, V> entry) {
+        if (entries.remove(entry.key, entry)) {
+            entry.removed = true;
+        }
+    }
+
+    private void enqueue(Entry<K, V> entry) {
+        order.offer(entry);
+        // Удалённые записи вычищаются из очереди, когда она вдвое превышает допустимый размер
+        if (ordered.incrementAndGet() > maximumSize * 2 && order.removeIf(queued -> queued.removed)) {
+            ordered.set(order.size());
+        }
+        while (entries.size() > maximumSize) {
+            Entry<K, V> eldest = order.poll();
+            if (eldest == null) {
+                break;
+            }
+            ordered.decrementAndGet();
+            remove(eldest);
+        }
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        // До завершения загрузки запись не устаревает
+        private volatile long expiresAt = Long.MAX_VALUE;
+        private volatile boolean removed;
+
+        private Entry(K key) {
+            this.key = key;
+        }
+
+        // Неудачная загрузка устаревает сразу, не дожидаясь удаления из кеша
+        private boolean isStale() {
+            if (future.isCompletedExceptionally()) {
+                return true;
+            }
+            long deadline = expiresAt;
+            return deadline != Long.MAX_VALUE && deadline - System.nanoTime() <= 0L;
+        }
+    }
+
+    /**
+     * Построение мемоизации асинхронного загрузчика без ограничения времени жизни записей
+     * @param loader загрузчик значения по ключу
+     * @param maximumSize максимальное число записей
+     * @return {@link AsyncMemo}
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    public static <K, V> @NonNull AsyncMemo<K, V> asyncMemo(@NonNull Functional<? super K, ? extends CompletableFuture<? extends V>> loader,
+                                                            int maximumSize) {
+        return new AsyncMemo<>(loader, 0L, maximumSize);
+    }
+
+    /**
+     * Построение мемоизации асинхронного загрузчика
+     * @param loader загрузчик значения по ключу
+     * @param ttl время жизни записи после успешной загрузки
+     * @param maximumSize максимальное число записей
+     * @return {@link AsyncMemo}
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    public static <K, V> @NonNull AsyncMemo<K, V> asyncMemo(@NonNull Functional<? super K, ? extends CompletableFuture<? extends V>> loader,
+                                                            @NonNull Duration ttl, int maximumSize) {
+        return new AsyncMemo<>(loader, SharedScheduler.positiveNanos(ttl, "AsyncMemo::asyncMemo - ttl"), maximumSize);
+    }
+
+    /**
+     * Построение мемоизации синхронной функции, исполняемой на заданном {@link Executor}, без ограничения времени жизни записей
+     * @param functional функция загрузки значения по ключу
+     * @param executor исполнитель загрузок
+     * @param maximumSize максимальное число записей
+     * @return {@link AsyncMemo}
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    public static <K, V> @NonNull AsyncMemo<K, V> asyncMemo(@NonNull Functional<? super K, ? extends V> functional, @NonNull Executor executor,
+                                                            int maximumSize) {
+        return new AsyncMemo<>(loader(functional, executor), 0L, maximumSize);
+    }
+
+    /**
+     * Построение мемоизации синхронной функции, исполняемой на заданном {@link Executor}
+     * @param functional функция загрузки значения по ключу
+     * @param executor исполнитель загрузок
+     * @param ttl время жизни записи после успешной загрузки
+     * @param maximumSize максимальное число записей
+     * @return {@link AsyncMemo}
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    public static <K, V> @NonNull AsyncMemo<K, V> asyncMemo(@NonNull Functional<? super K, ? extends V> functional, @NonNull Executor executor,
+                                                            @NonNull Duration ttl, int maximumSize) {
+        return asyncMemo(loader(functional, executor), ttl, maximumSize);
+    }
+
+    private static <K, V> Functional<K, CompletableFuture<V>> loader(@NonNull Functional<? super K, ? extends V> functional, @NonNull Executor executor) {
+        Objects.requireNonNull(functional, "AsyncMemo::asyncMemo - functional is null");
+        Objects.requireNonNull(executor, "AsyncMemo::asyncMemo - executor is null");
+        return key -> {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            executor.execute(() -> functional.completable(future).accept(key));
+            return future;
+        };
+    }
+
+}
@@ -113,6 +113,56 @@ public interface BiConsumable <T, U> extends BiConsumer<T, U> {
         return this::functionally;
     }
 
+    /**
+     * Создаёт {@link BiConsumable} с ограничением частоты вызовов: вызовы сверх частоты сразу отклоняются
+     * @param permitsPerSecond число вызовов в секунду
+     * @param burst число вызовов, которые можно выполнить подряд после простоя
+     * @return {@link BiConsumable} с ограничением частоты
+     */
+    default @NonNull BiConsumable<T, U> rateLimited(double permitsPerSecond, int burst) {
+        return rateLimited(RateLimit.rateLimit(permitsPerSecond, burst));
+    }
+
+    /**
+     * Создаёт {@link BiConsumable} с ограничением частоты вызовов, общим с другими вызовами
+     * @param rateLimit ограничение частоты
+     * @return {@link BiConsumable} с ограничением частоты
+     */
+    default @NonNull BiConsumable<T, U> rateLimited(@NonNull RateLimit rateLimit) {
+        Objects.requireNonNull(rateLimit, "BiConsumable::rateLimited - rateLimit is null");
+        return (left, right) -> rateLimit.run(() -> process(left, right));
+    }
+
+    /**
+     * Создаёт {@link BiConsumable} с ограничением числа одновременных вызовов: вызовы сверх ограничения сразу отклоняются
+     * @param maxConcurrent максимальное число одновременных вызовов
+     * @return {@link BiConsumable} с ограничением числа одновременных вызовов
+     */
+    default @NonNull BiConsumable<T, U> bulkhead(int maxConcurrent) {
+        return bulkhead(Bulkhead.bulkhead(maxConcurrent));
+    }
+
+    /**
+     * Создаёт {@link BiConsumable} с ограничением числа одновременных вызовов, общим с другими вызовами
+     * @param bulkhead ограничение числа одновременных вызовов
+     * @return {@link BiConsumable} с ограничением числа одновременных вызовов
+     */
+    default @NonNull BiConsumable<T, U> bulkhead(@NonNull Bulkhead bulkhead) {
+        Objects.requireNonNull(bulkhead, "BiConsumable::bulkhead - bulkhead is null");
+        return (left, right) -> bulkhead.run(() -> process(left, right));
+    }
+
+    /**
+     * Создаёт {@link BiConsumable}, вызываемый через {@link CircuitBreaker}: при разомкнутом выключателе
+     * вызовы сразу отклоняются без обращения к исходному {@link BiConsumable}
+     * @param circuitBreaker автоматический выключатель (обычно общий для всех вызовов исполнителя)
+     * @return {@link BiConsumable} с автоматическим выключателем
+     */
+    default @NonNull BiConsumable<T, U> circuitBreaker(@NonNull CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(circuitBreaker, "BiConsumable::circuitBreaker - circuitBreaker is null");
+        return (left, right) -> circuitBreaker.run(() -> process(left, right));
+    }
+
     /**
      * Функция позволяет превратить метод от параметра к {@link BiConsumable} интерфейсу
      * @param consumable оборачиваемый метод
@@ -147,7 +197,7 @@ public interface BiConsumable <T, U> extends BiConsumer<T, U> {
         return (left, right) -> {
             try {
                 if (!completableFuture.isDone()) {
-                    this.process(left, right);
+                    Cancellation.of(completableFuture).run(() -> this.process(left, right));
                     completableFuture.complete(null);
                 }
             } catch (Exception exception) {
@@ -156,4 +206,25 @@ public interface BiConsumable <T, U> extends BiConsumer<T, U> {
         };
     }
 
+    /**
+     * Функция связывается с {@link Promise} аналогично связыванию с {@link CompletableFuture}: promise заполняется
+     * результатом в случае успешного выполнения или исключением при его возникновении. Вызов не выполняется,
+     * если promise уже завершён.
+     * @param promise связываемый {@link Promise}
+     * @return Consumer для вызова функции
+     */
+    default @NonNull BiConsumable<T, U> completable(@NonNull Promise<?> promise) {
+        Objects.requireNonNull(promise, "BiConsumable::completable - promise is null");
+        return (left, right) -> {
+            try {
+                if (!promise.isDone()) {
+                    Cancellation.of(promise).run(() -> this.process(left, right));
+                    promise.complete(null);
+                }
+            } catch (Exception exception) {
+                promise.completeExceptionally(exception);
+            }
+        };
+    }
+
 }
@@ -5,6 +5,7 @@ import lombok.SneakyThrows;
 
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 
 import static com.github.sftwnd.crayfish.common.functional.With.with;
@@ -113,7 +114,7 @@ public interface BiFunctional<T, U, R> extends BiFunction<T, U, R> {
      */
     default <S> @NonNull BiFunctional<T, U, S> furtherApply(@NonNull Functional<? super R, ? extends S> functional) {
         Objects.requireNonNull(functional, "Functional::furtherApply - functional is null");
-        return (left, right) -> functional.apply(this.apply(left, right));
+        return (left, right) -> with(this.supplyable(left, right)).transform(functional);
     }
 
     /**
@@ -164,6 +165,80 @@ public interface BiFunctional<T, U, R> extends BiFunction<T, U, R> {
         return left -> with(supplyable).transform(right -> apply(left, right));
     }
 
+    /**
+     * Создаёт {@link BiFunctional} с ограничением частоты вызовов: вызовы сверх частоты сразу отклоняются
+     * @param permitsPerSecond число вызовов в секунду
+     * @param burst число вызовов, которые можно выполнить подряд после простоя
+     * @return {@link BiFunctional} с ограничением частоты
+     */
+    default @NonNull BiFunctional<T, U, R> rateLimited(double permitsPerSecond, int burst) {
+        return rateLimited(RateLimit.rateLimit(permitsPerSecond, burst));
+    }
+
+    /**
+     * Создаёт {@link BiFunctional} с ограничением частоты вызовов, общим с другими вызовами
+     * @param rateLimit ограничение частоты
+     * @return {@link BiFunctional} с ограничением частоты
+     */
+    default @NonNull BiFunctional<T, U, R> rateLimited(@NonNull RateLimit rateLimit) {
+        Objects.requireNonNull(rateLimit, "BiFunctional::rateLimited - rateLimit is null");
+        return (left, right) -> rateLimit.call(() -> execute(left, right));
+    }
+
+    /**
+     * Создаёт {@link BiFunctional} с ограничением числа одновременных вызовов: вызовы сверх ограничения сразу отклоняются
+     * @param maxConcurrent максимальное число одновременных вызовов
+     * @return {@link BiFunctional} с ограничением числа одновременных вызовов
+     */
+    default @NonNull BiFunctional<T, U, R> bulkhead(int maxConcurrent) {
+        return bulkhead(Bulkhead.bulkhead(maxConcurrent));
+    }
+
+    /**
+     * Создаёт {@link BiFunctional} с ограничением числа одновременных вызовов, общим с другими вызовами
+     * @param bulkhead ограничение числа одновременных вызовов
+     * @return {@link BiFunctional} с ограничением числа одновременных вызовов
+     */
+    default @NonNull BiFunctional<T, U, R> bulkhead(@NonNull Bulkhead bulkhead) {
+        Objects.requireNonNull(bulkhead, "BiFunctional::bulkhead - bulkhead is null");
+        return (left, right) -> bulkhead.call(() -> execute(left, right));
+    }
+
+    /**
+     * Создаёт {@link BiFunctional}, повторяющий неудачные вызовы по {@link RetryPolicy}. Паузы между попытками
+     * ожидаются в вызывающем потоке
+     * @param retryPolicy политика повторов
+     * @return {@link BiFunctional} с повторами
+     */
+    default @NonNull BiFunctional<T, U, R> retrying(@NonNull RetryPolicy retryPolicy) {
+        Objects.requireNonNull(retryPolicy, "BiFunctional::retrying - retryPolicy is null");
+        return (left, right) -> retryPolicy.call(() -> execute(left, right));
+    }
+
+    /**
+     * Создаёт {@link BiFunctional}, запускающий вызов с повторами по {@link RetryPolicy} на {@link Executor}: паузы между попытками
+     * отсчитываются общим планировщиком без занятия потоков
+     * @param retryPolicy политика повторов
+     * @param executor исполнитель попыток
+     * @return {@link BiFunctional} с {@link CompletableFuture} результата
+     */
+    default @NonNull BiFunctional<T, U, CompletableFuture<R>> retryingAsync(@NonNull RetryPolicy retryPolicy, @NonNull Executor executor) {
+        Objects.requireNonNull(retryPolicy, "BiFunctional::retryingAsync - retryPolicy is null");
+        Objects.requireNonNull(executor, "BiFunctional::retryingAsync - executor is null");
+        return (left, right) -> retryPolicy.callAsync(() -> execute(left, right), executor);
+    }
+
+    /**
+     * Создаёт {@link BiFunctional}, вызываемый через {@link CircuitBreaker}: при разомкнутом выключателе
+     * вызовы сразу отклоняются без обращения к исходному {@link BiFunctional}
+     * @param circuitBreaker автоматический выключатель (обычно общий для всех вызовов исполнителя)
+     * @return {@link BiFunctional} с автоматическим выключателем
+     */
+    default @NonNull BiFunctional<T, U, R> circuitBreaker(@NonNull CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(circuitBreaker, "BiFunctional::circuitBreaker - circuitBreaker is null");
+        return (left, right) -> circuitBreaker.call(() -> execute(left, right));
+    }
+
     /**
      * Функция позволяет превратить метод от двух параметров к {@link BiFunctional} интерфейсу
      * @param bifunctional оборачиваемый метод
@@ -200,7 +275,7 @@ public interface BiFunctional<T, U, R> extends BiFunction<T, U, R> {
         return (left, right) -> {
             try {
                 if (!completableFuture.isDone()) {
-                    completableFuture.complete(this.execute(left, right));
+                    completableFuture.complete(Cancellation.of(completableFuture).call(() -> this.execute(left, right)));
                 }
             } catch (Exception exception) {
                 completableFuture.completeExceptionally(exception);
@@ -208,4 +283,24 @@ public interface BiFunctional<T, U, R> extends BiFunction<T, U, R> {
         };
     }
 
+    /**
+     * Функция связывается с {@link Promise} аналогично связыванию с {@link CompletableFuture}: promise заполняется
+     * результатом в случае успешного выполнения или исключением при его возникновении. Вызов не выполняется,
+     * если promise уже завершён.
+     * @param promise связываемый {@link Promise}
+     * @return Consumer для вызова функции
+     */
+    default @NonNull BiConsumable<T, U> completable(@NonNull Promise<? super R> promise) {
+        Objects.requireNonNull(promise, "BiFunctional::completable - promise is null");
+        return (left, right) -> {
+            try {
+                if (!promise.isDone()) {
+                    promise.complete(Cancellation.of(promise).call(() -> this.execute(left, right)));
+                }
+            } catch (Exception exception) {
+                promise.completeExceptionally(exception);
+            }
+        };
+    }
+
 }
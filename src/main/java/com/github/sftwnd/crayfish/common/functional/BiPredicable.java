@@ -0,0 +1,117 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import lombok.SneakyThrows;
+
+import java.util.Objects;
+import java.util.function.BiPredicate;
+
+/**
+ * Расширение {@link BiPredicate}, но метод может бросать исключение.
+ * @param <T> тип первого параметра
+ * @param <U> тип второго параметра
+ * Used sonar warnings:
+ *      java:S112   Generic exceptions should never be thrown
+ */
+@FunctionalInterface
+public interface BiPredicable<T, U> extends BiPredicate<T, U> {
+
+    /**
+     * Проверяет условие для заданных аргументов
+     * @param left первый параметр условия
+     * @param right второй параметр условия
+     * @return результат проверки условия
+     * @throws Exception исключение, произошедшее в результате исполнения
+     */
+    boolean verify(T left, U right) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+
+    /**
+     * Проверяет условие для заданных аргументов
+     * @param left первый параметр условия
+     * @param right второй параметр условия
+     * @return результат проверки условия
+     */
+    @Override
+    @SneakyThrows
+    default boolean test(T left, U right) {
+        return verify(left, right);
+    }
+
+    /**
+     * Создаёт {@link BiPredicable}, истинный, если истинны оба условия. Второе условие проверяется, только если истинно первое
+     * @param other второе условие
+     * @return построенный {@link BiPredicable}
+     */
+    default @NonNull BiPredicable<T, U> and(@NonNull BiPredicable<? super T, ? super U> other) {
+        Objects.requireNonNull(other, "BiPredicable::and - other is null");
+        return (left, right) -> verify(left, right) && other.verify(left, right);
+    }
+
+    /**
+     * Создаёт {@link BiPredicable}, истинный, если истинно хотя бы одно из условий. Второе условие проверяется, только если ложно первое
+     * @param other второе условие
+     * @return построенный {@link BiPredicable}
+     */
+    default @NonNull BiPredicable<T, U> or(@NonNull BiPredicable<? super T, ? super U> other) {
+        Objects.requireNonNull(other, "BiPredicable::or - other is null");
+        return (left, right) -> verify(left, right) || other.verify(left, right);
+    }
+
+    /**
+     * Создаёт {@link BiPredicable}, обратный исходному
+     * @return построенный {@link BiPredicable}
+     */
+    @Override
+    default @NonNull BiPredicable<T, U> negate() {
+        return (left, right) -> !verify(left, right);
+    }
+
+    /**
+     * Создаёт {@link Predicable}, который при вызове подставляет заданное значение в первый параметр условия
+     * @param left фиксируемое значение первого параметра условия
+     * @return построенный {@link Predicable}
+     */
+    default @NonNull Predicable<U> left(T left) {
+        return right -> verify(left, right);
+    }
+
+    /**
+     * Создаёт {@link Predicable}, который при вызове подставляет заданное значение во второй параметр условия
+     * @param right фиксируемое значение второго параметра условия
+     * @return построенный {@link Predicable}
+     */
+    default @NonNull Predicable<T> right(U right) {
+        return left -> verify(left, right);
+    }
+
+    /**
+     * Создаёт {@link BiFunctional}, возвращающий результат проверки условия
+     * @return построенный {@link BiFunctional}
+     */
+    default @NonNull BiFunctional<T, U, Boolean> functional() {
+        return this::verify;
+    }
+
+    /**
+     * Функция позволяет превратить метод от двух параметров к {@link BiPredicable}
+     * @param bipredicable метод от двух параметров, возвращающий boolean
+     * @return объект {@link BiPredicable}
+     * @param <T> тип первого параметра
+     * @param <U> тип второго параметра
+     */
+    static <T, U> @NonNull BiPredicable<T, U> bipredicable(@NonNull BiPredicable<T, U> bipredicable) {
+        return Objects.requireNonNull(bipredicable, "BiPredicable::bipredicable - bipredicable is null");
+    }
+
+    /**
+     * Функция осуществляет приведение {@link BiPredicate} к {@link BiPredicable}
+     * @param bipredicate приводимый {@link BiPredicate} объект
+     * @return {@link BiPredicable} обёртка
+     * @param <T> тип первого параметра
+     * @param <U> тип второго параметра
+     */
+    static @NonNull <T, U> BiPredicable<T, U> cast(@NonNull BiPredicate<T, U> bipredicate) {
+        return Objects.requireNonNull(bipredicate, "BiPredicable::cast - bipredicate is null")::test;
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничение числа одновременно исполняемых вызовов (bulkhead) на полосном семафоре: разрешения разделены
+ * между полосами (полоса выбирается по идентификатору потока), счётчики полос выровнены padding-ом против
+ * false sharing. Поток берёт разрешение в своей полосе, а при её исчерпании - в остальных, поэтому общее
+ * число исполняемых вызовов точно не превышает заданного. Вызов без свободного разрешения сразу отклоняется
+ * новым {@link RejectedExecutionException} без стека вызовов.
+ */
+public final class Bulkhead {
+
+    private final Stripes.Cell[] stripes;
+    private final int[] permits;
+    private final int mask;
+    private final LongAdder rejected = new LongAdder();
+
+    private Bulkhead(int maxConcurrent, int stripes) {
+        int size = Math.min(Integer.highestOneBit(maxConcurrent), Stripes.size(stripes));
+        this.stripes = Stripes.cells(size);
+        this.permits = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.permits[i] = maxConcurrent / size + (i < maxConcurrent % size ? 1 : 0);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Вычисление в рамках ограничения числа одновременных вызовов
+     * @param supplyable вычисляемая функция
+     * @return результат вычисления
+     * @param <X> тип результата
+     * @throws Exception исключение вычисления
+     * @throws RejectedExecutionException если свободных разрешений нет
+     */
+    public <X> X call(@NonNull Supplyable<X> supplyable) throws Exception {
+        Objects.requireNonNull(supplyable, "Bulkhead::call - supplyable is null");
+        Stripes.Cell stripe = acquire();
+        try {
+            return supplyable.call();
+        } finally {
+            stripe.add(-1L);
+        }
+    }
+
+    /**
+     * Исполнение в рамках ограничения числа одновременных вызовов
+     * @param processable исполняемый метод
+     * @throws Exception исключение исполнения
+     * @throws RejectedExecutionException если свободных разрешений нет
+     */
+    public void run(@NonNull Processable processable) throws Exception {
+        call(Objects.requireNonNull(processable, "Bulkhead::run - processable is null")::call);
+    }
+
+    /**
+     * Текущее число исполняемых вызовов
+     * @return число вызовов
+     */
+    public int inFlight() {
+        long inFlight = 0L;
+        for (Stripes.Cell stripe : stripes) {
+            inFlight += stripe.value;
+        }
+        return (int) inFlight;
+    }
+
+    /**
+     * Количество отклонённых вызовов
+     * @return число отклонённых вызовов
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private Stripes.Cell acquire() {
+        int home = Stripes.index(mask);
+        for (int i = 0; i <= mask; i++) {
+            int index = (home + i) & mask;
+            if (stripes[index].tryIncrement(permits[index])) {
+                return stripes[index];
+            }
+        }
+        rejected.increment();
+        throw new LimitExceededException("Bulkhead::call - bulkhead is full");
+    }
+
+    /**
+     * Построение ограничения с числом полос по числу процессоров
+     * @param maxConcurrent максимальное число одновременно исполняемых вызовов
+     * @return ограничение
+     */
+    public static @NonNull Bulkhead bulkhead(int maxConcurrent) {
+        return bulkhead(maxConcurrent, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Построение ограничения с заданным числом полос (округляется вверх до степени двойки, но не больше maxConcurrent)
+     * @param maxConcurrent максимальное число одновременно исполняемых вызовов
+     * @param stripes число полос
+     * @return ограничение
+     */
+    public static @NonNull Bulkhead bulkhead(int maxConcurrent, int stripes) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Bulkhead::bulkhead - maxConcurrent has to be positive: " + maxConcurrent);
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Bulkhead::bulkhead - stripes has to be positive: " + stripes);
+        }
+        return new Bulkhead(maxConcurrent, stripes);
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Признак кооперативной отмены. Пока вызов исполняется внутри {@link #call(Supplyable)} или {@link #run(Processable)},
+ * признак считается текущим для потока, и композиции (furtherApply, furtherRun, furtherAccept, previously, withLeft,
+ * withRight, а также все операции {@link With}) проверяют его между стадиями, бросая {@link CancellationException}
+ * вместо исполнения оставшихся стадий. Методы completable(...) устанавливают признак, связанный с завершением
+ * переданной {@link CompletableFuture} или {@link Promise}, так что отмена future останавливает конвейер.
+ */
+public final class Cancellation {
+
+    private static final ThreadLocal<Cancellation> CURRENT = new ThreadLocal<>();
+
+    private final BooleanSupplier source;
+    private volatile boolean cancelled;
+
+    private Cancellation(@Nullable BooleanSupplier source) {
+        this.source = source;
+    }
+
+    /**
+     * Отменяет исполнение: последующие проверки признака бросают {@link CancellationException}
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Признак отмены
+     * @return true, если вызван {@link #cancel()} или завершён связанный источник
+     */
+    public boolean isCancelled() {
+        return cancelled || source != null && source.getAsBoolean();
+    }
+
+    /**
+     * Проверка признака
+     * @throws CancellationException если исполнение отменено
+     */
+    public void checkpoint() {
+        if (isCancelled()) {
+            throw new CancellationException("Cancellation::checkpoint - cancelled");
+        }
+    }
+
+    /**
+     * Вычисление с установленным для текущего потока признаком отмены
+     * @param supplyable вычисляемая функция
+     * @return результат вычисления
+     * @param <X> тип результата
+     * @throws Exception исключение вычисления или {@link CancellationException} при отмене
+     */
+    public <X> X call(@NonNull Supplyable<X> supplyable) throws Exception {
+        Objects.requireNonNull(supplyable, "Cancellation::call - supplyable is null");
+        checkpoint();
+        Cancellation previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return supplyable.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Исполнение с установленным для текущего потока признаком отмены
+     * @param processable исполняемый метод
+     * @throws Exception исключение исполнения или {@link CancellationException} при отмене
+     */
+    public void run(@NonNull Processable processable) throws Exception {
+        call(Objects.requireNonNull(processable, "Cancellation::run - processable is null")::call);
+    }
+
+    /**
+     * Текущий признак отмены потока
+     * @return признак, установленный {@link #call(Supplyable)} или {@link #run(Processable)}, либо null
+     */
+    public static @Nullable Cancellation current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Проверка текущего признака отмены потока между стадиями композиции
+     * @throws CancellationException если текущий признак отменён
+     */
+    static void check() {
+        Cancellation current = CURRENT.get();
+        if (current != null) {
+            current.checkpoint();
+        }
+    }
+
+    /**
+     * Построение признака, отменяемого только вызовом {@link #cancel()}
+     * @return признак отмены
+     */
+    public static @NonNull Cancellation cancellation() {
+        return new Cancellation(null);
+    }
+
+    /**
+     * Построение признака, отменённого после завершения (в том числе отмены) {@link CompletableFuture}
+     * @param completableFuture связываемая {@link CompletableFuture}
+     * @return признак отмены
+     */
+    public static @NonNull Cancellation of(@NonNull CompletableFuture<?> completableFuture) {
+        return new Cancellation(Objects.requireNonNull(completableFuture, "Cancellation::of - completableFuture is null")::isDone);
+    }
+
+    /**
+     * Построение признака, отменённого после завершения (в том числе отмены) {@link Promise}
+     * @param promise связываемый {@link Promise}
+     * @return признак отмены
+     */
+    public static @NonNull Cancellation of(@NonNull Promise<?> promise) {
+        return new Cancellation(Objects.requireNonNull(promise, "Cancellation::of - promise is null")::isDone);
+    }
+
+}
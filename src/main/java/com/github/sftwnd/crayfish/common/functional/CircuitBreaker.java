@@ -0,0 +1,241 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Lock-free автоматический выключатель. В замкнутом состоянии вызов стоит одного чтения volatile состояния
+ * и инкремента полосного счётчика ({@link LongAdder}) текущей корзины кольца, покрывающего скользящее окно.
+ * Доля неудачных вызовов в окне проверяется только при неудаче; при достижении порога (и минимального числа
+ * вызовов в окне) выключатель размыкается, и вызовы сразу отклоняются новым
+ * {@link RejectedExecutionException} без обращения к исполнителю. По истечении openDuration один вызов
+ * пропускается пробным: его успех замыкает выключатель, неудача (в том числе {@link Error}) снова размыкает.
+ * Пробный вызов, не завершившийся за openDuration, уступает право пробы следующему вызову, поэтому зависший
+ * пробный вызов не блокирует выключатель. Счётчики корзин, сменяющих эпоху при конкурентных вызовах, приблизительны.
+ */
+public final class CircuitBreaker {
+
+    /**
+     * Состояние выключателя
+     */
+    public enum State {
+        /** Вызовы исполняются */
+        CLOSED,
+        /** Вызовы отклоняются */
+        OPEN,
+        /** Исполняется пробный вызов, остальные отклоняются */
+        HALF_OPEN
+    }
+
+    private static final int BUCKETS = 10;
+    private static final State[] STATES = State.values();
+    private static final AtomicIntegerFieldUpdater<CircuitBreaker> STATE = AtomicIntegerFieldUpdater.newUpdater(CircuitBreaker.class, "state");
+    private static final AtomicLongFieldUpdater<CircuitBreaker> OPENED_AT = AtomicLongFieldUpdater.newUpdater(CircuitBreaker.class, "openedAt");
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long bucketNanos;
+    private final long openNanos;
+    private final Predicate<? super Exception> failureOn;
+    private final long origin = System.nanoTime();
+    private final Bucket[] ring = new Bucket[BUCKETS];
+    private final LongAdder rejected = new LongAdder();
+    private volatile int state = State.CLOSED.ordinal();
+    // Момент размыкания, а в полуоткрытом состоянии - момент начала пробного вызова
+    private volatile long openedAt;
+
+    private CircuitBreaker(double failureRateThreshold, int minimumCalls, long windowNanos, long openNanos,
+                           @NonNull Predicate<? super Exception> failureOn) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.bucketNanos = Math.max(1L, windowNanos / BUCKETS);
+        this.openNanos = openNanos;
+        this.failureOn = failureOn;
+        for (int i = 0; i < BUCKETS; i++) {
+            ring[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Вычисление через выключатель
+     * @param supplyable вычисляемая функция
+     * @return результат вычисления
+     * @param <X> тип результата
+     * @throws Exception исключение вычисления
+     * @throws RejectedExecutionException если выключатель разомкнут
+     */
+    public <X> X call(@NonNull Supplyable<X> supplyable) throws Exception {
+        Objects.requireNonNull(supplyable, "CircuitBreaker::call - supplyable is null");
+        int current = state;
+        boolean probe = current != State.CLOSED.ordinal();
+        if (probe && !tryProbe(current)) {
+            rejected.increment();
+            throw new LimitExceededException("CircuitBreaker::call - circuit is open");
+        }
+        // Любой Throwable, кроме исключения, не принятого failureOn, считается неудачей
+        boolean failed = true;
+        try {
+            X result = supplyable.call();
+            failed = false;
+            return result;
+        } catch (Exception exception) {
+            failed = failureOn.test(exception);
+            throw exception;
+        } finally {
+            if (failed) {
+                onFailure(probe);
+            } else {
+                onSuccess(probe);
+            }
+        }
+    }
+
+    /**
+     * Исполнение через выключатель
+     * @param processable исполняемый метод
+     * @throws Exception исключение исполнения
+     * @throws RejectedExecutionException если выключатель разомкнут
+     */
+    public void run(@NonNull Processable processable) throws Exception {
+        call(Objects.requireNonNull(processable, "CircuitBreaker::run - processable is null")::call);
+    }
+
+    /**
+     * Текущее состояние выключателя
+     * @return состояние
+     */
+    public @NonNull State state() {
+        return STATES[state];
+    }
+
+    /**
+     * Количество отклонённых вызовов
+     * @return число отклонённых вызовов
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    // Право пробы получает вызов, сдвинувший openedAt: после openDuration в разомкнутом состоянии
+    // или после openDuration исполнения предыдущего пробного вызова
+    private boolean tryProbe(int current) {
+        long now = System.nanoTime();
+        long opened = openedAt;
+        if (now - opened < openNanos || !OPENED_AT.compareAndSet(this, opened, now)) {
+            return false;
+        }
+        return current == State.HALF_OPEN.ordinal() || STATE.compareAndSet(this, current, State.HALF_OPEN.ordinal());
+    }
+
+    private void onSuccess(boolean probe) {
+        if (probe) {
+            for (Bucket bucket : ring) {
+                bucket.reset(-BUCKETS);
+            }
+            state = State.CLOSED.ordinal();
+        } else {
+            bucket(System.nanoTime()).calls.increment();
+        }
+    }
+
+    private void onFailure(boolean probe) {
+        long now = System.nanoTime();
+        if (probe) {
+            open(now);
+            return;
+        }
+        Bucket current = bucket(now);
+        current.calls.increment();
+        current.failures.increment();
+        long epoch = epoch(now);
+        long calls = 0L;
+        long failures = 0L;
+        for (Bucket bucket : ring) {
+            if (epoch - bucket.epoch < BUCKETS) {
+                calls += bucket.calls.sum();
+                failures += bucket.failures.sum();
+            }
+        }
+        if (calls >= minimumCalls && failures >= failureRateThreshold * calls && state == State.CLOSED.ordinal()) {
+            open(now);
+        }
+    }
+
+    private void open(long now) {
+        // Момент размыкания публикуется до состояния, чтобы прочитавший OPEN видел актуальное значение
+        openedAt = now;
+        state = State.OPEN.ordinal();
+    }
+
+    private long epoch(long now) {
+        return (now - origin) / bucketNanos;
+    }
+
+    private Bucket bucket(long now) {
+        long epoch = epoch(now);
+        Bucket bucket = ring[(int) (epoch % BUCKETS)];
+        long current = bucket.epoch;
+        if (current != epoch && Bucket.EPOCH.compareAndSet(bucket, current, epoch)) {
+            bucket.reset(epoch);
+        }
+        return bucket;
+    }
+
+    /**
+     * Построение выключателя, считающего неудачей любое исключение
+     * @param failureRateThreshold доля неудачных вызовов в окне для размыкания, (0, 1]
+     * @param minimumCalls минимальное число вызовов в окне для размыкания
+     * @param window длительность скользящего окна
+     * @param openDuration время в разомкнутом состоянии до пробного вызова
+     * @return выключатель
+     */
+    public static @NonNull CircuitBreaker circuitBreaker(double failureRateThreshold, int minimumCalls,
+                                                         @NonNull Duration window, @NonNull Duration openDuration) {
+        return circuitBreaker(failureRateThreshold, minimumCalls, window, openDuration, exception -> true);
+    }
+
+    /**
+     * Построение выключателя
+     * @param failureRateThreshold доля неудачных вызовов в окне для размыкания, (0, 1]
+     * @param minimumCalls минимальное число вызовов в окне для размыкания
+     * @param window длительность скользящего окна
+     * @param openDuration время в разомкнутом состоянии до пробного вызова
+     * @param failureOn условие, по которому исключение вызова считается неудачей
+     * @return выключатель
+     */
+    public static @NonNull CircuitBreaker circuitBreaker(double failureRateThreshold, int minimumCalls,
+                                                         @NonNull Duration window, @NonNull Duration openDuration,
+                                                         @NonNull Predicate<? super Exception> failureOn) {
+        if (!(failureRateThreshold > 0.0) || failureRateThreshold > 1.0) {
+            throw new IllegalArgumentException("CircuitBreaker::circuitBreaker - failureRateThreshold has to be in (0, 1]: " + failureRateThreshold);
+        }
+        if (minimumCalls <= 0) {
+            throw new IllegalArgumentException("CircuitBreaker::circuitBreaker - minimumCalls has to be positive: " + minimumCalls);
+        }
+        return new CircuitBreaker(failureRateThreshold, minimumCalls,
+                SharedScheduler.positiveNanos(window, "CircuitBreaker::circuitBreaker - window"),
+                SharedScheduler.positiveNanos(openDuration, "CircuitBreaker::circuitBreaker - openDuration"),
+                Objects.requireNonNull(failureOn, "CircuitBreaker::circuitBreaker - failureOn is null"));
+    }
+
+    private static final class Bucket {
+        private static final AtomicLongFieldUpdater<Bucket> EPOCH = AtomicLongFieldUpdater.newUpdater(Bucket.class, "epoch");
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private volatile long epoch;
+
+        private void reset(long epoch) {
+            calls.reset();
+            failures.reset();
+            this.epoch = epoch;
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link Processable}, схлопывающий вызовы: вызов только планирует исполнение исходного метода на {@link Executor}.
+ * Вызовы до начала запланированного исполнения покрываются им, а все вызовы во время исполнения
+ * схлопываются ровно в одно повторное исполнение после его окончания.
+ */
+final class CoalescingProcessable implements Processable {
+
+    private static final int IDLE = 0;
+    private static final int SCHEDULED = 1;
+    private static final int RUNNING = 2;
+    private static final int PENDING = 3;
+
+    private final Processable processable;
+    private final Executor executor;
+    private final Consumable<? super Exception> onError;
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private final Runnable task = this::execute;
+
+    CoalescingProcessable(@NonNull Processable processable, @NonNull Executor executor, @NonNull Consumable<? super Exception> onError) {
+        this.processable = Objects.requireNonNull(processable, "CoalescingProcessable - processable is null");
+        this.executor = Objects.requireNonNull(executor, "CoalescingProcessable - executor is null");
+        this.onError = Objects.requireNonNull(onError, "CoalescingProcessable - onError is null");
+    }
+
+    /**
+     * Планирует исполнение исходного метода, если оно ещё не запланировано
+     */
+    @Override
+    public void process() {
+        while (true) {
+            int current = state.get();
+            if (current == SCHEDULED || current == PENDING) {
+                return;
+            } else if (current == RUNNING) {
+                if (state.compareAndSet(RUNNING, PENDING)) {
+                    return;
+                }
+            } else if (state.compareAndSet(IDLE, SCHEDULED)) {
+                submit();
+                return;
+            }
+        }
+    }
+
+    private void execute() {
+        state.set(RUNNING);
+        try {
+            processable.process();
+        } catch (Exception exception) {
+            try {
+                onError.process(exception);
+            } catch (Exception ignore) {
+                // Ошибка в обработчике ошибок не должна блокировать дальнейшие исполнения
+            }
+        } finally {
+            // Error исходного метода или обработчика пробрасывается, но не оставляет состояние RUNNING/PENDING
+            if (!state.compareAndSet(RUNNING, IDLE)) {
+                // Во время исполнения были вызовы: они схлопываются в одно повторное исполнение
+                state.set(SCHEDULED);
+                submit();
+            }
+        }
+    }
+
+    private void submit() {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException rejected) {
+            state.set(IDLE);
+            throw rejected;
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link Consumable} со склейкой по ключу: пока нижестоящий {@link Consumable} занят, для каждого ключа хранится только
+ * последний пришедший элемент, промежуточные значения заменяются. Ключи обслуживаются в порядке первого появления,
+ * поэтому и память, и отставание ограничены числом различных ключей.
+ * Разбор ведёт либо вызвавший поток, заставший нижестоящий {@link Consumable} свободным, либо задача на {@link Executor}.
+ * @param <T> тип элемента
+ * @param <K> тип ключа
+ */
+final class ConflatingConsumable<T, K> implements Consumable<T> {
+
+    private final Functional<? super T, ? extends K> keyOf;
+    private final Consumable<? super T> downstream;
+    private final Executor executor;
+    private final Map<K, T> pending = new ConcurrentHashMap<>();
+    private final Queue<K> order = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final Runnable task = this::drainAsync;
+
+    ConflatingConsumable(@NonNull Functional<? super T, ? extends K> keyOf, @NonNull Consumable<? super T> downstream, @Nullable Executor executor) {
+        this.keyOf = Objects.requireNonNull(keyOf, "ConflatingConsumable - keyOf is null");
+        this.downstream = Objects.requireNonNull(downstream, "ConflatingConsumable - downstream is null");
+        this.executor = executor;
+    }
+
+    /**
+     * Помещает элемент в таблицу ожидающих, заменяя ещё не обработанный элемент с тем же ключом.
+     * Если разбор ведёт вызывающий поток, исключение нижестоящего {@link Consumable} пробрасывается ему,
+     * а оставшиеся элементы будут переданы при следующем вызове.
+     * @param parameter элемент (не null)
+     * @throws Exception исключение нижестоящего {@link Consumable}
+     */
+    @Override
+    public void process(@NonNull T parameter) throws Exception {
+        Objects.requireNonNull(parameter, "ConflatingConsumable::process - parameter is null");
+        K key = Objects.requireNonNull(keyOf.execute(parameter), "ConflatingConsumable::process - key is null");
+        if (pending.put(key, parameter) == null) {
+            order.offer(key);
+        }
+        if (executor == null) {
+            drainSync();
+        } else if (draining.compareAndSet(false, true)) {
+            submit();
+        }
+    }
+
+    private void drainSync() throws Exception {
+        while (!order.isEmpty() && draining.compareAndSet(false, true)) {
+            try {
+                for (T element = next(); element != null; element = next()) {
+                    downstream.process(element);
+                }
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void drainAsync() {
+        for (T element = next(); element != null; element = next()) {
+            try {
+                downstream.process(element);
+            } catch (Exception exception) {
+                SerializedConsumable.uncaught(exception);
+            }
+        }
+        draining.set(false);
+        // Элемент мог быть добавлен между опустошением очереди и сбросом флага
+        if (!order.isEmpty() && draining.compareAndSet(false, true)) {
+            submit();
+        }
+    }
+
+    private T next() {
+        for (K key = order.poll(); key != null; key = order.poll()) {
+            T element = pending.remove(key);
+            if (element != null) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private void submit() {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException rejected) {
+            draining.set(false);
+            throw rejected;
+        }
+    }
+
+}
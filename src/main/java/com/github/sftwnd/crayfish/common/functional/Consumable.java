@@ -3,8 +3,11 @@ package com.github.sftwnd.crayfish.common.functional;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import lombok.SneakyThrows;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -85,6 +88,141 @@ public interface Consumable<T> extends Consumer<T> {
         return this::functionally;
     }
 
+    /**
+     * Создаёт {@link Consumable}, который перед исполнением проверяет текущий {@link Deadline} потока
+     * и при его истечении отказывает заранее созданным {@link DeadlineExceededException}
+     * @return {@link Consumable} с проверкой срока исполнения
+     */
+    default @NonNull Consumable<T> deadlined() {
+        return parameter -> {
+            Deadline.check();
+            process(parameter);
+        };
+    }
+
+    /**
+     * Превращает {@link Consumable} в потокобезопасный: вызовы только помещают параметр в lock-free очередь,
+     * а исходный метод вызывается последовательно задачей на заданном {@link Executor} (не более одной
+     * задачи одновременно, много сообщений за один запуск). Исключения обработки передаются в
+     * {@link Thread.UncaughtExceptionHandler} потока executor-а.
+     * @param executor исполнитель, на котором разбирается очередь
+     * @return потокобезопасный {@link Consumable}
+     */
+    default @NonNull Consumable<T> serialized(@NonNull Executor executor) {
+        return serialized(executor, SerializedConsumable::uncaught);
+    }
+
+    /**
+     * Превращает {@link Consumable} в потокобезопасный: вызовы только помещают параметр в lock-free очередь,
+     * а исходный метод вызывается последовательно задачей на заданном {@link Executor} (не более одной
+     * задачи одновременно, много сообщений за один запуск).
+     * @param executor исполнитель, на котором разбирается очередь
+     * @param onError обработчик исключений, получающий параметр и возникшее исключение
+     * @return потокобезопасный {@link Consumable}
+     */
+    default @NonNull Consumable<T> serialized(@NonNull Executor executor, @NonNull BiConsumable<? super T, ? super Exception> onError) {
+        return new SerializedConsumable<>(this, executor, onError);
+    }
+
+    /**
+     * Превращает {@link Consumable} в асинхронный с ограниченной очередью: вызов только помещает параметр
+     * в очередь размера capacity, а исходный метод вызывается последовательно задачей на {@link Executor}.
+     * Исключения обработки передаются в {@link Thread.UncaughtExceptionHandler} потока executor-а.
+     * @param executor исполнитель, на котором разбирается очередь
+     * @param capacity размер очереди
+     * @param overflowPolicy поведение при заполнении очереди
+     * @return асинхронный {@link Consumable} со счётчиками отброшенных элементов и глубины очереди
+     */
+    default @NonNull AsyncConsumable<T> async(@NonNull Executor executor, int capacity, @NonNull OverflowPolicy overflowPolicy) {
+        return async(executor, capacity, overflowPolicy, SerializedConsumable::uncaught);
+    }
+
+    /**
+     * Превращает {@link Consumable} в асинхронный с ограниченной очередью: вызов только помещает параметр
+     * в очередь размера capacity, а исходный метод вызывается последовательно задачей на {@link Executor}.
+     * @param executor исполнитель, на котором разбирается очередь
+     * @param capacity размер очереди
+     * @param overflowPolicy поведение при заполнении очереди
+     * @param onError обработчик исключений, получающий параметр и возникшее исключение
+     * @return асинхронный {@link Consumable} со счётчиками отброшенных элементов и глубины очереди
+     */
+    default @NonNull AsyncConsumable<T> async(@NonNull Executor executor, int capacity, @NonNull OverflowPolicy overflowPolicy,
+                                              @NonNull BiConsumable<? super T, ? super Exception> onError) {
+        return new AsyncConsumable<>(this, executor, capacity, overflowPolicy, onError);
+    }
+
+    /**
+     * Создаёт {@link Consumable}, который вызывает исходный метод с последним переданным значением только после того,
+     * как в течение заданного периода тишины не было новых вызовов. Исполнение идёт на общем планировщике,
+     * исключения передаются в {@link Thread.UncaughtExceptionHandler} его потока.
+     * @param quietPeriod период тишины
+     * @return {@link Consumable} с подавлением дребезга
+     */
+    default @NonNull Consumable<T> debounce(@NonNull Duration quietPeriod) {
+        return new DebouncedConsumable<>(this, quietPeriod);
+    }
+
+    /**
+     * Создаёт {@link Consumable}, который вызывает исходный метод не чаще одного раза за интервал: первый вызов
+     * исполняется сразу, а вызовы внутри интервала схлопываются в один завершающий вызов с последним значением
+     * на общем планировщике (исключения завершающего вызова передаются в {@link Thread.UncaughtExceptionHandler}).
+     * @param interval минимальный интервал между вызовами
+     * @return {@link Consumable} с ограничением частоты
+     */
+    default @NonNull Consumable<T> throttle(@NonNull Duration interval) {
+        return new ThrottledConsumable<>(this, interval);
+    }
+
+    /**
+     * Создаёт {@link Consumable} с ограничением частоты вызовов: вызовы сверх частоты сразу отклоняются
+     * @param permitsPerSecond число вызовов в секунду
+     * @param burst число вызовов, которые можно выполнить подряд после простоя
+     * @return {@link Consumable} с ограничением частоты
+     */
+    default @NonNull Consumable<T> rateLimited(double permitsPerSecond, int burst) {
+        return rateLimited(RateLimit.rateLimit(permitsPerSecond, burst));
+    }
+
+    /**
+     * Создаёт {@link Consumable} с ограничением частоты вызовов, общим с другими вызовами
+     * @param rateLimit ограничение частоты
+     * @return {@link Consumable} с ограничением частоты
+     */
+    default @NonNull Consumable<T> rateLimited(@NonNull RateLimit rateLimit) {
+        Objects.requireNonNull(rateLimit, "Consumable::rateLimited - rateLimit is null");
+        return parameter -> rateLimit.run(() -> process(parameter));
+    }
+
+    /**
+     * Создаёт {@link Consumable} с ограничением числа одновременных вызовов: вызовы сверх ограничения сразу отклоняются
+     * @param maxConcurrent максимальное число одновременных вызовов
+     * @return {@link Consumable} с ограничением числа одновременных вызовов
+     */
+    default @NonNull Consumable<T> bulkhead(int maxConcurrent) {
+        return bulkhead(Bulkhead.bulkhead(maxConcurrent));
+    }
+
+    /**
+     * Создаёт {@link Consumable} с ограничением числа одновременных вызовов, общим с другими вызовами
+     * @param bulkhead ограничение числа одновременных вызовов
+     * @return {@link Consumable} с ограничением числа одновременных вызовов
+     */
+    default @NonNull Consumable<T> bulkhead(@NonNull Bulkhead bulkhead) {
+        Objects.requireNonNull(bulkhead, "Consumable::bulkhead - bulkhead is null");
+        return parameter -> bulkhead.run(() -> process(parameter));
+    }
+
+    /**
+     * Создаёт {@link Consumable}, вызываемый через {@link CircuitBreaker}: при разомкнутом выключателе
+     * вызовы сразу отклоняются без обращения к исходному {@link Consumable}
+     * @param circuitBreaker автоматический выключатель (обычно общий для всех вызовов исполнителя)
+     * @return {@link Consumable} с автоматическим выключателем
+     */
+    default @NonNull Consumable<T> circuitBreaker(@NonNull CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(circuitBreaker, "Consumable::circuitBreaker - circuitBreaker is null");
+        return parameter -> circuitBreaker.run(() -> process(parameter));
+    }
+
     /**
      * Функция позволяет превратить метод от параметра к {@link Consumable} интерфейсу
      * @param consumable оборачиваемый метод
@@ -105,6 +243,64 @@ public interface Consumable<T> extends Consumer<T> {
         return Objects.requireNonNull(consumer, "Consumable::functional - consumer is null")::accept;
     }
     
+    /**
+     * Создаёт {@link Consumable} со склейкой по ключу: пока нижестоящий {@link Consumable} занят, для каждого ключа
+     * хранится только последний элемент. Разбор ведёт вызывающий поток, заставший нижестоящий {@link Consumable}
+     * свободным, исключения пробрасываются ему.
+     * @param keyOf функция вычисления ключа элемента
+     * @param downstream нижестоящий {@link Consumable}
+     * @return {@link Consumable} со склейкой по ключу
+     * @param <T> тип элемента
+     * @param <K> тип ключа
+     */
+    static <T, K> @NonNull Consumable<T> conflating(@NonNull Functional<? super T, ? extends K> keyOf, @NonNull Consumable<? super T> downstream) {
+        return new ConflatingConsumable<>(keyOf, downstream, null);
+    }
+
+    /**
+     * Создаёт {@link Consumable} со склейкой по ключу: пока нижестоящий {@link Consumable} занят, для каждого ключа
+     * хранится только последний элемент. Разбор ведёт задача на {@link Executor}, исключения передаются
+     * в {@link Thread.UncaughtExceptionHandler} потока executor-а.
+     * @param keyOf функция вычисления ключа элемента
+     * @param downstream нижестоящий {@link Consumable}
+     * @param executor исполнитель, на котором идёт разбор
+     * @return {@link Consumable} со склейкой по ключу
+     * @param <T> тип элемента
+     * @param <K> тип ключа
+     */
+    static <T, K> @NonNull Consumable<T> conflating(@NonNull Functional<? super T, ? extends K> keyOf, @NonNull Consumable<? super T> downstream,
+                                                    @NonNull Executor executor) {
+        return new ConflatingConsumable<>(keyOf, downstream, Objects.requireNonNull(executor, "Consumable::conflating - executor is null"));
+    }
+
+    /**
+     * Создаёт {@link Consumable}, передающий параметр в маршрут по его ключу, а при отсутствии маршрута - в fallback.
+     * Таблица маршрутов компилируется один раз под тип ключей: массив по ordinal для перечислений, массив
+     * со смещением для плотного диапазона целых, совершенная хеш-таблица для фиксированного набора строк
+     * и прочих ключей. Изменения routes после вызова не учитываются.
+     * @param keyOf функция получения ключа маршрута по параметру
+     * @param routes маршруты по ключам
+     * @param fallback маршрут для параметров без маршрута (в том числе с ключом null)
+     * @return {@link Consumable} маршрутизации
+     * @param <T> тип параметра
+     * @param <K> тип ключа маршрута
+     */
+    static <T, K> @NonNull Consumable<T> router(@NonNull Functional<? super T, ? extends K> keyOf,
+                                               @NonNull Map<? extends K, ? extends Consumable<? super T>> routes,
+                                               @NonNull Consumable<? super T> fallback) {
+        Objects.requireNonNull(keyOf, "Consumable::router - keyOf is null");
+        Objects.requireNonNull(fallback, "Consumable::router - fallback is null");
+        RouteTable<Consumable<? super T>> table = RouteTable.compile(routes, "Consumable::router");
+        return parameter -> {
+            Consumable<? super T> route = table.get(keyOf.execute(parameter));
+            if (route == null) {
+                fallback.process(parameter);
+            } else {
+                route.process(parameter);
+            }
+        };
+    }
+
     /**
      * Функция связывается с CompletableFuture и возвращает наружу Consumable. Используется вызов без результата
      * и completableFuture заполняется null в случае успешного выполнения, но вот при возникновении исключения мы
@@ -117,7 +313,7 @@ public interface Consumable<T> extends Consumer<T> {
         return parameter -> {
             try {
                 if (!completableFuture.isDone()) {
-                    this.process(parameter);
+                    Cancellation.of(completableFuture).run(() -> this.process(parameter));
                     completableFuture.complete(null);
                 }
             } catch (Exception exception) {
@@ -125,4 +321,25 @@ public interface Consumable<T> extends Consumer<T> {
             }
         };
     }
+
+    /**
+     * Функция связывается с {@link Promise} аналогично связыванию с {@link CompletableFuture}: promise заполняется
+     * результатом в случае успешного выполнения или исключением при его возникновении. Вызов не выполняется,
+     * если promise уже завершён.
+     * @param promise связываемый {@link Promise}
+     * @return Consumer для вызова функции
+     */
+    default @NonNull Consumable<T> completable(@NonNull Promise<?> promise) {
+        Objects.requireNonNull(promise, "Consumable::completable - promise is null");
+        return parameter -> {
+            try {
+                if (!promise.isDone()) {
+                    Cancellation.of(promise).run(() -> this.process(parameter));
+                    promise.complete(null);
+                }
+            } catch (Exception exception) {
+                promise.completeExceptionally(exception);
+            }
+        };
+    }
 }
@@ -0,0 +1,149 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.SneakyThrows;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * Крайний срок исполнения запроса. Пока вызов исполняется внутри {@link #call(Supplyable)} или {@link #run(Processable)},
+ * срок считается текущим для потока, и декорированные через deadlined() {@link Functional}, {@link Supplyable}
+ * и {@link Consumable} перед исполнением проверяют его, отказывая заранее созданным {@link DeadlineExceededException},
+ * если вызывающий уже не ждёт результата. Вложенный срок не может быть позже объемлющего.
+ * Срок привязан к потоку, поэтому для передачи работы в {@link java.util.concurrent.Executor} её следует обернуть
+ * через {@link #wrap(Runnable)} или {@link #wrap(Callable)}: обёртка захватывает текущий срок и устанавливает его
+ * в потоке исполнителя на время исполнения.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    // Момент истечения в шкале System.nanoTime
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Признак истечения срока
+     * @return true, если срок истёк
+     */
+    public boolean isExpired() {
+        return System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Оставшееся до истечения срока время
+     * @return оставшееся время (отрицательное, если срок истёк)
+     */
+    public @NonNull Duration remaining() {
+        return Duration.ofNanos(deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * Проверка срока
+     * @throws DeadlineExceededException если срок истёк
+     */
+    public void checkpoint() {
+        if (isExpired()) {
+            throw DeadlineExceededException.deadlineExceeded();
+        }
+    }
+
+    /**
+     * Вычисление с установленным для текущего потока сроком (но не позже уже установленного)
+     * @param supplyable вычисляемая функция
+     * @return результат вычисления
+     * @param <X> тип результата
+     * @throws Exception исключение вычисления или {@link DeadlineExceededException} при истечении срока
+     */
+    public <X> X call(@NonNull Supplyable<X> supplyable) throws Exception {
+        Objects.requireNonNull(supplyable, "Deadline::call - supplyable is null");
+        Deadline previous = CURRENT.get();
+        Deadline effective = previous != null && previous.deadlineNanos - deadlineNanos < 0 ? previous : this;
+        effective.checkpoint();
+        CURRENT.set(effective);
+        try {
+            return supplyable.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Исполнение с установленным для текущего потока сроком (но не позже уже установленного)
+     * @param processable исполняемый метод
+     * @throws Exception исключение исполнения или {@link DeadlineExceededException} при истечении срока
+     */
+    public void run(@NonNull Processable processable) throws Exception {
+        call(Objects.requireNonNull(processable, "Deadline::run - processable is null")::call);
+    }
+
+    @SneakyThrows
+    private void runSneaky(Runnable runnable) {
+        run(runnable::run);
+    }
+
+    /**
+     * Захват текущего срока потока для исполнения в другом потоке: обёртка устанавливает захваченный срок
+     * на время исполнения и восстанавливает прежний, а при истёкшем сроке бросает {@link DeadlineExceededException}
+     * без исполнения. Если срок не установлен, возвращается исходный объект
+     * @param runnable исполняемый метод
+     * @return обёртка с захваченным сроком
+     */
+    public static @NonNull Runnable wrap(@NonNull Runnable runnable) {
+        Objects.requireNonNull(runnable, "Deadline::wrap - runnable is null");
+        Deadline captured = CURRENT.get();
+        return captured == null ? runnable : () -> captured.runSneaky(runnable);
+    }
+
+    /**
+     * Захват текущего срока потока для вычисления в другом потоке аналогично {@link #wrap(Runnable)}
+     * @param callable вычисляемая функция
+     * @return обёртка с захваченным сроком
+     * @param <X> тип результата
+     */
+    public static <X> @NonNull Callable<X> wrap(@NonNull Callable<X> callable) {
+        Objects.requireNonNull(callable, "Deadline::wrap - callable is null");
+        Deadline captured = CURRENT.get();
+        return captured == null ? callable : () -> captured.call(callable::call);
+    }
+
+    /**
+     * Текущий срок потока
+     * @return срок, установленный {@link #call(Supplyable)} или {@link #run(Processable)}, либо null
+     */
+    public static @Nullable Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Проверка текущего срока потока перед исполнением декорированного вызова
+     * @throws DeadlineExceededException если текущий срок истёк
+     */
+    static void check() {
+        Deadline current = CURRENT.get();
+        if (current != null) {
+            current.checkpoint();
+        }
+    }
+
+    /**
+     * Построение срока, истекающего через заданное время
+     * @param timeout время до истечения срока
+     * @return срок исполнения
+     */
+    public static @NonNull Deadline after(@NonNull Duration timeout) {
+        Objects.requireNonNull(timeout, "Deadline::after - timeout is null");
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Исключение истечения {@link Deadline}. Используется единственный заранее созданный экземпляр без стека вызовов,
+ * поэтому отказ при перегрузке не тратит время на построение исключения.
+ */
+public final class DeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 6853457384263117425L;
+    private static final DeadlineExceededException INSTANCE = new DeadlineExceededException();
+
+    private DeadlineExceededException() {
+        super("Deadline exceeded", null, false, false);
+    }
+
+    /**
+     * Заранее созданный экземпляр исключения
+     * @return исключение истечения {@link Deadline}
+     */
+    public static @NonNull DeadlineExceededException deadlineExceeded() {
+        return INSTANCE;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link Consumable}, вызывающий исходный метод с последним переданным значением только после периода тишины:
+ * когда с момента последнего вызова прошло не меньше заданного интервала. Исполнение идёт на общем планировщике,
+ * при этом на поток вызовов приходится не более одной запланированной задачи, а не отмена и перепланирование на каждый вызов.
+ * Исключения исполнения передаются в {@link Thread.UncaughtExceptionHandler} потока планировщика.
+ * @param <T> тип параметра
+ */
+final class DebouncedConsumable<T> implements Consumable<T> {
+
+    private final Consumable<? super T> consumable;
+    private final long quietNanos;
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final Runnable fire = this::fire;
+    private volatile T value;
+    private volatile long lastCall;
+
+    DebouncedConsumable(@NonNull Consumable<? super T> consumable, @NonNull Duration quietPeriod) {
+        this.consumable = Objects.requireNonNull(consumable, "DebouncedConsumable - consumable is null");
+        this.quietNanos = SharedScheduler.positiveNanos(quietPeriod, "DebouncedConsumable - quietPeriod");
+    }
+
+    @Override
+    public void process(T parameter) {
+        value = parameter;
+        lastCall = System.nanoTime();
+        if (scheduled.compareAndSet(false, true)) {
+            schedule(quietNanos);
+        }
+    }
+
+    private void fire() {
+        long remaining = lastCall + quietNanos - System.nanoTime();
+        if (remaining > 0) {
+            schedule(remaining);
+            return;
+        }
+        // Флаг сбрасывается только перед исполнением. Вызов, пришедший после проверки, но до сброса флага,
+        // сдвигает период тишины: исполнение переносится, а если флаг уже взят другим потоком, расписание принадлежит ему
+        scheduled.set(false);
+        remaining = lastCall + quietNanos - System.nanoTime();
+        if (remaining > 0) {
+            if (scheduled.compareAndSet(false, true)) {
+                schedule(remaining);
+            }
+            return;
+        }
+        try {
+            consumable.process(value);
+        } catch (Exception exception) {
+            SerializedConsumable.uncaught(exception);
+        }
+    }
+
+    private void schedule(long delayNanos) {
+        SharedScheduler.scheduler().schedule(fire, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import lombok.SneakyThrows;
+
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Расширение {@link DoubleUnaryOperator}, но метод может бросать исключение.
+ * Used sonar warnings:
+ *      java:S112   Generic exceptions should never be thrown
+ */
+@FunctionalInterface
+public interface DoubleFunctional extends DoubleUnaryOperator {
+
+    /**
+     * Применяет функцию к заданному аргументу
+     * @param parameter параметр функции
+     * @return результат применения функции
+     * @throws Exception исключение, произошедшее в результате исполнения
+     */
+    double execute(double parameter) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+
+    /**
+     * Применяет функцию к заданному аргументу
+     * @param parameter параметр функции
+     * @return результат применения функции
+     */
+    @Override
+    @SneakyThrows
+    default double applyAsDouble(double parameter) {
+        return execute(parameter);
+    }
+
+    /**
+     * Создаёт {@link DoubleFunctional}, применяющий заданную функцию к результату исходной
+     * @param after функция, применяемая к результату
+     * @return построенный {@link DoubleFunctional}
+     */
+    default @NonNull DoubleFunctional andThen(@NonNull DoubleFunctional after) {
+        Objects.requireNonNull(after, "DoubleFunctional::andThen - after is null");
+        return parameter -> after.execute(execute(parameter));
+    }
+
+    /**
+     * Применяет функцию к каждому элементу массива: out[i] = execute(in[i]) для i от 0 до in.length - 1.
+     * Массивы могут совпадать. Для функций из арифметических комбинаторов ({@link #add(double)}, {@link #mul(double)},
+     * {@link #fma(double, double)}, {@link #clamp(double, double)}) операции применяются к массиву векторизуемыми циклами
+     * @param in массив параметров
+     * @param out массив результатов (не короче in)
+     * @throws Exception исключение, произошедшее в результате исполнения
+     */
+    default void applyAll(@NonNull double[] in, @NonNull double[] out) throws Exception {
+        ArithmeticDoubleFunctional.checkBounds(in, out);
+        for (int i = 0; i < in.length; i++) {
+            out[i] = execute(in[i]);
+        }
+    }
+
+    /**
+     * Создаёт {@link Functional} над упакованными значениями
+     * @return построенный {@link Functional}
+     */
+    default @NonNull Functional<Double, Double> boxed() {
+        return this::execute;
+    }
+
+    /**
+     * Функция прибавления константы: x + addend
+     * @param addend прибавляемое значение
+     * @return арифметический {@link DoubleFunctional}
+     */
+    static @NonNull DoubleFunctional add(double addend) {
+        return ArithmeticDoubleFunctional.add(addend);
+    }
+
+    /**
+     * Функция умножения на константу: x * factor
+     * @param factor множитель
+     * @return арифметический {@link DoubleFunctional}
+     */
+    static @NonNull DoubleFunctional mul(double factor) {
+        return ArithmeticDoubleFunctional.mul(factor);
+    }
+
+    /**
+     * Функция умножения со сложением: Math.fma(x, factor, addend) - без промежуточного округления
+     * @param factor множитель
+     * @param addend прибавляемое значение
+     * @return арифметический {@link DoubleFunctional}
+     */
+    static @NonNull DoubleFunctional fma(double factor, double addend) {
+        return ArithmeticDoubleFunctional.fma(factor, addend);
+    }
+
+    /**
+     * Функция ограничения значения диапазоном: min(max(x, min), max)
+     * @param min нижняя граница
+     * @param max верхняя граница
+     * @return арифметический {@link DoubleFunctional}
+     */
+    static @NonNull DoubleFunctional clamp(double min, double max) {
+        return ArithmeticDoubleFunctional.clamp(min, max);
+    }
+
+    /**
+     * Функция позволяет превратить метод от параметра double к {@link DoubleFunctional}
+     * @param doublefunctional метод от параметра double
+     * @return объект {@link DoubleFunctional}
+     */
+    static @NonNull DoubleFunctional doublefunctional(@NonNull DoubleFunctional doublefunctional) {
+        return Objects.requireNonNull(doublefunctional, "DoubleFunctional::doublefunctional - doublefunctional is null");
+    }
+
+    /**
+     * Функция осуществляет приведение {@link DoubleUnaryOperator} к {@link DoubleFunctional}
+     * @param operator приводимый {@link DoubleUnaryOperator} объект
+     * @return {@link DoubleFunctional} обёртка
+     */
+    static @NonNull DoubleFunctional cast(@NonNull DoubleUnaryOperator operator) {
+        return Objects.requireNonNull(operator, "DoubleFunctional::cast - operator is null")::applyAsDouble;
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Ленивая последовательность значений double без упаковки (примитивная полоса {@link Seq}): операции только
+ * строят план, а терминальная операция исполняет все стадии одним циклом по элементам.
+ */
+public final class DoubleSeq {
+
+    /**
+     * Функция получения значения double из объекта
+     * @param <T> тип параметра
+     */
+    @FunctionalInterface
+    public interface Mapper<T> {
+        /**
+         * Вычисляет значение double по параметру
+         * @param parameter параметр
+         * @return значение
+         * @throws Exception исключение, произошедшее в результате исполнения
+         */
+        double execute(T parameter) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+    }
+
+    /**
+     * Условие над значением double
+     */
+    @FunctionalInterface
+    public interface Condition {
+        /**
+         * Проверяет условие
+         * @param value значение
+         * @return результат проверки
+         * @throws Exception исключение, произошедшее в результате исполнения
+         */
+        boolean verify(double value) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+    }
+
+    /**
+     * Действие над значением double
+     */
+    @FunctionalInterface
+    public interface Action {
+        /**
+         * Исполняет действие
+         * @param value значение
+         * @throws Exception исключение, произошедшее в результате исполнения
+         */
+        void process(double value) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+    }
+
+    // Приёмник элементов: false - дальнейшие элементы не нужны
+    @FunctionalInterface
+    interface Sink {
+        boolean accept(double value) throws Exception;
+    }
+
+    // Источник элементов: false - перебор остановлен приёмником
+    @FunctionalInterface
+    interface Driver {
+        boolean drive(Sink sink) throws Exception;
+    }
+
+    private final Driver driver;
+
+    DoubleSeq(@NonNull Driver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Преобразование элементов
+     * @param functional функция преобразования
+     * @return последовательность результатов
+     */
+    public @NonNull DoubleSeq map(@NonNull DoubleFunctional functional) {
+        Objects.requireNonNull(functional, "DoubleSeq::map - functional is null");
+        return new DoubleSeq(sink -> driver.drive(value -> sink.accept(functional.execute(value))));
+    }
+
+    /**
+     * Отбор элементов
+     * @param condition условие отбора
+     * @return последовательность отобранных элементов
+     */
+    public @NonNull DoubleSeq filter(@NonNull Condition condition) {
+        Objects.requireNonNull(condition, "DoubleSeq::filter - condition is null");
+        return new DoubleSeq(sink -> driver.drive(value -> !condition.verify(value) || sink.accept(value)));
+    }
+
+    /**
+     * Ограничение числа элементов
+     * @param limit максимальное число элементов
+     * @return последовательность не более чем из limit первых элементов
+     */
+    public @NonNull DoubleSeq take(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("DoubleSeq::take - limit has to be not negative: " + limit);
+        }
+        return new DoubleSeq(sink -> {
+            if (limit == 0) {
+                return true;
+            }
+            long[] remaining = { limit };
+            return driver.drive(value -> sink.accept(value) && --remaining[0] > 0) || remaining[0] == 0;
+        });
+    }
+
+    /**
+     * Упаковка элементов
+     * @return последовательность упакованных элементов
+     */
+    public @NonNull Seq<Double> boxed() {
+        return new Seq<>(sink -> driver.drive(sink::accept));
+    }
+
+    /**
+     * Исполнение действия для каждого элемента
+     * @param action действие
+     * @throws Exception исключение стадий или действия
+     */
+    public void forEach(@NonNull Action action) throws Exception {
+        Objects.requireNonNull(action, "DoubleSeq::forEach - action is null");
+        driver.drive(value -> {
+            action.process(value);
+            return true;
+        });
+    }
+
+    /**
+     * Сумма элементов
+     * @return сумма
+     * @throws Exception исключение стадий
+     */
+    public double sum() throws Exception {
+        double[] sum = { 0.0 };
+        driver.drive(value -> {
+            sum[0] += value;
+            return true;
+        });
+        return sum[0];
+    }
+
+    /**
+     * Количество элементов
+     * @return число элементов
+     * @throws Exception исключение стадий
+     */
+    public long count() throws Exception {
+        long[] count = { 0L };
+        driver.drive(value -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    /**
+     * Сбор элементов в массив
+     * @return массив элементов
+     * @throws Exception исключение стадий
+     */
+    public @NonNull double[] toArray() throws Exception {
+        double[][] buffer = { new double[16] };
+        int[] size = { 0 };
+        driver.drive(value -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] << 1);
+            }
+            buffer[0][size[0]++] = value;
+            return true;
+        });
+        return Arrays.copyOf(buffer[0], size[0]);
+    }
+
+    /**
+     * Построение последовательности из массива (массив не копируется)
+     * @param values элементы
+     * @return последовательность
+     */
+    public static @NonNull DoubleSeq of(@NonNull double... values) {
+        Objects.requireNonNull(values, "DoubleSeq::of - values is null");
+        return new DoubleSeq(sink -> {
+            for (double value : values) {
+                if (!sink.accept(value)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+}
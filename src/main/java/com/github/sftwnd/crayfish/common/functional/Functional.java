@@ -3,8 +3,10 @@ package com.github.sftwnd.crayfish.common.functional;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import lombok.SneakyThrows;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 import static com.github.sftwnd.crayfish.common.functional.With.with;
@@ -90,7 +92,7 @@ public interface Functional<T, R> extends Function<T, R> {
      */
     default <S> @NonNull Functional<T, S> furtherApply(@NonNull Functional<? super R, ? extends S> functional) {
         Objects.requireNonNull(functional, "Functional::furtherApply - functional is null");
-        return parameter -> functional.apply(this.apply(parameter));
+        return parameter -> with(this.supplyable(parameter)).transform(functional);
     }
 
     /**
@@ -121,6 +123,130 @@ public interface Functional<T, R> extends Function<T, R> {
         return () -> with(supplyable).transform(this::apply);
     }
 
+    /**
+     * Создаёт {@link Functional}, который перед вычислением проверяет текущий {@link Deadline} потока
+     * и при его истечении отказывает заранее созданным {@link DeadlineExceededException}
+     * @return {@link Functional} с проверкой срока исполнения
+     */
+    default @NonNull Functional<T, R> deadlined() {
+        return parameter -> {
+            Deadline.check();
+            return execute(parameter);
+        };
+    }
+
+    /**
+     * Создаёт {@link Functional}, число одновременных вызовов которого ограничено {@link AdaptiveLimit}
+     * @param adaptiveLimit адаптивное ограничение (может использоваться несколькими вызовами одного исполнителя)
+     * @return {@link Functional} с ограничением числа одновременных вызовов
+     */
+    default @NonNull Functional<T, R> limited(@NonNull AdaptiveLimit adaptiveLimit) {
+        Objects.requireNonNull(adaptiveLimit, "Functional::limited - adaptiveLimit is null");
+        return parameter -> adaptiveLimit.call(() -> execute(parameter));
+    }
+
+    /**
+     * Создаёт {@link Functional} с ограничением частоты вызовов: вызовы сверх частоты сразу отклоняются
+     * @param permitsPerSecond число вызовов в секунду
+     * @param burst число вызовов, которые можно выполнить подряд после простоя
+     * @return {@link Functional} с ограничением частоты
+     */
+    default @NonNull Functional<T, R> rateLimited(double permitsPerSecond, int burst) {
+        return rateLimited(RateLimit.rateLimit(permitsPerSecond, burst));
+    }
+
+    /**
+     * Создаёт {@link Functional} с ограничением частоты вызовов, общим с другими вызовами
+     * @param rateLimit ограничение частоты
+     * @return {@link Functional} с ограничением частоты
+     */
+    default @NonNull Functional<T, R> rateLimited(@NonNull RateLimit rateLimit) {
+        Objects.requireNonNull(rateLimit, "Functional::rateLimited - rateLimit is null");
+        return parameter -> rateLimit.call(() -> execute(parameter));
+    }
+
+    /**
+     * Создаёт {@link Functional} с ограничением числа одновременных вызовов: вызовы сверх ограничения сразу отклоняются
+     * @param maxConcurrent максимальное число одновременных вызовов
+     * @return {@link Functional} с ограничением числа одновременных вызовов
+     */
+    default @NonNull Functional<T, R> bulkhead(int maxConcurrent) {
+        return bulkhead(Bulkhead.bulkhead(maxConcurrent));
+    }
+
+    /**
+     * Создаёт {@link Functional} с ограничением числа одновременных вызовов, общим с другими вызовами
+     * @param bulkhead ограничение числа одновременных вызовов
+     * @return {@link Functional} с ограничением числа одновременных вызовов
+     */
+    default @NonNull Functional<T, R> bulkhead(@NonNull Bulkhead bulkhead) {
+        Objects.requireNonNull(bulkhead, "Functional::bulkhead - bulkhead is null");
+        return parameter -> bulkhead.call(() -> execute(parameter));
+    }
+
+    /**
+     * Создаёт {@link Functional}, повторяющий неудачные вызовы по {@link RetryPolicy}. Паузы между попытками
+     * ожидаются в вызывающем потоке
+     * @param retryPolicy политика повторов
+     * @return {@link Functional} с повторами
+     */
+    default @NonNull Functional<T, R> retrying(@NonNull RetryPolicy retryPolicy) {
+        Objects.requireNonNull(retryPolicy, "Functional::retrying - retryPolicy is null");
+        return parameter -> retryPolicy.call(() -> execute(parameter));
+    }
+
+    /**
+     * Создаёт {@link Functional}, запускающий вызов с повторами по {@link RetryPolicy} на {@link Executor}: паузы между попытками
+     * отсчитываются общим планировщиком без занятия потоков
+     * @param retryPolicy политика повторов
+     * @param executor исполнитель попыток
+     * @return {@link Functional} с {@link CompletableFuture} результата
+     */
+    default @NonNull Functional<T, CompletableFuture<R>> retryingAsync(@NonNull RetryPolicy retryPolicy, @NonNull Executor executor) {
+        Objects.requireNonNull(retryPolicy, "Functional::retryingAsync - retryPolicy is null");
+        Objects.requireNonNull(executor, "Functional::retryingAsync - executor is null");
+        return parameter -> retryPolicy.callAsync(() -> execute(parameter), executor);
+    }
+
+    /**
+     * Создаёт {@link Functional}, вызываемый через {@link CircuitBreaker}: при разомкнутом выключателе
+     * вызовы сразу отклоняются без обращения к исходному {@link Functional}
+     * @param circuitBreaker автоматический выключатель (обычно общий для всех вызовов исполнителя)
+     * @return {@link Functional} с автоматическим выключателем
+     */
+    default @NonNull Functional<T, R> circuitBreaker(@NonNull CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(circuitBreaker, "Functional::circuitBreaker - circuitBreaker is null");
+        return parameter -> circuitBreaker.call(() -> execute(parameter));
+    }
+
+    /**
+     * Создаёт {@link Functional}, запоминающий результаты по слабым ключам: параметры сравниваются по идентичности (==),
+     * а запись исчезает после сборки объекта параметра сборщиком мусора. Подходит для метаданных, вычисляемых
+     * по короткоживущим объектам (например, запросам) несколько раз за время их жизни
+     * @return мемоизированный {@link Functional}
+     */
+    default @NonNull Functional<T, R> memoizedWeakly() {
+        return new ReferenceMemo<>(this, true, false);
+    }
+
+    /**
+     * Создаёт {@link Functional}, запоминающий результаты в мягких ссылках: параметры сравниваются по equals,
+     * а результаты очищаются сборщиком мусора при нехватке памяти и вычисляются заново
+     * @return мемоизированный {@link Functional}
+     */
+    default @NonNull Functional<T, R> memoizedSoftly() {
+        return new ReferenceMemo<>(this, false, true);
+    }
+
+    /**
+     * Создаёт {@link Functional}, запоминающий результаты по слабым ключам, сравниваемым по идентичности (==),
+     * в мягких ссылках: запись исчезает после сборки объекта параметра, а результат может быть очищен при нехватке памяти
+     * @return мемоизированный {@link Functional}
+     */
+    default @NonNull Functional<T, R> memoizedWeaklySoftly() {
+        return new ReferenceMemo<>(this, true, true);
+    }
+
     /**
      * Функция позволяет превратить метод от параметра к {@link Functional} интерфейсу
      * @param functional оборачиваемый метод
@@ -143,6 +269,83 @@ public interface Functional<T, R> extends Function<T, R> {
         return Objects.requireNonNull(function, "Functional::functional - function is null")::apply;
     }
 
+    /**
+     * Создаёт {@link Functional}, вычисляющий результат маршрутом по ключу параметра, а при отсутствии маршрута - fallback.
+     * Таблица маршрутов компилируется один раз под тип ключей: массив по ordinal для перечислений, массив
+     * со смещением для плотного диапазона целых, совершенная хеш-таблица для фиксированного набора строк
+     * и прочих ключей. Изменения routes после вызова не учитываются.
+     * @param keyOf функция получения ключа маршрута по параметру
+     * @param routes маршруты по ключам
+     * @param fallback маршрут для параметров без маршрута (в том числе с ключом null)
+     * @return {@link Functional} маршрутизации
+     * @param <T> тип параметра
+     * @param <K> тип ключа маршрута
+     * @param <R> тип результата
+     */
+    static <T, K, R> @NonNull Functional<T, R> router(@NonNull Functional<? super T, ? extends K> keyOf,
+                                                     @NonNull Map<? extends K, ? extends Functional<? super T, ? extends R>> routes,
+                                                     @NonNull Functional<? super T, ? extends R> fallback) {
+        Objects.requireNonNull(keyOf, "Functional::router - keyOf is null");
+        Objects.requireNonNull(fallback, "Functional::router - fallback is null");
+        RouteTable<Functional<? super T, ? extends R>> table = RouteTable.compile(routes, "Functional::router");
+        return parameter -> {
+            Functional<? super T, ? extends R> route = table.get(keyOf.execute(parameter));
+            return route == null ? fallback.execute(parameter) : route.execute(parameter);
+        };
+    }
+
+    /**
+     * Создаёт рекурсивный {@link Functional}: тело получает саму функцию (self) и параметр, рекурсивные вызовы self
+     * проходят через таблицу вычисленных значений, поэтому каждое подзначение вычисляется один раз за внешний вызов.
+     * Таблица создаётся на каждый внешний вызов, рекурсия использует стек потока.
+     * @param body тело функции от self и параметра
+     * @return мемоизированный рекурсивный {@link Functional}
+     * @param <T> тип параметра
+     * @param <R> тип результата
+     */
+    static <T, R> @NonNull Functional<T, R> fix(@NonNull BiFunctional<? super Functional<T, R>, ? super T, ? extends R> body) {
+        return fix(body, false);
+    }
+
+    /**
+     * Создаёт рекурсивный {@link Functional} аналогично {@link #fix(BiFunctional)}. В итеративном режиме глубина
+     * рекурсии не ограничена стеком потока: вызов self для ещё не вычисленного параметра прерывает тело, параметр
+     * вычисляется через явный стек, после чего тело исполняется заново. Тело в этом режиме должно быть без побочных
+     * эффектов, а рекурсия без вычисленного значения на цикле завершается {@link IllegalStateException}
+     * @param body тело функции от self и параметра
+     * @param iterative true - вычисление через явный стек вместо стека потока
+     * @return мемоизированный рекурсивный {@link Functional}
+     * @param <T> тип параметра
+     * @param <R> тип результата
+     */
+    static <T, R> @NonNull Functional<T, R> fix(@NonNull BiFunctional<? super Functional<T, R>, ? super T, ? extends R> body, boolean iterative) {
+        return new MemoizedRecursion<>(body, MemoizedRecursion::hashMemo, iterative);
+    }
+
+    /**
+     * Создаёт рекурсивный {@link Functional} от целого параметра аналогично {@link #fix(BiFunctional, boolean)},
+     * но с таблицей вычисленных значений на открытой адресации без упаковки ключей
+     * @param body тело функции от self и параметра
+     * @param iterative true - вычисление через явный стек вместо стека потока
+     * @return мемоизированный рекурсивный {@link Functional}
+     * @param <R> тип результата
+     */
+    static <R> @NonNull Functional<Integer, R> fixInt(@NonNull BiFunctional<? super Functional<Integer, R>, ? super Integer, ? extends R> body, boolean iterative) {
+        return new MemoizedRecursion<>(body, MemoizedRecursion::intMemo, iterative);
+    }
+
+    /**
+     * Создаёт рекурсивный {@link Functional} от параметра long аналогично {@link #fix(BiFunctional, boolean)},
+     * но с таблицей вычисленных значений на открытой адресации без упаковки ключей
+     * @param body тело функции от self и параметра
+     * @param iterative true - вычисление через явный стек вместо стека потока
+     * @return мемоизированный рекурсивный {@link Functional}
+     * @param <R> тип результата
+     */
+    static <R> @NonNull Functional<Long, R> fixLong(@NonNull BiFunctional<? super Functional<Long, R>, ? super Long, ? extends R> body, boolean iterative) {
+        return new MemoizedRecursion<>(body, MemoizedRecursion::longMemo, iterative);
+    }
+
     /**
      * Функция связывается с CompletableFuture и возвращает наружу Consumable. Используется вызов без результата
      * и completableFuture заполняется null в случае успешного выполнения, но вот при возникновении исключения мы
@@ -155,7 +358,7 @@ public interface Functional<T, R> extends Function<T, R> {
         return parameter -> {
             try {
                 if (!completableFuture.isDone()) {
-                    completableFuture.complete(this.execute(parameter));
+                    completableFuture.complete(Cancellation.of(completableFuture).call(() -> this.execute(parameter)));
                 }
             } catch (Exception exception) {
                 completableFuture.completeExceptionally(exception);
@@ -163,4 +366,24 @@ public interface Functional<T, R> extends Function<T, R> {
         };
     }
 
+    /**
+     * Функция связывается с {@link Promise} аналогично связыванию с {@link CompletableFuture}: promise заполняется
+     * результатом в случае успешного выполнения или исключением при его возникновении. Вызов не выполняется,
+     * если promise уже завершён.
+     * @param promise связываемый {@link Promise}
+     * @return Consumer для вызова функции
+     */
+    default @NonNull Consumable<T> completable(@NonNull Promise<? super R> promise) {
+        Objects.requireNonNull(promise, "Functional::completable - promise is null");
+        return parameter -> {
+            try {
+                if (!promise.isDone()) {
+                    promise.complete(Cancellation.of(promise).call(() -> this.execute(parameter)));
+                }
+            } catch (Exception exception) {
+                promise.completeExceptionally(exception);
+            }
+        };
+    }
+
 }
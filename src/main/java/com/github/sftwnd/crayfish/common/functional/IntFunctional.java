@@ -0,0 +1,72 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import lombok.SneakyThrows;
+
+import java.util.Objects;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Расширение {@link IntUnaryOperator}, но метод может бросать исключение.
+ * Used sonar warnings:
+ *      java:S112   Generic exceptions should never be thrown
+ */
+@FunctionalInterface
+public interface IntFunctional extends IntUnaryOperator {
+
+    /**
+     * Применяет функцию к заданному аргументу
+     * @param parameter параметр функции
+     * @return результат применения функции
+     * @throws Exception исключение, произошедшее в результате исполнения
+     */
+    int execute(int parameter) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+
+    /**
+     * Применяет функцию к заданному аргументу
+     * @param parameter параметр функции
+     * @return результат применения функции
+     */
+    @Override
+    @SneakyThrows
+    default int applyAsInt(int parameter) {
+        return execute(parameter);
+    }
+
+    /**
+     * Создаёт {@link IntFunctional}, применяющий заданную функцию к результату исходной
+     * @param after функция, применяемая к результату
+     * @return построенный {@link IntFunctional}
+     */
+    default @NonNull IntFunctional andThen(@NonNull IntFunctional after) {
+        Objects.requireNonNull(after, "IntFunctional::andThen - after is null");
+        return parameter -> after.execute(execute(parameter));
+    }
+
+    /**
+     * Создаёт {@link Functional} над упакованными значениями
+     * @return построенный {@link Functional}
+     */
+    default @NonNull Functional<Integer, Integer> boxed() {
+        return this::execute;
+    }
+
+    /**
+     * Функция позволяет превратить метод от параметра int к {@link IntFunctional}
+     * @param intfunctional метод от параметра int
+     * @return объект {@link IntFunctional}
+     */
+    static @NonNull IntFunctional intfunctional(@NonNull IntFunctional intfunctional) {
+        return Objects.requireNonNull(intfunctional, "IntFunctional::intfunctional - intfunctional is null");
+    }
+
+    /**
+     * Функция осуществляет приведение {@link IntUnaryOperator} к {@link IntFunctional}
+     * @param operator приводимый {@link IntUnaryOperator} объект
+     * @return {@link IntFunctional} обёртка
+     */
+    static @NonNull IntFunctional cast(@NonNull IntUnaryOperator operator) {
+        return Objects.requireNonNull(operator, "IntFunctional::cast - operator is null")::applyAsInt;
+    }
+
+}
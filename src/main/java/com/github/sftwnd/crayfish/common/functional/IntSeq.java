@@ -0,0 +1,213 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Ленивая последовательность значений int без упаковки (примитивная полоса {@link Seq}): операции только
+ * строят план, а терминальная операция исполняет все стадии одним циклом по элементам.
+ */
+public final class IntSeq {
+
+    /**
+     * Функция получения значения int из объекта
+     * @param <T> тип параметра
+     */
+    @FunctionalInterface
+    public interface Mapper<T> {
+        /**
+         * Вычисляет значение int по параметру
+         * @param parameter параметр
+         * @return значение
+         * @throws Exception исключение, произошедшее в результате исполнения
+         */
+        int execute(T parameter) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+    }
+
+    /**
+     * Условие над значением int
+     */
+    @FunctionalInterface
+    public interface Condition {
+        /**
+         * Проверяет условие
+         * @param value значение
+         * @return результат проверки
+         * @throws Exception исключение, произошедшее в результате исполнения
+         */
+        boolean verify(int value) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+    }
+
+    /**
+     * Действие над значением int
+     */
+    @FunctionalInterface
+    public interface Action {
+        /**
+         * Исполняет действие
+         * @param value значение
+         * @throws Exception исключение, произошедшее в результате исполнения
+         */
+        void process(int value) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+    }
+
+    // Приёмник элементов: false - дальнейшие элементы не нужны
+    @FunctionalInterface
+    interface Sink {
+        boolean accept(int value) throws Exception;
+    }
+
+    // Источник элементов: false - перебор остановлен приёмником
+    @FunctionalInterface
+    interface Driver {
+        boolean drive(Sink sink) throws Exception;
+    }
+
+    private final Driver driver;
+
+    IntSeq(@NonNull Driver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Преобразование элементов
+     * @param functional функция преобразования
+     * @return последовательность результатов
+     */
+    public @NonNull IntSeq map(@NonNull IntFunctional functional) {
+        Objects.requireNonNull(functional, "IntSeq::map - functional is null");
+        return new IntSeq(sink -> driver.drive(value -> sink.accept(functional.execute(value))));
+    }
+
+    /**
+     * Отбор элементов
+     * @param condition условие отбора
+     * @return последовательность отобранных элементов
+     */
+    public @NonNull IntSeq filter(@NonNull Condition condition) {
+        Objects.requireNonNull(condition, "IntSeq::filter - condition is null");
+        return new IntSeq(sink -> driver.drive(value -> !condition.verify(value) || sink.accept(value)));
+    }
+
+    /**
+     * Ограничение числа элементов
+     * @param limit максимальное число элементов
+     * @return последовательность не более чем из limit первых элементов
+     */
+    public @NonNull IntSeq take(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("IntSeq::take - limit has to be not negative: " + limit);
+        }
+        return new IntSeq(sink -> {
+            if (limit == 0) {
+                return true;
+            }
+            long[] remaining = { limit };
+            return driver.drive(value -> sink.accept(value) && --remaining[0] > 0) || remaining[0] == 0;
+        });
+    }
+
+    /**
+     * Упаковка элементов
+     * @return последовательность упакованных элементов
+     */
+    public @NonNull Seq<Integer> boxed() {
+        return new Seq<>(sink -> driver.drive(sink::accept));
+    }
+
+    /**
+     * Исполнение действия для каждого элемента
+     * @param action действие
+     * @throws Exception исключение стадий или действия
+     */
+    public void forEach(@NonNull Action action) throws Exception {
+        Objects.requireNonNull(action, "IntSeq::forEach - action is null");
+        driver.drive(value -> {
+            action.process(value);
+            return true;
+        });
+    }
+
+    /**
+     * Сумма элементов
+     * @return сумма
+     * @throws Exception исключение стадий
+     */
+    public int sum() throws Exception {
+        int[] sum = { 0 };
+        driver.drive(value -> {
+            sum[0] += value;
+            return true;
+        });
+        return sum[0];
+    }
+
+    /**
+     * Количество элементов
+     * @return число элементов
+     * @throws Exception исключение стадий
+     */
+    public long count() throws Exception {
+        long[] count = { 0L };
+        driver.drive(value -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    /**
+     * Сбор элементов в массив
+     * @return массив элементов
+     * @throws Exception исключение стадий
+     */
+    public @NonNull int[] toArray() throws Exception {
+        int[][] buffer = { new int[16] };
+        int[] size = { 0 };
+        driver.drive(value -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] << 1);
+            }
+            buffer[0][size[0]++] = value;
+            return true;
+        });
+        return Arrays.copyOf(buffer[0], size[0]);
+    }
+
+    /**
+     * Построение последовательности из массива (массив не копируется)
+     * @param values элементы
+     * @return последовательность
+     */
+    public static @NonNull IntSeq of(@NonNull int... values) {
+        Objects.requireNonNull(values, "IntSeq::of - values is null");
+        return new IntSeq(sink -> {
+            for (int value : values) {
+                if (!sink.accept(value)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Построение последовательности чисел [from, to)
+     * @param from первое число
+     * @param to число, следующее за последним
+     * @return последовательность
+     */
+    public static @NonNull IntSeq range(int from, int to) {
+        return new IntSeq(sink -> {
+            for (int value = from; value < to; value++) {
+                if (!sink.accept(value)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Отказ в исполнении вызова сверх ограничения. Экземпляр создаётся на каждый отказ, но не содержит стека вызовов,
+ * поэтому отказ при перегрузке не тратит время на его построение. Отдельный экземпляр на каждый отказ нужен, чтобы
+ * подавленные исключения и причина, добавленные вызывающим кодом, не переходили к другим отказам.
+ */
+final class LimitExceededException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = -2981638201357920183L;
+
+    LimitExceededException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
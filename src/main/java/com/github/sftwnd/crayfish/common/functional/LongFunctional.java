@@ -0,0 +1,125 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import lombok.SneakyThrows;
+
+import java.util.Objects;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Расширение {@link LongUnaryOperator}, но метод может бросать исключение.
+ * Used sonar warnings:
+ *      java:S112   Generic exceptions should never be thrown
+ */
+@FunctionalInterface
+public interface LongFunctional extends LongUnaryOperator {
+
+    /**
+     * Применяет функцию к заданному аргументу
+     * @param parameter параметр функции
+     * @return результат применения функции
+     * @throws Exception исключение, произошедшее в результате исполнения
+     */
+    long execute(long parameter) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+
+    /**
+     * Применяет функцию к заданному аргументу
+     * @param parameter параметр функции
+     * @return результат применения функции
+     */
+    @Override
+    @SneakyThrows
+    default long applyAsLong(long parameter) {
+        return execute(parameter);
+    }
+
+    /**
+     * Создаёт {@link LongFunctional}, применяющий заданную функцию к результату исходной
+     * @param after функция, применяемая к результату
+     * @return построенный {@link LongFunctional}
+     */
+    default @NonNull LongFunctional andThen(@NonNull LongFunctional after) {
+        Objects.requireNonNull(after, "LongFunctional::andThen - after is null");
+        return parameter -> after.execute(execute(parameter));
+    }
+
+    /**
+     * Применяет функцию к каждому элементу массива: out[i] = execute(in[i]) для i от 0 до in.length - 1.
+     * Массивы могут совпадать. Для функций из арифметических комбинаторов ({@link #add(long)}, {@link #mul(long)},
+     * {@link #fma(long, long)}, {@link #clamp(long, long)}) операции применяются к массиву векторизуемыми циклами
+     * @param in массив параметров
+     * @param out массив результатов (не короче in)
+     * @throws Exception исключение, произошедшее в результате исполнения
+     */
+    default void applyAll(@NonNull long[] in, @NonNull long[] out) throws Exception {
+        ArithmeticLongFunctional.checkBounds(in, out);
+        for (int i = 0; i < in.length; i++) {
+            out[i] = execute(in[i]);
+        }
+    }
+
+    /**
+     * Создаёт {@link Functional} над упакованными значениями
+     * @return построенный {@link Functional}
+     */
+    default @NonNull Functional<Long, Long> boxed() {
+        return this::execute;
+    }
+
+    /**
+     * Функция прибавления константы: x + addend
+     * @param addend прибавляемое значение
+     * @return арифметический {@link LongFunctional}
+     */
+    static @NonNull LongFunctional add(long addend) {
+        return ArithmeticLongFunctional.add(addend);
+    }
+
+    /**
+     * Функция умножения на константу: x * factor
+     * @param factor множитель
+     * @return арифметический {@link LongFunctional}
+     */
+    static @NonNull LongFunctional mul(long factor) {
+        return ArithmeticLongFunctional.mul(factor);
+    }
+
+    /**
+     * Функция умножения со сложением: x * factor + addend
+     * @param factor множитель
+     * @param addend прибавляемое значение
+     * @return арифметический {@link LongFunctional}
+     */
+    static @NonNull LongFunctional fma(long factor, long addend) {
+        return ArithmeticLongFunctional.fma(factor, addend);
+    }
+
+    /**
+     * Функция ограничения значения диапазоном: min(max(x, min), max)
+     * @param min нижняя граница
+     * @param max верхняя граница
+     * @return арифметический {@link LongFunctional}
+     */
+    static @NonNull LongFunctional clamp(long min, long max) {
+        return ArithmeticLongFunctional.clamp(min, max);
+    }
+
+    /**
+     * Функция позволяет превратить метод от параметра long к {@link LongFunctional}
+     * @param longfunctional метод от параметра long
+     * @return объект {@link LongFunctional}
+     */
+    static @NonNull LongFunctional longfunctional(@NonNull LongFunctional longfunctional) {
+        return Objects.requireNonNull(longfunctional, "LongFunctional::longfunctional - longfunctional is null");
+    }
+
+    /**
+     * Функция осуществляет приведение {@link LongUnaryOperator} к {@link LongFunctional}
+     * @param operator приводимый {@link LongUnaryOperator} объект
+     * @return {@link LongFunctional} обёртка
+     */
+    static @NonNull LongFunctional cast(@NonNull LongUnaryOperator operator) {
+        return Objects.requireNonNull(operator, "LongFunctional::cast - operator is null")::applyAsLong;
+    }
+
+}
@@ -0,0 +1,367 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Мемоизация результатов {@link Functional} в отображённом в память файле ({@link FileChannel#map}), переживающая
+ * перезапуск процесса. Файл - журнал только на добавление: заголовок (признак формата, версия, конец журнала)
+ * и записи [длина ключа, длина значения (-1 - значение null), ключ, значение], сериализованные заданными
+ * {@link OffHeapMemo.Serializer}. Индекс - хеш-таблица с открытой адресацией из смещений записей в куче
+ * (8 байт на запись), при открытии файла он строится одним проходом по журналу без десериализации.
+ * Конец журнала обновляется в заголовке после записи, поэтому при падении процесса недописанная запись
+ * отбрасывается; {@link #force()} сбрасывает изменения на диск. Когда журнал заполнен, новые результаты
+ * не сохраняются до {@link #clear()}. При смене формата сериализации файл следует очистить.
+ * Чтение выполняется параллельно, добавление записей - под блокировкой записи.
+ * Пока мемоизация открыта, файл захвачен исключительной блокировкой ({@link FileChannel#tryLock()}), поэтому второй
+ * экземпляр на том же файле (в том числе в другом процессе при пересекающемся перезапуске) не открывается, а не
+ * портит журнал параллельной записью. {@link #close()} сбрасывает журнал на диск и освобождает файл.
+ * @param <K> тип ключа (параметра функции)
+ * @param <V> тип значения (результата функции)
+ */
+public final class MappedMemo<K, V> implements Functional<K, V>, AutoCloseable {
+
+    private static final int MAGIC = 0x43524D4D;
+    private static final int VERSION = 1;
+    // Заголовок файла: признак формата (int), версия (int), конец журнала (long)
+    private static final int END = 8;
+    private static final int HEADER = 16;
+    // Заголовок записи: длина ключа (int), длина значения (int)
+    private static final int RECORD_HEADER = 8;
+
+    private final Functional<? super K, ? extends V> functional;
+    private final OffHeapMemo.Serializer<K> keySerializer;
+    private final OffHeapMemo.Serializer<V> valueSerializer;
+    private final FileChannel channel;
+    private final FileLock fileLock;
+    private final MappedByteBuffer log;
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<ByteBuffer> scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
+    private int end;
+    // Индекс: смещение записи (0 - свободно) и хеш её ключа
+    private int[] offsets = new int[16];
+    private int[] hashes = new int[16];
+    private int size;
+    private volatile boolean closed;
+
+    private MappedMemo(@NonNull Functional<? super K, ? extends V> functional, @NonNull Path file,
+                       @NonNull OffHeapMemo.Serializer<K> keySerializer, @NonNull OffHeapMemo.Serializer<V> valueSerializer,
+                       long capacity) throws IOException {
+        this.functional = Objects.requireNonNull(functional, "MappedMemo - functional is null");
+        this.keySerializer = Objects.requireNonNull(keySerializer, "MappedMemo - keySerializer is null");
+        this.valueSerializer = Objects.requireNonNull(valueSerializer, "MappedMemo - valueSerializer is null");
+        Objects.requireNonNull(file, "MappedMemo - file is null");
+        if (capacity <= HEADER + RECORD_HEADER || capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("MappedMemo - capacity has to be in (" + (HEADER + RECORD_HEADER) + ", " + Integer.MAX_VALUE + "]: " + capacity);
+        }
+        this.capacity = (int) capacity;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.fileLock = lock(channel, file);
+            this.log = channel.map(FileChannel.MapMode.READ_WRITE, 0L, capacity);
+        } catch (IOException | RuntimeException exception) {
+            channel.close();
+            throw exception;
+        }
+        load();
+    }
+
+    /**
+     * Результат функции из журнала или вычисленный и добавленный в журнал
+     * @param key параметр функции
+     * @return результат функции
+     * @throws Exception исключение функции или сериализации
+     */
+    @Override
+    public V execute(K key) throws Exception {
+        checkOpen();
+        if (key == null) {
+            return functional.execute(null);
+        }
+        ByteBuffer record = record(key, null);
+        if (record == null) {
+            return functional.execute(key);
+        }
+        int keyLength = record.getInt(0);
+        int hash = OffHeapMemo.hash(record, RECORD_HEADER, keyLength);
+        lock.readLock().lock();
+        try {
+            int offset = find(hash, record, keyLength);
+            if (offset > 0) {
+                return read(offset, keyLength);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        V value = functional.execute(key);
+        record = record(key, value);
+        if (record != null) {
+            lock.writeLock().lock();
+            try {
+                // После закрытия файл может принадлежать другому экземпляру, поэтому запись в журнал не выполняется
+                if (!closed && find(hash, record, keyLength) == 0 && end + record.remaining() <= capacity) {
+                    append(hash, record);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Число записей в журнале
+     * @return число записей
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Занятый журналом объём файла
+     * @return число байт, включая заголовок
+     */
+    public int bytesUsed() {
+        lock.readLock().lock();
+        try {
+            return end;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Сброс изменений журнала на диск
+     */
+    public void force() {
+        lock.writeLock().lock();
+        try {
+            log.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Сброс журнала на диск и освобождение файла. Повторный вызов ничего не делает,
+     * последующие вызовы функции бросают {@link IllegalStateException}
+     * @throws IOException ошибка освобождения блокировки или закрытия файла
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            log.force();
+            try {
+                fileLock.release();
+            } finally {
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаление всех записей журнала
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("MappedMemo - memo is closed");
+        }
+    }
+
+    private static FileLock lock(FileChannel channel, Path file) throws IOException {
+        FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException exception) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            throw new IOException("MappedMemo - file is used by another instance: " + file);
+        }
+        return fileLock;
+    }
+
+    private void load() {
+        if (log.getInt(0) != MAGIC || log.getInt(4) != VERSION) {
+            reset();
+            return;
+        }
+        long logEnd = log.getLong(END);
+        if (logEnd < HEADER || logEnd > capacity) {
+            reset();
+            return;
+        }
+        int offset = HEADER;
+        while (offset + RECORD_HEADER <= logEnd) {
+            int keyLength = log.getInt(offset);
+            int valueLength = log.getInt(offset + 4);
+            long next = (long) offset + RECORD_HEADER + keyLength + Math.max(valueLength, 0);
+            if (keyLength < 0 || valueLength < -1 || next > logEnd) {
+                break;
+            }
+            index(OffHeapMemo.hash(log, offset + RECORD_HEADER, keyLength), offset);
+            offset = (int) next;
+        }
+        end = offset;
+        log.putLong(END, end);
+    }
+
+    private void reset() {
+        log.putInt(0, MAGIC);
+        log.putInt(4, VERSION);
+        log.putLong(END, HEADER);
+        end = HEADER;
+        offsets = new int[16];
+        hashes = new int[16];
+        size = 0;
+    }
+
+    // Запись [длина ключа, длина значения, ключ, значение] в буфере потока, null - запись больше журнала
+    private ByteBuffer record(K key, V value) throws Exception {
+        ByteBuffer buffer = scratch.get();
+        while (true) {
+            buffer.clear().position(RECORD_HEADER);
+            try {
+                keySerializer.write(key, buffer);
+                int keyLength = buffer.position() - RECORD_HEADER;
+                if (value != null) {
+                    valueSerializer.write(value, buffer);
+                }
+                int valueLength = value == null ? -1 : buffer.position() - RECORD_HEADER - keyLength;
+                buffer.putInt(0, keyLength).putInt(4, valueLength);
+                return buffer.flip();
+            } catch (BufferOverflowException exception) {
+                int limit = capacity - HEADER;
+                if (buffer.capacity() >= limit) {
+                    return null;
+                }
+                buffer = ByteBuffer.allocate((int) Math.min(limit, buffer.capacity() * 2L));
+                scratch.set(buffer);
+            }
+        }
+    }
+
+    private int find(int hash, ByteBuffer record, int keyLength) {
+        int mask = offsets.length - 1;
+        for (int index = hash & mask; offsets[index] != 0; index = (index + 1) & mask) {
+            int offset = offsets[index];
+            if (hashes[index] == hash && log.getInt(offset) == keyLength && equalKeys(offset + RECORD_HEADER, record, keyLength)) {
+                return offset;
+            }
+        }
+        return 0;
+    }
+
+    private boolean equalKeys(int offset, ByteBuffer record, int keyLength) {
+        for (int i = 0; i < keyLength; i++) {
+            if (log.get(offset + i) != record.get(RECORD_HEADER + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private V read(int offset, int keyLength) throws Exception {
+        int valueLength = log.getInt(offset + 4);
+        if (valueLength < 0) {
+            return null;
+        }
+        int start = offset + RECORD_HEADER + keyLength;
+        ByteBuffer value = log.duplicate();
+        value.limit(start + valueLength).position(start);
+        return valueSerializer.read(value.slice().asReadOnlyBuffer());
+    }
+
+    private void append(int hash, ByteBuffer record) {
+        int offset = end;
+        ByteBuffer target = log.duplicate();
+        target.position(offset);
+        target.put(record);
+        end = target.position();
+        // Конец журнала сдвигается после записи, поэтому недописанная запись при падении не видна
+        log.putLong(END, end);
+        index(hash, offset);
+    }
+
+    private void index(int hash, int offset) {
+        if (++size * 2 > offsets.length) {
+            int[] oldOffsets = offsets;
+            int[] oldHashes = hashes;
+            offsets = new int[oldOffsets.length << 1];
+            hashes = new int[oldHashes.length << 1];
+            for (int i = 0; i < oldOffsets.length; i++) {
+                if (oldOffsets[i] != 0) {
+                    insert(oldHashes[i], oldOffsets[i]);
+                }
+            }
+        }
+        insert(hash, offset);
+    }
+
+    private void insert(int hash, int offset) {
+        int mask = offsets.length - 1;
+        int index = hash & mask;
+        while (offsets[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        offsets[index] = offset;
+        hashes[index] = hash;
+    }
+
+    /**
+     * Построение мемоизации в отображённом в память файле. Если файл содержит журнал того же формата,
+     * его записи становятся доступны сразу после открытия
+     * @param functional мемоизируемая функция
+     * @param file файл журнала (создаётся при отсутствии)
+     * @param keySerializer сериализация ключей
+     * @param valueSerializer сериализация значений
+     * @param capacity размер файла журнала в байтах (не более {@link Integer#MAX_VALUE})
+     * @return мемоизированная функция
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     * @throws IOException ошибка открытия или отображения файла, либо файл открыт другим экземпляром
+     */
+    public static <K, V> @NonNull MappedMemo<K, V> mappedMemo(@NonNull Functional<? super K, ? extends V> functional,
+                                                              @NonNull Path file,
+                                                              @NonNull OffHeapMemo.Serializer<K> keySerializer,
+                                                              @NonNull OffHeapMemo.Serializer<V> valueSerializer,
+                                                              long capacity) throws IOException {
+        return new MappedMemo<>(functional, file, keySerializer, valueSerializer, capacity);
+    }
+
+}
@@ -0,0 +1,259 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Рекурсивная функция с мемоизацией: тело получает себя (self) и параметр, а рекурсивные вызовы self
+ * проходят через таблицу уже вычисленных результатов, так что каждое подзначение вычисляется один раз.
+ * Таблица создаётся на каждый внешний вызов и живёт до его завершения, поэтому функция потокобезопасна
+ * без блокировок, а память не накапливается между вызовами. Для ключей int и long используются таблицы
+ * с открытой адресацией без упаковки ключей.
+ * В итеративном режиме рекурсия не использует стек потока: вызов self для ещё не вычисленного значения
+ * прерывает тело, параметр помещается в явный стек и вычисляется первым, после чего тело исполняется заново
+ * (уже вычисленные значения берутся из таблицы). Тело в этом режиме должно быть без побочных эффектов.
+ * @param <T> тип параметра
+ * @param <R> тип результата
+ */
+final class MemoizedRecursion<T, R> implements Functional<T, R> {
+
+    // Признак отсутствия значения в таблице и признак сохранённого null
+    private static final Object MISSING = new Object();
+    private static final Object NIL = new Object();
+
+    private final BiFunctional<? super Functional<T, R>, ? super T, ? extends R> body;
+    private final Supplier<Memo<T>> memoFactory;
+    private final boolean iterative;
+
+    MemoizedRecursion(@NonNull BiFunctional<? super Functional<T, R>, ? super T, ? extends R> body,
+                      @NonNull Supplier<Memo<T>> memoFactory, boolean iterative) {
+        this.body = Objects.requireNonNull(body, "Functional::fix - body is null");
+        this.memoFactory = memoFactory;
+        this.iterative = iterative;
+    }
+
+    @Override
+    public R execute(T parameter) throws Exception {
+        Memo<T> memo = memoFactory.get();
+        return iterative ? iterate(memo, parameter) : recurse(memo, parameter);
+    }
+
+    private R recurse(Memo<T> memo, T parameter) throws Exception {
+        Functional<T, R> self = new Functional<>() {
+            @Override
+            public R execute(T key) throws Exception {
+                Object cached = memo.get(key);
+                if (cached != MISSING) {
+                    return unmask(cached);
+                }
+                R result = body.execute(this, key);
+                memo.put(key, result == null ? NIL : result);
+                return result;
+            }
+        };
+        return self.execute(parameter);
+    }
+
+    private R iterate(Memo<T> memo, T parameter) throws Exception {
+        Functional<T, R> self = key -> {
+            Object cached = memo.get(key);
+            if (cached == MISSING) {
+                throw new Pending(key);
+            }
+            return unmask(cached);
+        };
+        Deque<Object> stack = new ArrayDeque<>();
+        Set<Object> active = new HashSet<>();
+        stack.push(new Pending(parameter));
+        while (!stack.isEmpty()) {
+            @SuppressWarnings("unchecked")
+            T key = (T) ((Pending) stack.peek()).key;
+            if (memo.get(key) != MISSING) {
+                active.remove(stack.pop());
+                continue;
+            }
+            try {
+                R result = body.execute(self, key);
+                memo.put(key, result == null ? NIL : result);
+                active.remove(stack.pop());
+            } catch (Pending pending) {
+                if (!active.add(pending)) {
+                    throw new IllegalStateException("Functional::fix - infinite recursion on: " + pending.key);
+                }
+                active.add(stack.peek());
+                stack.push(pending);
+            }
+        }
+        return unmask(memo.get(parameter));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R unmask(Object value) {
+        return value == NIL ? null : (R) value;
+    }
+
+    /**
+     * Таблица вычисленных значений. get возвращает MISSING для отсутствующего ключа
+     * @param <T> тип ключа
+     */
+    abstract static class Memo<T> {
+        abstract Object get(T key);
+        abstract void put(T key, Object value);
+    }
+
+    static <T> @NonNull Memo<T> hashMemo() {
+        return new Memo<>() {
+            private final Map<T, Object> values = new HashMap<>();
+
+            @Override
+            Object get(T key) {
+                return values.getOrDefault(key, MISSING);
+            }
+
+            @Override
+            void put(T key, Object value) {
+                values.put(key, value);
+            }
+        };
+    }
+
+    static @NonNull Memo<Integer> intMemo() {
+        return new IntMemo();
+    }
+
+    static @NonNull Memo<Long> longMemo() {
+        return new LongMemo();
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    // Открытая адресация с линейным пробированием, заполнение не более половины
+    private static final class IntMemo extends Memo<Integer> {
+        private int[] keys = new int[16];
+        private Object[] values = new Object[16];
+        private int size;
+
+        @Override
+        Object get(Integer key) {
+            int k = Objects.requireNonNull(key, "Functional::fix - key is null");
+            int mask = keys.length - 1;
+            for (int index = mix(k) & mask; values[index] != null; index = (index + 1) & mask) {
+                if (keys[index] == k) {
+                    return values[index];
+                }
+            }
+            return MISSING;
+        }
+
+        @Override
+        void put(Integer key, Object value) {
+            if (!insert(key, value) && ++size * 2 > keys.length) {
+                int[] oldKeys = keys;
+                Object[] oldValues = values;
+                keys = new int[oldKeys.length << 1];
+                values = new Object[oldValues.length << 1];
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldValues[i] != null) {
+                        insert(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+        }
+
+        // Возвращает true, если значение ключа заменено, и false, если занят новый слот
+        private boolean insert(int key, Object value) {
+            int mask = keys.length - 1;
+            int index = mix(key) & mask;
+            while (values[index] != null && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            boolean replaced = values[index] != null;
+            keys[index] = key;
+            values[index] = value;
+            return replaced;
+        }
+    }
+
+    // Открытая адресация с линейным пробированием, заполнение не более половины
+    private static final class LongMemo extends Memo<Long> {
+        private long[] keys = new long[16];
+        private Object[] values = new Object[16];
+        private int size;
+
+        @Override
+        Object get(Long key) {
+            long k = Objects.requireNonNull(key, "Functional::fix - key is null");
+            int mask = keys.length - 1;
+            for (int index = mix(k) & mask; values[index] != null; index = (index + 1) & mask) {
+                if (keys[index] == k) {
+                    return values[index];
+                }
+            }
+            return MISSING;
+        }
+
+        @Override
+        void put(Long key, Object value) {
+            if (!insert(key, value) && ++size * 2 > keys.length) {
+                long[] oldKeys = keys;
+                Object[] oldValues = values;
+                keys = new long[oldKeys.length << 1];
+                values = new Object[oldValues.length << 1];
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldValues[i] != null) {
+                        insert(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+        }
+
+        // Возвращает true, если значение ключа заменено, и false, если занят новый слот
+        private boolean insert(long key, Object value) {
+            int mask = keys.length - 1;
+            int index = mix(key) & mask;
+            while (values[index] != null && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            boolean replaced = values[index] != null;
+            keys[index] = key;
+            values[index] = value;
+            return replaced;
+        }
+    }
+
+    /**
+     * Сигнал итеративного режима о необходимости сначала вычислить значение для key. Наследует {@link Error},
+     * а не {@link Exception}, чтобы его не перехватывал catch (Exception) в теле функции; стек не заполняется
+     */
+    private static final class Pending extends Error {
+        private static final long serialVersionUID = 4410768423370950837L;
+        private final transient Object key;
+
+        private Pending(Object key) {
+            super(null, null, false, false);
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Pending && Objects.equals(key, ((Pending) other).key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key);
+        }
+    }
+
+}
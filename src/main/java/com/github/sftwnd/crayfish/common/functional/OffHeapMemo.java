@@ -0,0 +1,359 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Мемоизация результатов {@link Functional} вне кучи: записи хранятся в сериализованном виде в direct {@link ByteBuffer}
+ * (сегментами до 1 Гб), так что таблица на гигабайты не увеличивает кучу и паузы сборщика мусора.
+ * Ключи и значения сериализуются заданными {@link Serializer}, записи занимают слоты фиксированного размера.
+ * Индекс - открытая адресация по корзинам из {@link #WAYS} соседних слотов: хеш сериализованного ключа выбирает корзину,
+ * поиск просматривает только её слоты. Если в корзине нет свободного слота, вытесняется запись по алгоритму clock:
+ * стрелка корзины обходит слоты, снимая признак обращения, и освобождает первый слот без него.
+ * Корзины защищены полосами блокировок, вычисление функции при промахе выполняется вне блокировки, поэтому
+ * одновременные промахи по одному ключу могут вычислить значение несколько раз. Записи, не помещающиеся в слот,
+ * и ключи null не кешируются. Память освобождается вместе с объектом мемоизации сборщиком мусора.
+ * @param <K> тип ключа (параметра функции)
+ * @param <V> тип значения (результата функции)
+ */
+public final class OffHeapMemo<K, V> implements Functional<K, V> {
+
+    /** Число слотов в корзине */
+    public static final int WAYS = 8;
+
+    private static final int SEGMENT_BYTES = 1 << 30;
+    // Заголовок слота: флаги (byte), хеш (int), длина ключа (int), длина значения (int, -1 - значение null)
+    private static final int FLAGS = 0;
+    private static final int HASH = 4;
+    private static final int KEY_LENGTH = 8;
+    private static final int VALUE_LENGTH = 12;
+    private static final int HEADER = 16;
+    private static final byte USED = 1;
+    private static final byte REFERENCED = 2;
+    private static final int LOCK_STRIPES = 1024;
+
+    private final Functional<? super K, ? extends V> functional;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final int slotSize;
+    private final int bucketMask;
+    private final int bucketsPerSegment;
+    private final ByteBuffer[] segments;
+    private final ByteBuffer hands;
+    private final Object[] locks;
+    private final ThreadLocal<ByteBuffer> scratch;
+    private final AtomicLong size = new AtomicLong();
+    private final LongAdder evictions = new LongAdder();
+
+    private OffHeapMemo(@NonNull Functional<? super K, ? extends V> functional,
+                        @NonNull Serializer<K> keySerializer, @NonNull Serializer<V> valueSerializer,
+                        long capacity, int slotSize) {
+        this.functional = Objects.requireNonNull(functional, "OffHeapMemo - functional is null");
+        this.keySerializer = Objects.requireNonNull(keySerializer, "OffHeapMemo - keySerializer is null");
+        this.valueSerializer = Objects.requireNonNull(valueSerializer, "OffHeapMemo - valueSerializer is null");
+        if (capacity <= 0L) {
+            throw new IllegalArgumentException("OffHeapMemo - capacity has to be positive: " + capacity);
+        }
+        if (slotSize <= HEADER || slotSize > SEGMENT_BYTES / WAYS) {
+            throw new IllegalArgumentException("OffHeapMemo - slotSize has to be in (" + HEADER + ", " + SEGMENT_BYTES / WAYS + "]: " + slotSize);
+        }
+        long required = (capacity + WAYS - 1) / WAYS;
+        if (required > 1L << 30) {
+            throw new IllegalArgumentException("OffHeapMemo - capacity is too large: " + capacity);
+        }
+        int buckets = required == 1L ? 1 : Integer.highestOneBit((int) required - 1) << 1;
+        this.slotSize = slotSize;
+        this.bucketMask = buckets - 1;
+        this.bucketsPerSegment = Math.min(buckets, SEGMENT_BYTES / (slotSize * WAYS));
+        this.segments = new ByteBuffer[(buckets + bucketsPerSegment - 1) / bucketsPerSegment];
+        for (int i = 0; i < segments.length; i++) {
+            int segmentBuckets = Math.min(bucketsPerSegment, buckets - i * bucketsPerSegment);
+            segments[i] = ByteBuffer.allocateDirect(segmentBuckets * WAYS * slotSize);
+        }
+        this.hands = ByteBuffer.allocateDirect(buckets);
+        this.locks = new Object[Math.min(buckets, LOCK_STRIPES)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        this.scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(slotSize - HEADER));
+    }
+
+    /**
+     * Результат функции из таблицы или вычисленный и сохранённый в таблице
+     * @param key параметр функции
+     * @return результат функции
+     * @throws Exception исключение функции или сериализации
+     */
+    @Override
+    public V execute(K key) throws Exception {
+        if (key == null) {
+            return functional.execute(null);
+        }
+        ByteBuffer buffer = scratch.get();
+        buffer.clear();
+        if (!serialize(keySerializer, key, buffer)) {
+            return functional.execute(key);
+        }
+        int keyLength = buffer.position();
+        int hash = hash(buffer, 0, keyLength);
+        int bucket = hash & bucketMask;
+        ByteBuffer segment = segments[bucket / bucketsPerSegment];
+        int base = (bucket % bucketsPerSegment) * WAYS * slotSize;
+        Object found = null;
+        synchronized (locks[bucket % locks.length]) {
+            int slot = find(segment, base, hash, buffer, keyLength);
+            if (slot >= 0) {
+                segment.put(slot + FLAGS, (byte) (USED | REFERENCED));
+                found = read(segment, slot, keyLength);
+            }
+        }
+        if (found != null) {
+            return found == Null.NULL ? null : unmask(found);
+        }
+        V value = functional.execute(key);
+        // Функция могла использовать буфер потока (например, рекурсивным вызовом), поэтому ключ сериализуется повторно
+        buffer.clear();
+        serialize(keySerializer, key, buffer);
+        if (value == null || serialize(valueSerializer, value, buffer)) {
+            int valueLength = value == null ? -1 : buffer.position() - keyLength;
+            synchronized (locks[bucket % locks.length]) {
+                store(segment, base, bucket, hash, buffer, keyLength, valueLength);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Число записей в таблице
+     * @return число записей
+     */
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * Число вытесненных записей
+     * @return число вытеснений
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Удаление всех записей
+     */
+    public void clear() {
+        for (int bucket = 0; bucket <= bucketMask; bucket++) {
+            ByteBuffer segment = segments[bucket / bucketsPerSegment];
+            int base = (bucket % bucketsPerSegment) * WAYS * slotSize;
+            synchronized (locks[bucket % locks.length]) {
+                for (int way = 0; way < WAYS; way++) {
+                    int slot = base + way * slotSize;
+                    if (segment.get(slot + FLAGS) != 0) {
+                        segment.put(slot + FLAGS, (byte) 0);
+                        size.decrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    private int find(ByteBuffer segment, int base, int hash, ByteBuffer key, int keyLength) {
+        for (int way = 0; way < WAYS; way++) {
+            int slot = base + way * slotSize;
+            if (segment.get(slot + FLAGS) != 0 && segment.getInt(slot + HASH) == hash
+                    && segment.getInt(slot + KEY_LENGTH) == keyLength && equalKeys(segment, slot + HEADER, key, keyLength)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private Object read(ByteBuffer segment, int slot, int keyLength) throws Exception {
+        int valueLength = segment.getInt(slot + VALUE_LENGTH);
+        if (valueLength < 0) {
+            return Null.NULL;
+        }
+        ByteBuffer value = segment.duplicate();
+        value.limit(slot + HEADER + keyLength + valueLength).position(slot + HEADER + keyLength);
+        return Objects.requireNonNullElse(valueSerializer.read(value.slice().asReadOnlyBuffer()), Null.NULL);
+    }
+
+    private void store(ByteBuffer segment, int base, int bucket, int hash, ByteBuffer entry, int keyLength, int valueLength) {
+        int slot = find(segment, base, hash, entry, keyLength);
+        if (slot < 0) {
+            slot = vacant(segment, base, bucket);
+        }
+        segment.putInt(slot + HASH, hash);
+        segment.putInt(slot + KEY_LENGTH, keyLength);
+        segment.putInt(slot + VALUE_LENGTH, valueLength);
+        int length = keyLength + Math.max(valueLength, 0);
+        for (int i = 0; i < length; i++) {
+            segment.put(slot + HEADER + i, entry.get(i));
+        }
+        segment.put(slot + FLAGS, USED);
+    }
+
+    // Свободный слот корзины или слот, освобождённый стрелкой clock
+    private int vacant(ByteBuffer segment, int base, int bucket) {
+        for (int way = 0; way < WAYS; way++) {
+            int slot = base + way * slotSize;
+            if (segment.get(slot + FLAGS) == 0) {
+                size.incrementAndGet();
+                return slot;
+            }
+        }
+        int hand = hands.get(bucket);
+        while (true) {
+            int slot = base + hand * slotSize;
+            hand = (hand + 1) % WAYS;
+            byte flags = segment.get(slot + FLAGS);
+            if ((flags & REFERENCED) == 0) {
+                hands.put(bucket, (byte) hand);
+                evictions.increment();
+                return slot;
+            }
+            segment.put(slot + FLAGS, (byte) (flags & ~REFERENCED));
+        }
+    }
+
+    private static boolean equalKeys(ByteBuffer segment, int offset, ByteBuffer key, int keyLength) {
+        for (int i = 0; i < keyLength; i++) {
+            if (segment.get(offset + i) != key.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a с перемешиванием старших бит, используется также в MappedMemo
+    static int hash(ByteBuffer key, int offset, int keyLength) {
+        int hash = 0x811C9DC5;
+        for (int i = offset; i < offset + keyLength; i++) {
+            hash = (hash ^ key.get(i)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static <X> boolean serialize(Serializer<X> serializer, X value, ByteBuffer buffer) throws Exception {
+        try {
+            serializer.write(value, buffer);
+            return true;
+        } catch (BufferOverflowException exception) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V unmask(Object value) {
+        return (V) value;
+    }
+
+    private enum Null { NULL }
+
+    /**
+     * Построение мемоизации вне кучи
+     * @param functional мемоизируемая функция
+     * @param keySerializer сериализация ключей
+     * @param valueSerializer сериализация значений
+     * @param capacity число записей (округляется вверх до степени двойки корзин по {@link #WAYS} слотов)
+     * @param slotSize размер слота в байтах: 16 байт заголовка плюс сериализованные ключ и значение
+     * @return мемоизированная функция
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    public static <K, V> @NonNull OffHeapMemo<K, V> offHeapMemo(@NonNull Functional<? super K, ? extends V> functional,
+                                                                @NonNull Serializer<K> keySerializer,
+                                                                @NonNull Serializer<V> valueSerializer,
+                                                                long capacity, int slotSize) {
+        return new OffHeapMemo<>(functional, keySerializer, valueSerializer, capacity, slotSize);
+    }
+
+    /**
+     * Сериализация ключей и значений в буфер
+     * @param <X> тип сериализуемого объекта
+     */
+    public interface Serializer<X> {
+
+        /**
+         * Запись объекта в буфер с его текущей позиции. Переполнение буфера ({@link BufferOverflowException})
+         * означает, что запись не помещается в слот и не кешируется
+         * @param value записываемый объект (не null)
+         * @param target буфер
+         * @throws Exception исключение сериализации
+         */
+        void write(@NonNull X value, @NonNull ByteBuffer target) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+
+        /**
+         * Чтение объекта из буфера, содержащего ровно записанные байты
+         * @param source буфер (только для чтения)
+         * @return прочитанный объект
+         * @throws Exception исключение десериализации
+         */
+        X read(@NonNull ByteBuffer source) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+
+        /**
+         * Сериализация {@link Long} в 8 байт
+         * @return {@link Serializer}
+         */
+        static @NonNull Serializer<Long> longs() {
+            return new Serializer<>() {
+                @Override
+                public void write(@NonNull Long value, @NonNull ByteBuffer target) {
+                    target.putLong(value);
+                }
+
+                @Override
+                public Long read(@NonNull ByteBuffer source) {
+                    return source.getLong();
+                }
+            };
+        }
+
+        /**
+         * Сериализация {@link Integer} в 4 байта
+         * @return {@link Serializer}
+         */
+        static @NonNull Serializer<Integer> ints() {
+            return new Serializer<>() {
+                @Override
+                public void write(@NonNull Integer value, @NonNull ByteBuffer target) {
+                    target.putInt(value);
+                }
+
+                @Override
+                public Integer read(@NonNull ByteBuffer source) {
+                    return source.getInt();
+                }
+            };
+        }
+
+        /**
+         * Сериализация {@link String} в UTF-8
+         * @return {@link Serializer}
+         */
+        static @NonNull Serializer<String> strings() {
+            return new Serializer<>() {
+                @Override
+                public void write(@NonNull String value, @NonNull ByteBuffer target) {
+                    target.put(value.getBytes(StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public String read(@NonNull ByteBuffer source) {
+                    byte[] bytes = new byte[source.remaining()];
+                    source.get(bytes);
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link Processable}, исполняющий исходный метод не более одного раза (успешно).
+ * Право на исполнение захватывается через CAS, после успешного исполнения вызов сводится к одному volatile чтению.
+ * Вызовы, пришедшие во время первого исполнения, не ждут его окончания и сразу возвращают управление.
+ * Если исполнение закончилось исключением, оно пробрасывается вызвавшему, а следующий вызов повторит попытку.
+ */
+final class OnceProcessable implements Processable {
+
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final Processable processable;
+    private final AtomicInteger state = new AtomicInteger(NEW);
+
+    OnceProcessable(@NonNull Processable processable) {
+        this.processable = Objects.requireNonNull(processable, "OnceProcessable - processable is null");
+    }
+
+    @Override
+    public void process() throws Exception {
+        if (state.get() == DONE || !state.compareAndSet(NEW, RUNNING)) {
+            return;
+        }
+        boolean done = false;
+        try {
+            processable.process();
+            done = true;
+        } finally {
+            state.set(done ? DONE : NEW);
+        }
+    }
+
+    /**
+     * Признак успешного исполнения исходного метода
+     * @return true, если метод уже был успешно исполнен
+     */
+    boolean isDone() {
+        return state.get() == DONE;
+    }
+
+}
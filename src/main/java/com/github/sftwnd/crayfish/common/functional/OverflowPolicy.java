@@ -0,0 +1,28 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+/**
+ * Поведение ограниченной очереди {@link AsyncConsumable} при её заполнении
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Поток производителя ожидает освобождения места в очереди
+     */
+    BLOCK,
+
+    /**
+     * Новый элемент отбрасывается, очередь не изменяется
+     */
+    DROP_NEWEST,
+
+    /**
+     * Из очереди отбрасывается самый старый элемент, новый добавляется в конец
+     */
+    DROP_OLDEST,
+
+    /**
+     * Производителю бросается {@link java.util.concurrent.RejectedExecutionException}
+     */
+    FAIL_FAST
+
+}
@@ -0,0 +1,136 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import lombok.SneakyThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Расширение {@link Predicate}, но метод может бросать исключение.
+ * @param <T> тип параметра
+ * Used sonar warnings:
+ *      java:S112   Generic exceptions should never be thrown
+ */
+@FunctionalInterface
+public interface Predicable<T> extends Predicate<T> {
+
+    /**
+     * Проверяет условие для заданного аргумента
+     * @param parameter параметр условия
+     * @return результат проверки условия
+     * @throws Exception исключение, произошедшее в результате исполнения
+     */
+    boolean verify(T parameter) throws Exception; //NOSONAR java:S112 Generic exceptions should never be thrown
+
+    /**
+     * Проверяет условие для заданного аргумента
+     * @param parameter параметр условия
+     * @return результат проверки условия
+     */
+    @Override
+    @SneakyThrows
+    default boolean test(T parameter) {
+        return verify(parameter);
+    }
+
+    /**
+     * Создаёт {@link Predicable}, истинный, если истинны оба условия. Второе условие проверяется, только если истинно первое
+     * @param other второе условие
+     * @return построенный {@link Predicable}
+     */
+    default @NonNull Predicable<T> and(@NonNull Predicable<? super T> other) {
+        Objects.requireNonNull(other, "Predicable::and - other is null");
+        return parameter -> verify(parameter) && other.verify(parameter);
+    }
+
+    /**
+     * Создаёт {@link Predicable}, истинный, если истинно хотя бы одно из условий. Второе условие проверяется, только если ложно первое
+     * @param other второе условие
+     * @return построенный {@link Predicable}
+     */
+    default @NonNull Predicable<T> or(@NonNull Predicable<? super T> other) {
+        Objects.requireNonNull(other, "Predicable::or - other is null");
+        return parameter -> verify(parameter) || other.verify(parameter);
+    }
+
+    /**
+     * Создаёт {@link Predicable}, обратный исходному
+     * @return построенный {@link Predicable}
+     */
+    @Override
+    default @NonNull Predicable<T> negate() {
+        return parameter -> !verify(parameter);
+    }
+
+    /**
+     * Создаёт {@link Functional}, возвращающий результат проверки условия
+     * @return построенный {@link Functional}
+     */
+    default @NonNull Functional<T, Boolean> functional() {
+        return this::verify;
+    }
+
+    /**
+     * Создаёт {@link Processable}, который при вызове проверяет условие для заданного значения параметра
+     * и игнорирует результат
+     * @param parameter фиксируемое значение параметра
+     * @return построенный {@link Processable}
+     */
+    default @NonNull Processable processable(T parameter) {
+        return () -> verify(parameter);
+    }
+
+    /**
+     * Функция позволяет превратить метод от параметра к {@link Predicable}
+     * @param predicable метод от параметра, возвращающий boolean
+     * @return объект {@link Predicable}
+     * @param <T> тип параметра
+     */
+    static <T> @NonNull Predicable<T> predicable(@NonNull Predicable<T> predicable) {
+        return Objects.requireNonNull(predicable, "Predicable::predicable - predicable is null");
+    }
+
+    /**
+     * Функция осуществляет приведение {@link Predicate} к {@link Predicable}
+     * @param predicate приводимый {@link Predicate} объект
+     * @return {@link Predicable} обёртка
+     * @param <T> тип параметра
+     */
+    static @NonNull <T> Predicable<T> cast(@NonNull Predicate<T> predicate) {
+        return Objects.requireNonNull(predicate, "Predicable::cast - predicate is null")::test;
+    }
+
+    /**
+     * Создаёт {@link Predicable}, истинный, если истинны все условия, и проверяющий их в порядке, подстраиваемом
+     * под поток параметров: по выборке вызовов измеряются стоимость и доля отказов каждого условия, и первыми
+     * проверяются условия с наименьшей стоимостью на один отказ. На вызовах выборки проверяются все условия,
+     * поэтому условия не должны иметь побочных эффектов, а исключение одного из условий может быть брошено
+     * и тогда, когда другое условие ложно.
+     * @param predicables условия
+     * @return построенный {@link Predicable}
+     * @param <T> тип параметра
+     */
+    @SafeVarargs
+    static <T> @NonNull Predicable<T> adaptiveAll(@NonNull Predicable<? super T>... predicables) {
+        List<Predicable<? super T>> list = new ArrayList<>(Objects.requireNonNull(predicables, "Predicable::adaptiveAll - predicables is null").length);
+        for (Predicable<? super T> predicable : predicables) {
+            list.add(predicable);
+        }
+        return adaptiveAll(list);
+    }
+
+    /**
+     * Создаёт {@link Predicable}, истинный, если истинны все условия, и проверяющий их в порядке, подстраиваемом
+     * под поток параметров (см. {@link #adaptiveAll(Predicable[])})
+     * @param predicables условия
+     * @return построенный {@link Predicable}
+     * @param <T> тип параметра
+     */
+    static <T> @NonNull Predicable<T> adaptiveAll(@NonNull List<? extends Predicable<? super T>> predicables) {
+        return new AdaptivePredicable<>(predicables, AdaptivePredicable.SAMPLE_RATE);
+    }
+
+}
@@ -3,8 +3,10 @@ package com.github.sftwnd.crayfish.common.functional;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import lombok.SneakyThrows;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Расширение {@link Runnable}, но метод может бросать исключение.
@@ -68,6 +70,134 @@ public interface Processable extends Runnable {
         return this::supplied;
     }
 
+    /**
+     * Создаёт {@link Processable}, исполняющий исходный метод не более одного раза (успешно).
+     * После успешного исполнения вызов сводится к одному volatile чтению, вызовы во время первого
+     * исполнения не ожидают его окончания, а исключение позволяет повторить исполнение следующим вызовом.
+     * @return {@link Processable} однократного исполнения
+     */
+    default @NonNull Processable once() {
+        return new OnceProcessable(this);
+    }
+
+    /**
+     * Создаёт {@link Processable}, который планирует исполнение исходного метода на {@link Executor}, схлопывая
+     * вызовы: все вызовы во время исполнения приводят ровно к одному повторному исполнению после его окончания.
+     * Исключения исполнения передаются в {@link Thread.UncaughtExceptionHandler} потока executor-а.
+     * @param executor исполнитель
+     * @return схлопывающий {@link Processable}
+     */
+    default @NonNull Processable coalescing(@NonNull Executor executor) {
+        return coalescing(executor, SerializedConsumable::uncaught);
+    }
+
+    /**
+     * Создаёт {@link Processable}, который планирует исполнение исходного метода на {@link Executor}, схлопывая
+     * вызовы: все вызовы во время исполнения приводят ровно к одному повторному исполнению после его окончания.
+     * @param executor исполнитель
+     * @param onError обработчик исключений исполнения
+     * @return схлопывающий {@link Processable}
+     */
+    default @NonNull Processable coalescing(@NonNull Executor executor, @NonNull Consumable<? super Exception> onError) {
+        return new CoalescingProcessable(this, executor, onError);
+    }
+
+    /**
+     * Создаёт {@link Processable}, который исполняет исходный метод только после того, как в течение заданного
+     * периода тишины не было новых вызовов. Исполнение идёт на общем планировщике,
+     * исключения передаются в {@link Thread.UncaughtExceptionHandler} его потока.
+     * @param quietPeriod период тишины
+     * @return {@link Processable} с подавлением дребезга
+     */
+    default @NonNull Processable debounce(@NonNull Duration quietPeriod) {
+        return new DebouncedConsumable<Void>(ignore -> process(), quietPeriod).processable(null);
+    }
+
+    /**
+     * Создаёт {@link Processable}, который исполняет исходный метод не чаще одного раза за интервал: первый вызов
+     * исполняется сразу, а вызовы внутри интервала схлопываются в одно завершающее исполнение на общем планировщике
+     * (исключения завершающего исполнения передаются в {@link Thread.UncaughtExceptionHandler}).
+     * @param interval минимальный интервал между исполнениями
+     * @return {@link Processable} с ограничением частоты
+     */
+    default @NonNull Processable throttle(@NonNull Duration interval) {
+        return new ThrottledConsumable<Void>(ignore -> process(), interval).processable(null);
+    }
+
+    /**
+     * Создаёт {@link Processable} с ограничением частоты вызовов: вызовы сверх частоты сразу отклоняются
+     * @param permitsPerSecond число вызовов в секунду
+     * @param burst число вызовов, которые можно выполнить подряд после простоя
+     * @return {@link Processable} с ограничением частоты
+     */
+    default @NonNull Processable rateLimited(double permitsPerSecond, int burst) {
+        return rateLimited(RateLimit.rateLimit(permitsPerSecond, burst));
+    }
+
+    /**
+     * Создаёт {@link Processable} с ограничением частоты вызовов, общим с другими вызовами
+     * @param rateLimit ограничение частоты
+     * @return {@link Processable} с ограничением частоты
+     */
+    default @NonNull Processable rateLimited(@NonNull RateLimit rateLimit) {
+        Objects.requireNonNull(rateLimit, "Processable::rateLimited - rateLimit is null");
+        return () -> rateLimit.run(this);
+    }
+
+    /**
+     * Создаёт {@link Processable} с ограничением числа одновременных вызовов: вызовы сверх ограничения сразу отклоняются
+     * @param maxConcurrent максимальное число одновременных вызовов
+     * @return {@link Processable} с ограничением числа одновременных вызовов
+     */
+    default @NonNull Processable bulkhead(int maxConcurrent) {
+        return bulkhead(Bulkhead.bulkhead(maxConcurrent));
+    }
+
+    /**
+     * Создаёт {@link Processable} с ограничением числа одновременных вызовов, общим с другими вызовами
+     * @param bulkhead ограничение числа одновременных вызовов
+     * @return {@link Processable} с ограничением числа одновременных вызовов
+     */
+    default @NonNull Processable bulkhead(@NonNull Bulkhead bulkhead) {
+        Objects.requireNonNull(bulkhead, "Processable::bulkhead - bulkhead is null");
+        return () -> bulkhead.run(this);
+    }
+
+    /**
+     * Создаёт {@link Processable}, повторяющий неудачные вызовы по {@link RetryPolicy}. Паузы между попытками
+     * ожидаются в вызывающем потоке
+     * @param retryPolicy политика повторов
+     * @return {@link Processable} с повторами
+     */
+    default @NonNull Processable retrying(@NonNull RetryPolicy retryPolicy) {
+        Objects.requireNonNull(retryPolicy, "Processable::retrying - retryPolicy is null");
+        return () -> retryPolicy.call(this::call);
+    }
+
+    /**
+     * Создаёт {@link Supplyable}, запускающий вызов с повторами по {@link RetryPolicy} на {@link Executor}: паузы между попытками
+     * отсчитываются общим планировщиком без занятия потоков
+     * @param retryPolicy политика повторов
+     * @param executor исполнитель попыток
+     * @return {@link Supplyable} с {@link CompletableFuture} результата
+     */
+    default @NonNull Supplyable<CompletableFuture<Void>> retryingAsync(@NonNull RetryPolicy retryPolicy, @NonNull Executor executor) {
+        Objects.requireNonNull(retryPolicy, "Processable::retryingAsync - retryPolicy is null");
+        Objects.requireNonNull(executor, "Processable::retryingAsync - executor is null");
+        return () -> retryPolicy.callAsync(this::call, executor);
+    }
+
+    /**
+     * Создаёт {@link Processable}, вызываемый через {@link CircuitBreaker}: при разомкнутом выключателе
+     * вызовы сразу отклоняются без обращения к исходному {@link Processable}
+     * @param circuitBreaker автоматический выключатель (обычно общий для всех вызовов исполнителя)
+     * @return {@link Processable} с автоматическим выключателем
+     */
+    default @NonNull Processable circuitBreaker(@NonNull CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(circuitBreaker, "Processable::circuitBreaker - circuitBreaker is null");
+        return () -> circuitBreaker.run(this);
+    }
+
     /**
      * Функция позволяет превратить метод без параметров к {@link Processable} интерфейсу
      * @param processable оборачиваемый метод
@@ -98,7 +228,7 @@ public interface Processable extends Runnable {
         return () -> {
             try {
                 if (!completableFuture.isDone()) {
-                    this.process();
+                    Cancellation.of(completableFuture).run(this);
                     completableFuture.complete(null);
                 }
             } catch (Exception exception) {
@@ -107,4 +237,25 @@ public interface Processable extends Runnable {
         };
     }
 
+    /**
+     * Функция связывается с {@link Promise} аналогично связыванию с {@link CompletableFuture}: promise заполняется
+     * результатом в случае успешного выполнения или исключением при его возникновении. Вызов не выполняется,
+     * если promise уже завершён.
+     * @param promise связываемый {@link Promise}
+     * @return Consumer для вызова функции
+     */
+    default @NonNull Processable completable(@NonNull Promise<?> promise) {
+        Objects.requireNonNull(promise, "Processable::completable - promise is null");
+        return () -> {
+            try {
+                if (!promise.isDone()) {
+                    Cancellation.of(promise).run(this);
+                    promise.complete(null);
+                }
+            } catch (Exception exception) {
+                promise.completeExceptionally(exception);
+            }
+        };
+    }
+
 }
@@ -0,0 +1,297 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Лёгкий одноразовый результат для передачи значения из одного потока в другой: в отличие от {@link CompletableFuture}
+ * не содержит стека зависимых действий. Результат хранится в одном volatile поле и устанавливается через CAS,
+ * ожидающие потоки паркуются. {@link CompletionStage} создаётся только по требованию через {@link #toCompletableFuture()}.
+ * @param <T> тип результата
+ */
+public final class Promise<T> {
+
+    private static final Object NIL = new Object();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Promise, Object> RESULT =
+            AtomicReferenceFieldUpdater.newUpdater(Promise.class, Object.class, "result");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Promise, Waiter> WAITERS =
+            AtomicReferenceFieldUpdater.newUpdater(Promise.class, Waiter.class, "waiters");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Promise, CompletableFuture> STAGE =
+            AtomicReferenceFieldUpdater.newUpdater(Promise.class, CompletableFuture.class, "stage");
+
+    // null - результат не установлен, NIL - установлен null, Failure - завершение исключением
+    private volatile Object result;
+    private volatile Waiter waiters;
+    private volatile CompletableFuture<T> stage;
+
+    /**
+     * Создание незавершённого Promise
+     */
+    public Promise() {
+        // результат устанавливается методами complete, completeExceptionally или cancel
+    }
+
+    /**
+     * Завершение результатом
+     * @param value значение результата
+     * @return true, если данный вызов установил результат
+     */
+    public boolean complete(@Nullable T value) {
+        return settle(value == null ? NIL : value);
+    }
+
+    /**
+     * Завершение исключением
+     * @param throwable исключение
+     * @return true, если данный вызов установил результат
+     */
+    public boolean completeExceptionally(@NonNull Throwable throwable) {
+        return settle(new Failure(Objects.requireNonNull(throwable, "Promise::completeExceptionally - throwable is null")));
+    }
+
+    /**
+     * Отмена ожидания результата: завершение {@link CancellationException}
+     * @return true, если данный вызов установил результат
+     */
+    public boolean cancel() {
+        return completeExceptionally(new CancellationException("Promise::cancel"));
+    }
+
+    /**
+     * Признак установленного результата
+     * @return true, если результат (или исключение) установлен
+     */
+    public boolean isDone() {
+        return result != null;
+    }
+
+    /**
+     * Признак завершения исключением
+     * @return true, если установлено исключение
+     */
+    public boolean isCompletedExceptionally() {
+        return result instanceof Failure;
+    }
+
+    /**
+     * Признак отмены
+     * @return true, если установлено {@link CancellationException}
+     */
+    public boolean isCancelled() {
+        Object current = result;
+        return current instanceof Failure && ((Failure) current).throwable instanceof CancellationException;
+    }
+
+    /**
+     * Ожидание результата
+     * @return результат
+     * @throws InterruptedException при прерывании ожидания
+     * @throws ExecutionException если установлено исключение
+     */
+    public T get() throws InterruptedException, ExecutionException {
+        Object current = result;
+        return current != null ? report(current) : report(await(0L));
+    }
+
+    /**
+     * Ожидание результата в течение заданного времени
+     * @param timeout время ожидания
+     * @param unit единица времени ожидания
+     * @return результат
+     * @throws InterruptedException при прерывании ожидания
+     * @throws ExecutionException если установлено исключение
+     * @throws TimeoutException если результат не установлен за заданное время
+     */
+    public T get(long timeout, @NonNull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        Object current = result;
+        if (current == null) {
+            long nanos = Math.max(1L, unit.toNanos(timeout));
+            current = await(nanos);
+            if (current == null) {
+                throw new TimeoutException("Promise::get - timeout");
+            }
+        }
+        return report(current);
+    }
+
+    /**
+     * Результат без ожидания
+     * @param valueIfAbsent значение, возвращаемое, если результат ещё не установлен
+     * @return результат или valueIfAbsent
+     * @throws ExecutionException если установлено исключение
+     */
+    public T getNow(@Nullable T valueIfAbsent) throws ExecutionException {
+        Object current = result;
+        return current == null ? valueIfAbsent : report(current);
+    }
+
+    /**
+     * Преобразование в {@link CompletableFuture}, создаваемую один раз при первом обращении и завершаемую вместе с Promise
+     * @return связанная {@link CompletableFuture}
+     */
+    @SuppressWarnings("unchecked")
+    public @NonNull CompletableFuture<T> toCompletableFuture() {
+        CompletableFuture<T> current = stage;
+        if (current == null) {
+            STAGE.compareAndSet(this, null, new CompletableFuture<T>());
+            current = stage;
+            Object done = result;
+            if (done != null) {
+                propagate(current, done);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Преобразование в {@link CompletionStage}
+     * @return связанная {@link CompletionStage}
+     */
+    public @NonNull CompletionStage<T> toCompletionStage() {
+        return toCompletableFuture();
+    }
+
+    private boolean settle(Object value) {
+        if (!RESULT.compareAndSet(this, null, value)) {
+            return false;
+        }
+        for (Waiter waiter = WAITERS.getAndSet(this, Waiter.DONE); waiter != null && waiter != Waiter.DONE; waiter = waiter.next) {
+            LockSupport.unpark(waiter.thread);
+        }
+        CompletableFuture<T> current = stage;
+        if (current != null) {
+            propagate(current, value);
+        }
+        return true;
+    }
+
+    // Ожидание результата, nanos == 0 - без ограничения по времени. Возвращает null по истечении времени
+    private Object await(long nanos) throws InterruptedException {
+        Waiter waiter = new Waiter(Thread.currentThread());
+        while (true) {
+            Waiter head = waiters;
+            if (head == Waiter.DONE) {
+                break;
+            }
+            waiter.next = head;
+            if (WAITERS.compareAndSet(this, head, waiter)) {
+                break;
+            }
+        }
+        long deadline = nanos == 0L ? 0L : System.nanoTime() + nanos;
+        Object current;
+        while ((current = result) == null) {
+            if (Thread.interrupted()) {
+                unlink(waiter);
+                throw new InterruptedException("Promise::get - interrupted");
+            }
+            if (nanos == 0L) {
+                LockSupport.park(this);
+            } else {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    unlink(waiter);
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+        return current;
+    }
+
+    // Удаление прекратившего ожидание узла (и других таких узлов) из стека ожидающих, как в FutureTask:
+    // иначе повторные ожидания с таймаутом незавершённого Promise растили бы стек без ограничения
+    private void unlink(Waiter waiter) {
+        waiter.thread = null;
+        while (!prune()) {
+            Thread.onSpinWait();
+        }
+    }
+
+    // Один проход удаления узлов без потока. false, если стек конкурентно изменился и проход нужно повторить
+    private boolean prune() {
+        Waiter previous = null;
+        for (Waiter node = waiters, next; node != null && node != Waiter.DONE; node = next) {
+            next = node.next;
+            if (node.thread != null) {
+                previous = node;
+            } else if (previous != null) {
+                previous.next = next;
+                if (previous.thread == null) {
+                    return false;
+                }
+            } else if (!WAITERS.compareAndSet(this, node, next)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Длина стека ожидающих результата потоков
+     * @return число узлов в стеке
+     */
+    int waiting() {
+        int count = 0;
+        for (Waiter node = waiters; node != null && node != Waiter.DONE; node = node.next) {
+            count++;
+        }
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T report(Object current) throws ExecutionException {
+        if (current == NIL) {
+            return null;
+        } else if (current instanceof Failure) {
+            Throwable throwable = ((Failure) current).throwable;
+            if (throwable instanceof CancellationException) {
+                throw (CancellationException) throwable;
+            }
+            throw new ExecutionException(throwable);
+        }
+        return (T) current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void propagate(CompletableFuture<T> future, Object value) {
+        if (value == NIL) {
+            future.complete(null);
+        } else if (value instanceof Failure) {
+            future.completeExceptionally(((Failure) value).throwable);
+        } else {
+            future.complete((T) value);
+        }
+    }
+
+    private static final class Failure {
+        private final Throwable throwable;
+        private Failure(Throwable throwable) {
+            this.throwable = throwable;
+        }
+    }
+
+    private static final class Waiter {
+        private static final Waiter DONE = new Waiter(null);
+        // null - узел прекратил ожидание и подлежит удалению
+        private volatile Thread thread;
+        private volatile Waiter next;
+        private Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+}
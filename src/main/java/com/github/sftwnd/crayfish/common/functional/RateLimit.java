@@ -0,0 +1,118 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free ограничение частоты вызовов (token bucket в форме GCRA): всё состояние - один {@link AtomicLong}
+ * с моментом, когда освободится следующее разрешение. Вызов берёт разрешение одним CAS, если этот момент наступает
+ * не позже чем через burst - 1 интервалов, иначе сразу отклоняется новым
+ * {@link RejectedExecutionException} без стека вызовов. Один экземпляр может ограничивать несколько вызовов
+ * (например, все вызовы одного клиента).
+ */
+public final class RateLimit {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    // Момент (в шкале System.nanoTime), начиная с которого свободно следующее разрешение
+    private final AtomicLong nextFree;
+    private final LongAdder rejected = new LongAdder();
+
+    private RateLimit(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0.0) || Double.isInfinite(permitsPerSecond)) {
+            throw new IllegalArgumentException("RateLimit - permitsPerSecond has to be positive: " + permitsPerSecond);
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("RateLimit - burst has to be positive: " + burst);
+        }
+        double interval = TimeUnit.SECONDS.toNanos(1L) / permitsPerSecond;
+        if (interval >= 0x1p63) {
+            throw new IllegalArgumentException("RateLimit - permitsPerSecond is too small: " + permitsPerSecond);
+        }
+        this.intervalNanos = Math.max(1L, (long) interval);
+        // Разность nextFree и текущего момента всегда лежит в [-toleranceNanos, intervalNanos],
+        // поэтому ни окно burst интервалов, ни сумма base + intervalNanos не переполняют long
+        try {
+            this.toleranceNanos = Math.multiplyExact(intervalNanos, (long) burst) - intervalNanos;
+        } catch (ArithmeticException overflow) {
+            throw new IllegalArgumentException("RateLimit - burst is too large for permitsPerSecond: " + burst + ", " + permitsPerSecond, overflow);
+        }
+        this.nextFree = new AtomicLong(System.nanoTime() - toleranceNanos);
+    }
+
+    /**
+     * Попытка получить разрешение без ожидания
+     * @return true, если разрешение получено
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        for (long next = nextFree.get(); ; next = nextFree.get()) {
+            // Неиспользованные в простое разрешения копятся не больше, чем на burst вызовов
+            long base = next - now < -toleranceNanos ? now - toleranceNanos : next;
+            if (base - now > 0) {
+                return false;
+            }
+            // base - now <= 0, поэтому новое значение не дальше intervalNanos от текущего момента
+            if (nextFree.compareAndSet(next, base + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Вычисление в рамках ограничения частоты
+     * @param supplyable вычисляемая функция
+     * @return результат вычисления
+     * @param <X> тип результата
+     * @throws Exception исключение вычисления
+     * @throws RejectedExecutionException если частота вызовов превышена
+     */
+    public <X> X call(@NonNull Supplyable<X> supplyable) throws Exception {
+        Objects.requireNonNull(supplyable, "RateLimit::call - supplyable is null");
+        acquire();
+        return supplyable.call();
+    }
+
+    /**
+     * Исполнение в рамках ограничения частоты
+     * @param processable исполняемый метод
+     * @throws Exception исключение исполнения
+     * @throws RejectedExecutionException если частота вызовов превышена
+     */
+    public void run(@NonNull Processable processable) throws Exception {
+        Objects.requireNonNull(processable, "RateLimit::run - processable is null");
+        acquire();
+        processable.process();
+    }
+
+    /**
+     * Количество отклонённых вызовов
+     * @return число отклонённых вызовов
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private void acquire() {
+        if (!tryAcquire()) {
+            rejected.increment();
+            throw new LimitExceededException("RateLimit::call - rate limit exceeded");
+        }
+    }
+
+    /**
+     * Построение ограничения частоты
+     * @param permitsPerSecond число разрешений в секунду
+     * @param burst число разрешений, которые можно получить подряд после простоя
+     * @return ограничение частоты
+     */
+    public static @NonNull RateLimit rateLimit(double permitsPerSecond, int burst) {
+        return new RateLimit(permitsPerSecond, burst);
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Мемоизация {@link Functional} со слабыми ключами по идентичности и/или мягкими значениями. Слабый ключ сравнивается
+ * по идентичности (==) и не удерживает объект параметра: запись исчезает после сборки ключа сборщиком мусора.
+ * Мягкое значение очищается сборщиком мусора при нехватке памяти, после чего значение вычисляется заново.
+ * Очищенные ссылки регистрируются в {@link ReferenceQueue}, которая вычищается из таблицы при каждом вызове.
+ * Значение, ссылающееся на свой слабый ключ, удерживает его (как в {@link java.util.WeakHashMap}), если значение
+ * не мягкое. Параметр null не кешируется. Одновременные промахи по одному ключу могут вычислить значение несколько раз.
+ * @param <T> тип параметра
+ * @param <R> тип результата
+ */
+final class ReferenceMemo<T, R> implements Functional<T, R> {
+
+    private static final Object NIL = new Object();
+
+    private final Functional<T, R> functional;
+    private final boolean weakKeys;
+    private final boolean softValues;
+    // Ключ - параметр или WeakKey, значение - результат (NIL для null) или SoftValue
+    private final ConcurrentHashMap<Object, Object> table = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    ReferenceMemo(@NonNull Functional<T, R> functional, boolean weakKeys, boolean softValues) {
+        this.functional = functional;
+        this.weakKeys = weakKeys;
+        this.softValues = softValues;
+    }
+
+    @Override
+    public R execute(T parameter) throws Exception {
+        drain();
+        if (parameter == null) {
+            return functional.execute(null);
+        }
+        Object stored = table.get(weakKeys ? new Lookup(parameter) : parameter);
+        Object value = stored instanceof SoftValue ? ((SoftValue) stored).get() : stored;
+        if (value != null) {
+            return value == NIL ? null : unmask(value);
+        }
+        R result = functional.execute(parameter);
+        Object key = weakKeys ? new WeakKey(parameter, queue) : parameter;
+        Object masked = result == null ? NIL : result;
+        table.put(key, softValues ? new SoftValue(key, masked, queue) : masked);
+        return result;
+    }
+
+    /**
+     * Число записей в таблице, включая ещё не вычищенные очищенные ссылки
+     * @return число записей
+     */
+    int size() {
+        drain();
+        return table.size();
+    }
+
+    /**
+     * Ссылка записи параметра, очищаемая сборщиком мусора: слабый ключ, а для ключей по equals - мягкое значение
+     * @param parameter параметр
+     * @return ссылка или null, если записи нет или она хранится без ссылки
+     */
+    Reference<?> reference(@NonNull T parameter) {
+        if (weakKeys) {
+            Lookup lookup = new Lookup(parameter);
+            for (Object key : table.keySet()) {
+                if (lookup.equals(key)) {
+                    return (Reference<?>) key;
+                }
+            }
+            return null;
+        }
+        Object stored = table.get(parameter);
+        return stored instanceof SoftValue ? (SoftValue) stored : null;
+    }
+
+    private void drain() {
+        for (Reference<?> reference = queue.poll(); reference != null; reference = queue.poll()) {
+            if (reference instanceof SoftValue) {
+                table.remove(((SoftValue) reference).key, reference);
+            } else {
+                table.remove(reference);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R unmask(Object value) {
+        return (R) value;
+    }
+
+    // Слабый ключ таблицы: хеш и равенство по идентичности объекта параметра
+    private static final class WeakKey extends WeakReference<Object> {
+        private final int hash;
+
+        private WeakKey(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            Object referent = get();
+            return referent != null && other instanceof WeakKey && ((WeakKey) other).get() == referent;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Ключ поиска без создания слабой ссылки: равен WeakKey с тем же объектом
+    private static final class Lookup {
+        private final Object referent;
+
+        private Lookup(Object referent) {
+            this.referent = referent;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof WeakKey && ((WeakKey) other).get() == referent;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(referent);
+        }
+    }
+
+    // Мягкое значение таблицы с ключом своей записи для удаления после очистки
+    private static final class SoftValue extends SoftReference<Object> {
+        private final Object key;
+
+        private SoftValue(Object key, Object value, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+}
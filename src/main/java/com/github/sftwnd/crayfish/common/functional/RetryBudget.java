@@ -0,0 +1,76 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Бюджет повторов в форме token bucket: каждый первый вызов пополняет бюджет на долю ratio разрешения,
+ * каждый повтор забирает целое разрешение. Так число повторов ограничено долей ratio от общего числа вызовов
+ * (но не более maxTokens подряд), и кратковременный сбой исполнителя не превращается в лавину повторов.
+ * Один бюджет обычно разделяется всеми {@link RetryPolicy} вызовов одного исполнителя.
+ */
+public final class RetryBudget {
+
+    // Разрешения хранятся в тысячных долях
+    private static final long SCALE = 1000L;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    private RetryBudget(double ratio, int maxTokens) {
+        if (!(ratio > 0.0) || ratio > 1.0) {
+            throw new IllegalArgumentException("RetryBudget - ratio has to be in (0, 1]: " + ratio);
+        }
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("RetryBudget - maxTokens has to be positive: " + maxTokens);
+        }
+        this.deposit = Math.max(1L, Math.round(ratio * SCALE));
+        this.capacity = maxTokens * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    /**
+     * Количество доступных повторов
+     * @return число доступных повторов (может быть дробным)
+     */
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+
+    /**
+     * Пополнение бюджета первым вызовом
+     */
+    void deposit() {
+        for (long current = balance.get(); current < capacity; current = balance.get()) {
+            if (balance.compareAndSet(current, Math.min(capacity, current + deposit))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Попытка забрать разрешение на повтор
+     * @return true, если повтор разрешён
+     */
+    boolean tryWithdraw() {
+        for (long current = balance.get(); current >= SCALE; current = balance.get()) {
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Построение бюджета повторов
+     * @param ratio допустимая доля повторов от числа вызовов, (0, 1]
+     * @param maxTokens максимальное число накопленных повторов (бюджет создаётся заполненным)
+     * @return бюджет повторов
+     */
+    public static @NonNull RetryBudget retryBudget(double ratio, int maxTokens) {
+        return new RetryBudget(ratio, maxTokens);
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Политика повторов: не более maxAttempts попыток, пауза перед n-м повтором выбирается случайно
+ * в [0, min(maxBackoff, initialBackoff * 2^(n-1))] (экспоненциальная задержка с полным jitter-ом,
+ * чтобы повторы разных вызовов не синхронизировались). Повтор выполняется только для исключений,
+ * принятых retryOn (по умолчанию - все, кроме прерывания, отмены и истечения {@link Deadline}),
+ * только если в {@link RetryBudget} (если задан) есть разрешение и только если пауза не выходит
+ * за текущий {@link Deadline}. Иначе выбрасывается исключение последней попытки.
+ * Экземпляр неизменяем: retryOn и budget создают новую политику.
+ */
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialNanos;
+    private final long maxNanos;
+    private final Predicate<? super Exception> retryOn;
+    private final RetryBudget budget;
+
+    private RetryPolicy(int maxAttempts, long initialNanos, long maxNanos,
+                        @NonNull Predicate<? super Exception> retryOn, @Nullable RetryBudget budget) {
+        this.maxAttempts = maxAttempts;
+        this.initialNanos = initialNanos;
+        this.maxNanos = maxNanos;
+        this.retryOn = retryOn;
+        this.budget = budget;
+    }
+
+    /**
+     * Политика с заданным условием повтора
+     * @param retryOn условие повтора по исключению попытки
+     * @return новая политика
+     */
+    public @NonNull RetryPolicy retryOn(@NonNull Predicate<? super Exception> retryOn) {
+        return new RetryPolicy(maxAttempts, initialNanos, maxNanos,
+                Objects.requireNonNull(retryOn, "RetryPolicy::retryOn - retryOn is null"), budget);
+    }
+
+    /**
+     * Политика с заданным бюджетом повторов
+     * @param budget бюджет повторов (обычно общий для всех вызовов исполнителя)
+     * @return новая политика
+     */
+    public @NonNull RetryPolicy budget(@NonNull RetryBudget budget) {
+        return new RetryPolicy(maxAttempts, initialNanos, maxNanos, retryOn,
+                Objects.requireNonNull(budget, "RetryPolicy::budget - budget is null"));
+    }
+
+    /**
+     * Вычисление с повторами в текущем потоке (поток ожидает паузы между попытками)
+     * @param supplyable вычисляемая функция
+     * @return результат вычисления
+     * @param <X> тип результата
+     * @throws Exception исключение последней попытки или {@link InterruptedException} при прерывании паузы
+     */
+    public <X> X call(@NonNull Supplyable<X> supplyable) throws Exception {
+        Objects.requireNonNull(supplyable, "RetryPolicy::call - supplyable is null");
+        deposit();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return supplyable.call();
+            } catch (Exception exception) {
+                long delay = retryDelay(attempt, exception, Deadline.current());
+                if (delay < 0L) {
+                    throw exception;
+                }
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Асинхронное вычисление с повторами: попытки исполняются на {@link Executor}, а паузы между ними
+     * отсчитываются общим планировщиком без занятия потоков. Текущий {@link Deadline} вызывающего потока
+     * устанавливается на время каждой попытки и ограничивает повторы так же, как в {@link #call(Supplyable)}
+     * @param supplyable вычисляемая функция
+     * @param executor исполнитель попыток
+     * @return {@link CompletableFuture} с результатом или исключением последней попытки
+     * @param <X> тип результата
+     */
+    public <X> @NonNull CompletableFuture<X> callAsync(@NonNull Supplyable<X> supplyable, @NonNull Executor executor) {
+        Objects.requireNonNull(supplyable, "RetryPolicy::callAsync - supplyable is null");
+        Objects.requireNonNull(executor, "RetryPolicy::callAsync - executor is null");
+        CompletableFuture<X> result = new CompletableFuture<>();
+        deposit();
+        submit(Deadline.wrap(() -> attempt(supplyable, executor, result, 1)), executor, result);
+        return result;
+    }
+
+    // Попытка уже обёрнута Deadline.wrap: попытка, до которой срок истёк, не исполняется, а завершает результат
+    private static void submit(Runnable attempt, Executor executor, CompletableFuture<?> result) {
+        try {
+            executor.execute(() -> {
+                try {
+                    attempt.run();
+                } catch (DeadlineExceededException expired) {
+                    result.completeExceptionally(expired);
+                }
+            });
+        } catch (RejectedExecutionException rejected) {
+            result.completeExceptionally(rejected);
+        }
+    }
+
+    private <X> void attempt(Supplyable<X> supplyable, Executor executor, CompletableFuture<X> result, int attempt) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            result.complete(supplyable.call());
+        } catch (Exception exception) {
+            long delay = retryDelay(attempt, exception, Deadline.current());
+            if (delay < 0L) {
+                result.completeExceptionally(exception);
+            } else {
+                // Срок захватывается здесь, в потоке попытки, где он установлен, а не в потоке планировщика
+                Runnable next = Deadline.wrap(() -> attempt(supplyable, executor, result, attempt + 1));
+                SharedScheduler.scheduler().schedule(() -> submit(next, executor, result), delay, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void deposit() {
+        if (budget != null) {
+            budget.deposit();
+        }
+    }
+
+    // Пауза перед повтором после неудачной попытки attempt или -1, если повтора не будет.
+    // Жетон бюджета берётся последним - только для повтора, который действительно состоится
+    private long retryDelay(int attempt, Exception exception, Deadline deadline) {
+        if (attempt >= maxAttempts || !retryOn.test(exception)) {
+            return -1L;
+        }
+        long delay = ThreadLocalRandom.current().nextLong(backoff(attempt) + 1L);
+        if (deadline != null && deadline.remaining().toNanos() <= delay || budget != null && !budget.tryWithdraw()) {
+            return -1L;
+        }
+        return delay;
+    }
+
+    /**
+     * Верхняя граница паузы перед повтором
+     * @param retry номер повтора, начиная с 1
+     * @return min(maxBackoff, initialBackoff * 2^(retry-1)) в наносекундах
+     */
+    long backoff(int retry) {
+        int shift = Math.min(retry - 1, Long.numberOfLeadingZeros(initialNanos) - 1);
+        return Math.min(maxNanos, initialNanos << shift);
+    }
+
+    private static boolean retryable(Exception exception) {
+        return !(exception instanceof InterruptedException
+                || exception instanceof CancellationException
+                || exception instanceof DeadlineExceededException);
+    }
+
+    /**
+     * Построение политики повторов
+     * @param maxAttempts максимальное число попыток, включая первую
+     * @param initialBackoff верхняя граница паузы перед первым повтором
+     * @param maxBackoff максимальная верхняя граница паузы
+     * @return политика повторов
+     */
+    public static @NonNull RetryPolicy retryPolicy(int maxAttempts, @NonNull Duration initialBackoff, @NonNull Duration maxBackoff) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("RetryPolicy::retryPolicy - maxAttempts has to be positive: " + maxAttempts);
+        }
+        long initialNanos = SharedScheduler.positiveNanos(initialBackoff, "RetryPolicy::retryPolicy - initialBackoff");
+        long maxNanos = SharedScheduler.positiveNanos(maxBackoff, "RetryPolicy::retryPolicy - maxBackoff");
+        if (maxNanos < initialNanos) {
+            throw new IllegalArgumentException("RetryPolicy::retryPolicy - maxBackoff has to be not less than initialBackoff: " + maxBackoff);
+        }
+        return new RetryPolicy(maxAttempts, initialNanos, maxNanos, RetryPolicy::retryable, null);
+    }
+
+}
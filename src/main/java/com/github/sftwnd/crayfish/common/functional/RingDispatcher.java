@@ -0,0 +1,280 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Диспетчер в стиле Disruptor: заранее выделенный кольцевой буфер, в котором производители занимают слоты через
+ * счётчик последовательности, а обработчики ({@link Consumable} или {@link BiConsumable} с признаком конца пачки)
+ * разбирают события в порядке зависимости: обработчик с номером i видит событие только после обработчика i-1.
+ * Каждый обработчик работает в своём потоке, передача события не требует ни блокировок, ни выделения памяти.
+ * @param <T> тип события
+ */
+public final class RingDispatcher<T> implements Consumable<T>, AutoCloseable {
+
+    private static final long INITIAL = -1L;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final Object[] entries;
+    private final AtomicIntegerArray available;
+    private final int mask;
+    private final int shift;
+    private final WaitStrategy waitStrategy;
+    private final AtomicLong claimed = new AtomicLong(INITIAL);
+    private final List<Stage> stages;
+    private final Stage gating;
+    private final BiConsumable<? super T, ? super Exception> onError;
+    private volatile boolean closed;
+
+    private RingDispatcher(int capacity, @NonNull WaitStrategy waitStrategy, @NonNull ThreadFactory threadFactory,
+                           @NonNull List<? extends BiConsumable<? super T, Boolean>> handlers,
+                           @NonNull BiConsumable<? super T, ? super Exception> onError) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("RingDispatcher - capacity has to be a positive power of 2: " + capacity);
+        }
+        Objects.requireNonNull(threadFactory, "RingDispatcher - threadFactory is null");
+        if (Objects.requireNonNull(handlers, "RingDispatcher - handlers is null").isEmpty()) {
+            throw new IllegalArgumentException("RingDispatcher - handlers is empty");
+        }
+        this.waitStrategy = Objects.requireNonNull(waitStrategy, "RingDispatcher - waitStrategy is null");
+        this.onError = Objects.requireNonNull(onError, "RingDispatcher - onError is null");
+        this.entries = new Object[capacity];
+        this.available = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            this.available.set(i, -1);
+        }
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfTrailingZeros(capacity);
+        this.stages = new ArrayList<>(handlers.size());
+        Stage previous = null;
+        for (BiConsumable<? super T, Boolean> handler : handlers) {
+            previous = new Stage(Objects.requireNonNull(handler, "RingDispatcher - handler is null"), previous);
+            this.stages.add(previous);
+        }
+        this.gating = previous;
+        for (Stage stage : stages) {
+            stage.thread = threadFactory.newThread(stage);
+            stage.thread.start();
+        }
+    }
+
+    /**
+     * Публикует событие в кольцевой буфер. Если буфер заполнен, ожидает освобождения слота последним обработчиком
+     * @param parameter публикуемое событие
+     */
+    @Override
+    public void process(T parameter) {
+        if (closed) {
+            throw new IllegalStateException("RingDispatcher::process - dispatcher is closed");
+        }
+        long sequence = claimed.incrementAndGet();
+        long wrapPoint = sequence - entries.length;
+        for (int counter = 0; gating.sequence.get() < wrapPoint; counter++) {
+            waitStrategy.idle(counter);
+        }
+        int index = (int) sequence & mask;
+        entries[index] = parameter;
+        available.set(index, (int) (sequence >>> shift));
+    }
+
+    /**
+     * Прекращает приём событий, дожидается обработки всех опубликованных событий всеми обработчиками
+     * и завершает их потоки. Вызывается после остановки производителей.
+     * При прерывании ожидания флаг прерывания потока восстанавливается
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            for (Stage stage : stages) {
+                stage.thread.join();
+            }
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Последовательность, опубликованная последним производителем
+     * @return номер последнего занятого слота (-1, если публикаций не было)
+     */
+    public long cursor() {
+        return claimed.get();
+    }
+
+    private boolean isAvailable(long sequence) {
+        return available.get((int) sequence & mask) == (int) (sequence >>> shift);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T entry(long sequence) {
+        return (T) entries[(int) sequence & mask];
+    }
+
+    private final class Stage implements Runnable {
+
+        private final BiConsumable<? super T, Boolean> handler;
+        private final Stage previous;
+        private final AtomicLong sequence = new AtomicLong(INITIAL);
+        private Thread thread;
+        private volatile boolean finished;
+
+        private Stage(BiConsumable<? super T, Boolean> handler, Stage previous) {
+            this.handler = handler;
+            this.previous = previous;
+        }
+
+        @Override
+        public void run() {
+            long next = INITIAL + 1;
+            int counter = 0;
+            while (true) {
+                long last = highestAvailable(next);
+                if (last < next) {
+                    if (closed && drained(next)) {
+                        finished = true;
+                        return;
+                    }
+                    waitStrategy.idle(counter++);
+                    continue;
+                }
+                counter = 0;
+                for (long current = next; current <= last; current++) {
+                    T event = entry(current);
+                    try {
+                        handler.process(event, current == last ? Boolean.TRUE : Boolean.FALSE);
+                    } catch (Exception exception) {
+                        try {
+                            onError.process(event, exception);
+                        } catch (Exception ignore) {
+                            // Ошибка обработчика ошибок не должна останавливать стадию
+                        }
+                    }
+                }
+                sequence.set(last);
+                next = last + 1;
+            }
+        }
+
+        private long highestAvailable(long next) {
+            if (previous != null) {
+                return previous.sequence.get();
+            }
+            long last = next - 1;
+            while (isAvailable(last + 1)) {
+                last++;
+            }
+            return last;
+        }
+
+        // Все занятые производителями (или предыдущей стадией) события уже обработаны этой стадией
+        private boolean drained(long next) {
+            return previous == null ? claimed.get() < next : previous.finished && previous.sequence.get() < next;
+        }
+
+    }
+
+    /**
+     * Стратегия ожидания обработчика (или производителя при заполненном буфере) на холостом цикле
+     */
+    @FunctionalInterface
+    public interface WaitStrategy {
+
+        /**
+         * Вызывается на очередной итерации ожидания
+         * @param counter номер итерации ожидания, начиная с 0
+         */
+        void idle(int counter);
+
+        /**
+         * Активное ожидание: минимальная задержка ценой полной загрузки ядра
+         * @return стратегия ожидания
+         */
+        static @NonNull WaitStrategy busySpin() {
+            return counter -> Thread.onSpinWait();
+        }
+
+        /**
+         * Активное ожидание в течение заданного числа итераций, затем {@link Thread#yield()}
+         * @return стратегия ожидания
+         */
+        static @NonNull WaitStrategy yielding() {
+            return counter -> {
+                if (counter < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            };
+        }
+
+        /**
+         * Активное ожидание, затем {@link Thread#yield()}, затем засыпание потока на заданное время
+         * @param parkTime время засыпания
+         * @return стратегия ожидания
+         */
+        static @NonNull WaitStrategy parking(@NonNull Duration parkTime) {
+            long nanos = Objects.requireNonNull(parkTime, "WaitStrategy::parking - parkTime is null").toNanos();
+            return counter -> {
+                if (counter < 100) {
+                    Thread.onSpinWait();
+                } else if (counter < 200) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(nanos);
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Построение диспетчера с цепочкой {@link Consumable} обработчиков, каждый из которых работает в своём потоке-демоне
+     * @param capacity размер кольцевого буфера (степень двойки)
+     * @param waitStrategy стратегия ожидания
+     * @param handlers обработчики в порядке зависимости
+     * @return запущенный диспетчер
+     * @param <T> тип события
+     */
+    @SafeVarargs
+    public static <T> @NonNull RingDispatcher<T> dispatcher(int capacity, @NonNull WaitStrategy waitStrategy, @NonNull Consumable<? super T>... handlers) {
+        List<BiConsumable<? super T, Boolean>> stages = new ArrayList<>(handlers.length);
+        for (Consumable<? super T> handler : Objects.requireNonNull(handlers, "RingDispatcher::dispatcher - handlers is null")) {
+            Objects.requireNonNull(handler, "RingDispatcher::dispatcher - handler is null");
+            stages.add((event, endOfBatch) -> handler.process(event));
+        }
+        return dispatcher(capacity, waitStrategy, RingDispatcher::daemon, stages, SerializedConsumable::uncaught);
+    }
+
+    /**
+     * Построение диспетчера с цепочкой {@link BiConsumable} обработчиков, получающих событие и признак конца пачки
+     * @param capacity размер кольцевого буфера (степень двойки)
+     * @param waitStrategy стратегия ожидания
+     * @param threadFactory фабрика потоков обработчиков
+     * @param handlers обработчики в порядке зависимости
+     * @param onError обработчик исключений, получающий событие и возникшее исключение
+     * @return запущенный диспетчер
+     * @param <T> тип события
+     */
+    public static <T> @NonNull RingDispatcher<T> dispatcher(int capacity, @NonNull WaitStrategy waitStrategy, @NonNull ThreadFactory threadFactory,
+                                                            @NonNull List<? extends BiConsumable<? super T, Boolean>> handlers,
+                                                            @NonNull BiConsumable<? super T, ? super Exception> onError) {
+        return new RingDispatcher<>(capacity, waitStrategy, threadFactory, handlers, onError);
+    }
+
+    private static Thread daemon(Runnable runnable) {
+        Thread thread = new Thread(runnable, "RingDispatcher-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+}
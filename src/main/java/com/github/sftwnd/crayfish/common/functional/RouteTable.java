@@ -0,0 +1,210 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Неизменяемая таблица маршрутов, компилируемая под тип ключей: для ключей одного перечисления - массив
+ * по ordinal, для плотного диапазона целых - массив со смещением, для остальных ключей (например, фиксированного
+ * набора строк) - совершенная хеш-таблица, для которой подбирается множитель без коллизий. Если множитель
+ * подобрать не удалось, используется {@link HashMap}.
+ * @param <V> тип маршрута
+ */
+abstract class RouteTable<V> {
+
+    // Во сколько раз диапазон целых ключей может превышать их число, чтобы таблица считалась плотной
+    private static final int DENSITY = 4;
+    private static final int MIN_DENSE_RANGE = 64;
+    // Число проверяемых множителей на каждый размер совершенной хеш-таблицы
+    private static final int SEED_ATTEMPTS = 256;
+
+    /**
+     * Поиск маршрута
+     * @param key ключ (может быть null)
+     * @return маршрут или null, если маршрут не задан
+     */
+    abstract @Nullable V get(@Nullable Object key);
+
+    /**
+     * Компиляция таблицы маршрутов
+     * @param routes маршруты по ключам
+     * @param name имя вызывающего метода для сообщения об ошибке
+     * @return таблица маршрутов
+     * @param <V> тип маршрута
+     */
+    static <V> @NonNull RouteTable<V> compile(@NonNull Map<?, ? extends V> routes, @NonNull String name) {
+        Objects.requireNonNull(routes, () -> name + " - routes is null");
+        routes.forEach((key, route) -> {
+            Objects.requireNonNull(key, () -> name + " - route key is null");
+            Objects.requireNonNull(route, () -> name + " - route is null for key: " + key);
+        });
+        RouteTable<V> table = enumTable(routes);
+        if (table == null) {
+            table = intTable(routes);
+        }
+        if (table == null) {
+            table = perfectHashTable(routes);
+        }
+        return table == null ? new HashTable<>(routes) : table;
+    }
+
+    private static <V> @Nullable RouteTable<V> enumTable(Map<?, ? extends V> routes) {
+        Class<?> type = null;
+        for (Object key : routes.keySet()) {
+            if (!(key instanceof Enum) || type != null && type != ((Enum<?>) key).getDeclaringClass()) {
+                return null;
+            }
+            type = ((Enum<?>) key).getDeclaringClass();
+        }
+        if (type == null) {
+            return null;
+        }
+        Object[] values = new Object[type.getEnumConstants().length];
+        routes.forEach((key, route) -> values[((Enum<?>) key).ordinal()] = route);
+        return new EnumTable<>(type, values);
+    }
+
+    private static <V> @Nullable RouteTable<V> intTable(Map<?, ? extends V> routes) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (Object key : routes.keySet()) {
+            if (!(key instanceof Integer)) {
+                return null;
+            }
+            min = Math.min(min, (Integer) key);
+            max = Math.max(max, (Integer) key);
+        }
+        if (routes.isEmpty() || max - min + 1 > Math.max(MIN_DENSE_RANGE, (long) DENSITY * routes.size())) {
+            return null;
+        }
+        int offset = (int) min;
+        Object[] values = new Object[(int) (max - min + 1)];
+        routes.forEach((key, route) -> values[(Integer) key - offset] = route);
+        return new IntTable<>(offset, values);
+    }
+
+    private static <V> @Nullable RouteTable<V> perfectHashTable(Map<?, ? extends V> routes) {
+        if (routes.isEmpty()) {
+            return null;
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(routes.size() - 1);
+        // Таблица не более чем в 8 раз больше числа ключей
+        for (int extra = 0; extra <= 3 && bits + extra <= 30; extra++) {
+            int shift = 32 - Math.max(1, bits + extra);
+            Object[] keys = new Object[1 << (32 - shift)];
+            for (int seed = 1; seed <= SEED_ATTEMPTS; seed++) {
+                int multiplier = PerfectHashTable.multiplier(seed);
+                if (place(routes, keys, multiplier, shift)) {
+                    Object[] values = new Object[keys.length];
+                    routes.forEach((key, route) -> values[PerfectHashTable.index(key, multiplier, shift)] = route);
+                    return new PerfectHashTable<>(keys, values, multiplier, shift);
+                }
+                Arrays.fill(keys, null);
+            }
+        }
+        return null;
+    }
+
+    private static boolean place(Map<?, ?> routes, Object[] keys, int multiplier, int shift) {
+        for (Object key : routes.keySet()) {
+            int index = PerfectHashTable.index(key, multiplier, shift);
+            if (keys[index] != null) {
+                return false;
+            }
+            keys[index] = key;
+        }
+        return true;
+    }
+
+    private static final class EnumTable<V> extends RouteTable<V> {
+        private final Class<?> type;
+        private final Object[] values;
+
+        private EnumTable(Class<?> type, Object[] values) {
+            this.type = type;
+            this.values = values;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V get(Object key) {
+            return key instanceof Enum && ((Enum<?>) key).getDeclaringClass() == type ? (V) values[((Enum<?>) key).ordinal()] : null;
+        }
+    }
+
+    private static final class IntTable<V> extends RouteTable<V> {
+        private final int offset;
+        private final Object[] values;
+
+        private IntTable(int offset, Object[] values) {
+            this.offset = offset;
+            this.values = values;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V get(Object key) {
+            if (key instanceof Integer) {
+                int index = (Integer) key - offset;
+                // Беззнаковое сравнение отсекает и отрицательные индексы
+                if (Integer.compareUnsigned(index, values.length) < 0) {
+                    return (V) values[index];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class PerfectHashTable<V> extends RouteTable<V> {
+        private final Object[] keys;
+        private final Object[] values;
+        private final int multiplier;
+        private final int shift;
+
+        private PerfectHashTable(Object[] keys, Object[] values, int multiplier, int shift) {
+            this.keys = keys;
+            this.values = values;
+            this.multiplier = multiplier;
+            this.shift = shift;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V get(Object key) {
+            if (key == null) {
+                return null;
+            }
+            int index = index(key, multiplier, shift);
+            return key.equals(keys[index]) ? (V) values[index] : null;
+        }
+
+        private static int multiplier(int seed) {
+            // Нечётные множители, порождаемые золотым сечением
+            return (seed * 0x9E3779B9) | 1;
+        }
+
+        private static int index(Object key, int multiplier, int shift) {
+            int hash = key.hashCode();
+            return ((hash ^ (hash >>> 16)) * multiplier) >>> shift;
+        }
+    }
+
+    private static final class HashTable<V> extends RouteTable<V> {
+        private final Map<Object, V> routes;
+
+        private HashTable(Map<?, ? extends V> routes) {
+            this.routes = new HashMap<>(routes);
+        }
+
+        @Override
+        V get(Object key) {
+            return key == null ? null : routes.get(key);
+        }
+    }
+
+}
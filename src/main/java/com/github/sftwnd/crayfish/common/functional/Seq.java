@@ -0,0 +1,266 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Ленивая последовательность элементов со стадиями на {@link Functional}, {@link Predicable} и {@link Consumable},
+ * которые могут бросать исключения. Операции только строят план, а терминальная операция (forEach, toList, reduce,
+ * count, anyMatch) исполняет все стадии одним циклом: каждый элемент проходит по цепочке вызовов от источника
+ * до терминала без промежуточных коллекций и объектов на элемент. Списки с {@link RandomAccess} перебираются
+ * по индексу без итератора. План можно исполнять многократно, источник перебирается заново.
+ * Для значений int, long и double есть примитивные полосы {@link IntSeq}, {@link LongSeq} и {@link DoubleSeq}.
+ * @param <T> тип элемента
+ */
+public final class Seq<T> {
+
+    // Приёмник элементов: false - дальнейшие элементы не нужны
+    @FunctionalInterface
+    interface Sink<T> {
+        boolean accept(T value) throws Exception;
+    }
+
+    // Источник элементов: false - перебор остановлен приёмником
+    @FunctionalInterface
+    interface Driver<T> {
+        boolean drive(Sink<? super T> sink) throws Exception;
+    }
+
+    private static final Seq<Object> EMPTY = new Seq<>(sink -> true);
+
+    private final Driver<T> driver;
+
+    Seq(@NonNull Driver<T> driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Преобразование элементов
+     * @param functional функция преобразования
+     * @return последовательность результатов
+     * @param <R> тип результата
+     */
+    public <R> @NonNull Seq<R> map(@NonNull Functional<? super T, ? extends R> functional) {
+        Objects.requireNonNull(functional, "Seq::map - functional is null");
+        return new Seq<>(sink -> driver.drive(value -> sink.accept(functional.execute(value))));
+    }
+
+    /**
+     * Отбор элементов
+     * @param predicable условие отбора
+     * @return последовательность отобранных элементов
+     */
+    public @NonNull Seq<T> filter(@NonNull Predicable<? super T> predicable) {
+        Objects.requireNonNull(predicable, "Seq::filter - predicable is null");
+        return new Seq<>(sink -> driver.drive(value -> !predicable.verify(value) || sink.accept(value)));
+    }
+
+    /**
+     * Замена каждого элемента последовательностью
+     * @param functional функция построения последовательности по элементу (null - пустая последовательность)
+     * @return объединение построенных последовательностей
+     * @param <R> тип элемента результата
+     */
+    public <R> @NonNull Seq<R> flatMap(@NonNull Functional<? super T, ? extends Seq<? extends R>> functional) {
+        Objects.requireNonNull(functional, "Seq::flatMap - functional is null");
+        return new Seq<>(sink -> driver.drive(value -> drive(functional.execute(value), sink)));
+    }
+
+    /**
+     * Ограничение числа элементов
+     * @param limit максимальное число элементов
+     * @return последовательность не более чем из limit первых элементов
+     */
+    public @NonNull Seq<T> take(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Seq::take - limit has to be not negative: " + limit);
+        }
+        return new Seq<>(sink -> {
+            if (limit == 0) {
+                return true;
+            }
+            long[] remaining = { limit };
+            return driver.drive(value -> sink.accept(value) && --remaining[0] > 0) || remaining[0] == 0;
+        });
+    }
+
+    /**
+     * Исполнение действия над каждым элементом при его прохождении через стадию
+     * @param consumable действие
+     * @return последовательность тех же элементов
+     */
+    public @NonNull Seq<T> peek(@NonNull Consumable<? super T> consumable) {
+        Objects.requireNonNull(consumable, "Seq::peek - consumable is null");
+        return new Seq<>(sink -> driver.drive(value -> {
+            consumable.process(value);
+            return sink.accept(value);
+        }));
+    }
+
+    /**
+     * Преобразование в последовательность int
+     * @param mapper функция получения значения
+     * @return последовательность значений
+     */
+    public @NonNull IntSeq mapToInt(@NonNull IntSeq.Mapper<? super T> mapper) {
+        Objects.requireNonNull(mapper, "Seq::mapToInt - mapper is null");
+        return new IntSeq(sink -> driver.drive(value -> sink.accept(mapper.execute(value))));
+    }
+
+    /**
+     * Преобразование в последовательность long
+     * @param mapper функция получения значения
+     * @return последовательность значений
+     */
+    public @NonNull LongSeq mapToLong(@NonNull LongSeq.Mapper<? super T> mapper) {
+        Objects.requireNonNull(mapper, "Seq::mapToLong - mapper is null");
+        return new LongSeq(sink -> driver.drive(value -> sink.accept(mapper.execute(value))));
+    }
+
+    /**
+     * Преобразование в последовательность double
+     * @param mapper функция получения значения
+     * @return последовательность значений
+     */
+    public @NonNull DoubleSeq mapToDouble(@NonNull DoubleSeq.Mapper<? super T> mapper) {
+        Objects.requireNonNull(mapper, "Seq::mapToDouble - mapper is null");
+        return new DoubleSeq(sink -> driver.drive(value -> sink.accept(mapper.execute(value))));
+    }
+
+    /**
+     * Исполнение {@link Consumable} для каждого элемента
+     * @param consumable действие
+     * @throws Exception исключение стадий или действия
+     */
+    public void forEach(@NonNull Consumable<? super T> consumable) throws Exception {
+        Objects.requireNonNull(consumable, "Seq::forEach - consumable is null");
+        driver.drive(value -> {
+            consumable.process(value);
+            return true;
+        });
+    }
+
+    /**
+     * Сбор элементов в список
+     * @return изменяемый список элементов
+     * @throws Exception исключение стадий
+     */
+    public @NonNull List<T> toList() throws Exception {
+        List<T> list = new ArrayList<>();
+        driver.drive(list::add);
+        return list;
+    }
+
+    /**
+     * Свёртка элементов
+     * @param identity начальное значение
+     * @param bifunctional функция свёртки накопленного значения с элементом
+     * @return результат свёртки
+     * @param <R> тип результата
+     * @throws Exception исключение стадий или функции свёртки
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R reduce(@Nullable R identity, @NonNull BiFunctional<? super R, ? super T, ? extends R> bifunctional) throws Exception {
+        Objects.requireNonNull(bifunctional, "Seq::reduce - bifunctional is null");
+        Object[] result = { identity };
+        driver.drive(value -> {
+            result[0] = bifunctional.execute((R) result[0], value);
+            return true;
+        });
+        return (R) result[0];
+    }
+
+    /**
+     * Количество элементов
+     * @return число элементов
+     * @throws Exception исключение стадий
+     */
+    public long count() throws Exception {
+        long[] count = { 0L };
+        driver.drive(value -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    /**
+     * Проверка наличия элемента, удовлетворяющего условию. Перебор останавливается на первом таком элементе
+     * @param predicable условие
+     * @return true, если такой элемент есть
+     * @throws Exception исключение стадий или условия
+     */
+    public boolean anyMatch(@NonNull Predicable<? super T> predicable) throws Exception {
+        Objects.requireNonNull(predicable, "Seq::anyMatch - predicable is null");
+        return !driver.drive(value -> !predicable.verify(value));
+    }
+
+    private static <X> boolean drive(@Nullable Seq<X> seq, @NonNull Sink<? super X> sink) throws Exception {
+        return seq == null || seq.driver.drive(sink);
+    }
+
+    /**
+     * Построение последовательности из {@link Iterable}
+     * @param iterable источник элементов
+     * @return последовательность
+     * @param <T> тип элемента
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @NonNull Seq<T> seq(@NonNull Iterable<? extends T> iterable) {
+        Objects.requireNonNull(iterable, "Seq::seq - iterable is null");
+        if (iterable instanceof List && iterable instanceof RandomAccess) {
+            List<? extends T> list = (List<? extends T>) iterable;
+            return new Seq<>(sink -> {
+                for (int i = 0, size = list.size(); i < size; i++) {
+                    if (!sink.accept(list.get(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+        }
+        return new Seq<>(sink -> {
+            for (T value : iterable) {
+                if (!sink.accept(value)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Построение последовательности из массива (массив не копируется)
+     * @param values элементы
+     * @return последовательность
+     * @param <T> тип элемента
+     */
+    @SafeVarargs
+    public static <T> @NonNull Seq<T> of(@NonNull T... values) {
+        Objects.requireNonNull(values, "Seq::of - values is null");
+        return new Seq<>(sink -> {
+            for (T value : values) {
+                if (!sink.accept(value)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Пустая последовательность
+     * @return последовательность без элементов
+     * @param <T> тип элемента
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @NonNull Seq<T> empty() {
+        return (Seq<T>) EMPTY;
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Потокобезопасная обёртка над {@link Consumable} в стиле актора: вызовы process только складывают параметр
+ * в lock-free почтовый ящик (multi-producer/single-consumer очередь), а обработка идёт задачей на {@link Executor}.
+ * В каждый момент времени выполняется не более одной задачи разбора, которая за один запуск обрабатывает
+ * до {@link #BATCH_SIZE} сообщений, так что исходный {@link Consumable} может не быть потокобезопасным.
+ * @param <T> тип параметра
+ */
+final class SerializedConsumable<T> implements Consumable<T>, Runnable {
+
+    /**
+     * Максимальное число сообщений, обрабатываемых за один запуск задачи на {@link Executor}
+     */
+    static final int BATCH_SIZE = 256;
+
+    private final Consumable<? super T> consumable;
+    private final Executor executor;
+    private final BiConsumable<? super T, ? super Exception> onError;
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    // Сторона производителей: последний добавленный узел
+    private final AtomicReference<Node<T>> head;
+    // Сторона потребителя: узел, предшествующий первому необработанному (читается только задачей разбора)
+    private Node<T> tail;
+
+    SerializedConsumable(@NonNull Consumable<? super T> consumable, @NonNull Executor executor,
+                         @NonNull BiConsumable<? super T, ? super Exception> onError) {
+        this.consumable = Objects.requireNonNull(consumable, "SerializedConsumable - consumable is null");
+        this.executor = Objects.requireNonNull(executor, "SerializedConsumable - executor is null");
+        this.onError = Objects.requireNonNull(onError, "SerializedConsumable - onError is null");
+        this.tail = new Node<>(null);
+        this.head = new AtomicReference<>(this.tail);
+    }
+
+    /**
+     * Помещает параметр в почтовый ящик и, если задача разбора не запущена, планирует её на {@link Executor}
+     * @param parameter параметр метода
+     */
+    @Override
+    public void process(T parameter) {
+        Node<T> node = new Node<>(parameter);
+        head.getAndSet(node).next = node;
+        schedule();
+    }
+
+    /**
+     * Задача разбора почтового ящика. Не предназначена для прямого вызова.
+     */
+    @Override
+    public void run() {
+        for (int processed = 0; processed < BATCH_SIZE; ) {
+            Node<T> next = tail.next;
+            if (next != null) {
+                T parameter = next.value;
+                next.value = null;
+                tail = next;
+                processed++;
+                deliver(parameter);
+            } else if (head.get() == tail) {
+                scheduled.set(false);
+                // Производитель мог добавить сообщение между проверкой очереди и сбросом флага
+                if (head.get() == tail || !scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            } else {
+                // Производитель уже занял место в очереди, но ещё не связал узел
+                Thread.onSpinWait();
+            }
+        }
+        // Пачка обработана, а сообщения ещё есть: уступаем поток executor-а, сохраняя флаг запуска
+        resubmit();
+    }
+
+    /**
+     * Признак отсутствия необработанных сообщений
+     * @return true, если почтовый ящик пуст
+     */
+    boolean isEmpty() {
+        return head.get() == tail;
+    }
+
+    private void deliver(T parameter) {
+        try {
+            consumable.process(parameter);
+        } catch (Exception exception) {
+            try {
+                onError.process(parameter, exception);
+            } catch (Exception ignore) {
+                // Ошибка в обработчике ошибок не должна останавливать разбор почтового ящика
+            }
+        }
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            resubmit();
+        }
+    }
+
+    private void resubmit() {
+        try {
+            executor.execute(this);
+        } catch (RejectedExecutionException rejected) {
+            // Сообщения остаются в ящике и будут разобраны при следующем успешном планировании
+            scheduled.set(false);
+            throw rejected;
+        }
+    }
+
+    /**
+     * Обработчик по умолчанию: передаёт исключение в {@link Thread.UncaughtExceptionHandler} текущего потока
+     * @param parameter параметр, на котором произошла ошибка
+     * @param exception исключение
+     * @param <T> тип параметра
+     */
+    static <T> void uncaught(T parameter, Exception exception) {
+        uncaught(exception);
+    }
+
+    /**
+     * Обработчик по умолчанию: передаёт исключение в {@link Thread.UncaughtExceptionHandler} текущего потока
+     * @param exception исключение
+     */
+    static void uncaught(Exception exception) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+    }
+
+    private static final class Node<T> {
+        private T value;
+        private volatile Node<T> next;
+        private Node(T value) {
+            this.value = value;
+        }
+    }
+
+}
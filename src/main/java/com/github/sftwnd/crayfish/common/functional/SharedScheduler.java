@@ -0,0 +1,55 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Общий для всех декораторов с отложенным исполнением планировщик: один поток-демон, создаваемый при первом обращении.
+ * Задачи на нём должны быть короткими, так как выполняются последовательно.
+ */
+final class SharedScheduler {
+
+    private SharedScheduler() {
+    }
+
+    /**
+     * Общий планировщик
+     * @return {@link ScheduledExecutorService} с одним потоком-демоном
+     */
+    static @NonNull ScheduledExecutorService scheduler() {
+        return Holder.SCHEDULER;
+    }
+
+    /**
+     * Проверка и перевод интервала в наносекунды
+     * @param duration интервал
+     * @param name имя проверяемого параметра для сообщения об ошибке
+     * @return длительность интервала в наносекундах
+     */
+    static long positiveNanos(@NonNull Duration duration, @NonNull String name) {
+        Objects.requireNonNull(duration, () -> name + " is null");
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(name + " has to be positive: " + duration);
+        }
+        return duration.toNanos();
+    }
+
+    private static final class Holder {
+        private static final ScheduledExecutorService SCHEDULER = create();
+
+        private static ScheduledExecutorService create() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "crayfish-functional-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * {@link BiFunctional} с подготовкой по первому параметру: при связывании первого параметра однократно исполняется
+ * шаг подготовки (компиляция шаблона, построение таблицы и т.п.), возвращающий специализированную функцию от второго
+ * параметра. Подготовленные функции кешируются по значению первого параметра, поэтому и {@link #left(Object)},
+ * и вызов {@link #execute(Object, Object)} повторно не готовят функцию для уже встречавшегося значения.
+ * Поведение кеша при одновременных промахах и превышении размера описано в {@link StagedCache}.
+ * @param <T> тип первого (подготавливаемого) параметра
+ * @param <U> тип второго параметра
+ * @param <R> тип результата
+ */
+public final class StagedBiFunctional<T, U, R> implements BiFunctional<T, U, R> {
+
+    private final StagedCache<T, Functional<? super U, ? extends R>> prepared;
+
+    private StagedBiFunctional(@NonNull Functional<? super T, ? extends Functional<? super U, ? extends R>> stage, int maximumSize) {
+        this.prepared = new StagedCache<>(stage, maximumSize, "StagedBiFunctional");
+    }
+
+    /**
+     * Применяет подготовленную по первому параметру функцию ко второму параметру
+     * @param left первый параметр функции
+     * @param right второй параметр функции
+     * @return результат применения функции
+     * @throws Exception исключение подготовки или исполнения
+     */
+    @Override
+    public R execute(T left, U right) throws Exception {
+        return prepared.prepare(left).execute(right);
+    }
+
+    /**
+     * Подготовленная функция от второго параметра
+     * @param left фиксируемое значение первого параметра
+     * @return специализированный {@link Functional}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public @NonNull Functional<U, R> left(T left) {
+        // Функция от ? super U с результатом ? extends R безопасно используется как Functional<U, R>
+        return (Functional<U, R>) prepared.prepare(left);
+    }
+
+    /**
+     * Число закешированных подготовленных функций
+     * @return размер кеша
+     */
+    public int size() {
+        return prepared.size();
+    }
+
+    /**
+     * Очистка кеша подготовленных функций
+     */
+    public void clear() {
+        prepared.clear();
+    }
+
+    /**
+     * Построение функции с неограниченным кешем подготовленных функций
+     * @param stage подготовка: по первому параметру строит функцию от второго
+     * @return {@link StagedBiFunctional}
+     * @param <T> тип первого параметра
+     * @param <U> тип второго параметра
+     * @param <R> тип результата
+     */
+    public static <T, U, R> @NonNull StagedBiFunctional<T, U, R> staged(@NonNull Functional<? super T, ? extends Functional<? super U, ? extends R>> stage) {
+        return staged(stage, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Построение функции с ограниченным кешем подготовленных функций
+     * @param stage подготовка: по первому параметру строит функцию от второго
+     * @param maximumSize максимальное число подготовленных функций в кеше
+     * @return {@link StagedBiFunctional}
+     * @param <T> тип первого параметра
+     * @param <U> тип второго параметра
+     * @param <R> тип результата
+     */
+    public static <T, U, R> @NonNull StagedBiFunctional<T, U, R> staged(@NonNull Functional<? super T, ? extends Functional<? super U, ? extends R>> stage,
+                                                                        int maximumSize) {
+        return new StagedBiFunctional<>(stage, maximumSize);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кеш подготовленных по первому параметру функций для {@link StagedBiFunctional} и {@link StagedTreFunctional}.
+ * Подготовка исполняется вне {@link ConcurrentHashMap}, поэтому одновременные промахи по одному значению могут
+ * исполнить её несколько раз, в кеше остаётся первый результат. При превышении заданного размера кеш намеренно
+ * очищается целиком, и все значения подготавливаются заново: ограничение защищает от неограниченного роста
+ * при большом числе значений, а не вытесняет редкие записи. Для первого параметра null подготовка не кешируется.
+ * @param <T> тип первого (подготавливаемого) параметра
+ * @param <P> тип подготовленной функции
+ */
+final class StagedCache<T, P> {
+
+    private final Functional<? super T, ? extends P> stage;
+    private final ConcurrentHashMap<T, P> prepared = new ConcurrentHashMap<>();
+    private final int maximumSize;
+    private final String name;
+
+    /**
+     * Построение кеша
+     * @param stage подготовка функции по первому параметру
+     * @param maximumSize максимальное число подготовленных функций в кеше
+     * @param name имя использующего кеш класса для сообщений об ошибках
+     */
+    StagedCache(@NonNull Functional<? super T, ? extends P> stage, int maximumSize, @NonNull String name) {
+        this.name = Objects.requireNonNull(name, "StagedCache - name is null");
+        this.stage = Objects.requireNonNull(stage, () -> name + " - stage is null");
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(name + " - maximumSize has to be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Подготовленная функция для значения первого параметра
+     * @param left значение первого параметра
+     * @return функция из кеша или только что подготовленная
+     */
+    @NonNull P prepare(T left) {
+        if (left == null) {
+            return prepared(stage.apply(null));
+        }
+        P result = prepared.get(left);
+        if (result == null) {
+            // Подготовка исполняется вне ConcurrentHashMap, чтобы не держать блокировку корзины таблицы и допускать
+            // повторный вход в ту же функцию. Исключение пробрасывается через Functional::apply и не кешируется
+            result = prepared(stage.apply(left));
+            if (prepared.size() >= maximumSize) {
+                prepared.clear();
+            }
+            P existing = prepared.putIfAbsent(left, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Число закешированных подготовленных функций
+     * @return размер кеша
+     */
+    int size() {
+        return prepared.size();
+    }
+
+    /**
+     * Очистка кеша подготовленных функций
+     */
+    void clear() {
+        prepared.clear();
+    }
+
+    private P prepared(P functional) {
+        return Objects.requireNonNull(functional, () -> name + "::left - stage result is null");
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * {@link TreFunctional} с подготовкой по первому параметру: при связывании первого параметра однократно исполняется
+ * шаг подготовки, возвращающий специализированную функцию от двух оставшихся параметров. Подготовленные функции
+ * кешируются по значению первого параметра в {@link StagedCache} аналогично {@link StagedBiFunctional}.
+ * @param <T> тип первого (подготавливаемого) параметра
+ * @param <U> тип второго параметра
+ * @param <V> тип третьего параметра
+ * @param <R> тип результата
+ */
+public final class StagedTreFunctional<T, U, V, R> implements TreFunctional<T, U, V, R> {
+
+    private final StagedCache<T, BiFunctional<? super U, ? super V, ? extends R>> prepared;
+
+    private StagedTreFunctional(@NonNull Functional<? super T, ? extends BiFunctional<? super U, ? super V, ? extends R>> stage, int maximumSize) {
+        this.prepared = new StagedCache<>(stage, maximumSize, "StagedTreFunctional");
+    }
+
+    /**
+     * Применяет подготовленную по первому параметру функцию к остальным параметрам
+     * @param left первый параметр функции
+     * @param middle второй параметр функции
+     * @param right третий параметр функции
+     * @return результат применения функции
+     * @throws Exception исключение подготовки или исполнения
+     */
+    @Override
+    public R execute(T left, U middle, V right) throws Exception {
+        return prepared.prepare(left).execute(middle, right);
+    }
+
+    /**
+     * Подготовленная функция от второго и третьего параметров
+     * @param left фиксируемое значение первого параметра
+     * @return специализированный {@link BiFunctional}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public @NonNull BiFunctional<U, V, R> left(T left) {
+        // Функция от ? super U, ? super V с результатом ? extends R безопасно используется как BiFunctional<U, V, R>
+        return (BiFunctional<U, V, R>) prepared.prepare(left);
+    }
+
+    /**
+     * Число закешированных подготовленных функций
+     * @return размер кеша
+     */
+    public int size() {
+        return prepared.size();
+    }
+
+    /**
+     * Очистка кеша подготовленных функций
+     */
+    public void clear() {
+        prepared.clear();
+    }
+
+    /**
+     * Построение функции с неограниченным кешем подготовленных функций
+     * @param stage подготовка: по первому параметру строит функцию от двух оставшихся
+     * @return {@link StagedTreFunctional}
+     * @param <T> тип первого параметра
+     * @param <U> тип второго параметра
+     * @param <V> тип третьего параметра
+     * @param <R> тип результата
+     */
+    public static <T, U, V, R> @NonNull StagedTreFunctional<T, U, V, R> staged(
+            @NonNull Functional<? super T, ? extends BiFunctional<? super U, ? super V, ? extends R>> stage) {
+        return staged(stage, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Построение функции с ограниченным кешем подготовленных функций
+     * @param stage подготовка: по первому параметру строит функцию от двух оставшихся
+     * @param maximumSize максимальное число подготовленных функций в кеше
+     * @return {@link StagedTreFunctional}
+     * @param <T> тип первого параметра
+     * @param <U> тип второго параметра
+     * @param <V> тип третьего параметра
+     * @param <R> тип результата
+     */
+    public static <T, U, V, R> @NonNull StagedTreFunctional<T, U, V, R> staged(
+            @NonNull Functional<? super T, ? extends BiFunctional<? super U, ? super V, ? extends R>> stage, int maximumSize) {
+        return new StagedTreFunctional<>(stage, maximumSize);
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накопитель слагаемых по ключу с низкой конкуренцией (по аналогии с {@link java.util.concurrent.atomic.LongAdder}):
+ * вклад потока попадает в ячейку его полосы (полоса выбирается по идентификатору потока, число полос - степень двойки
+ * не меньше числа процессоров), ячейки выровнены padding-ом против false sharing. Накопленные суммы по ключам
+ * сбрасываются в нижестоящий {@link BiConsumable} по требованию ({@link #flush()}) или периодически ({@link #flushEvery(Duration)}).
+ * Ячейки ключей не удаляются, поэтому накопитель рассчитан на ограниченное множество ключей.
+ * @param <K> тип ключа
+ */
+public final class StripedAccumulator<K> implements BiConsumable<K, Long> {
+
+    private final BiConsumable<? super K, ? super Long> downstream;
+    private final ConcurrentHashMap<K, Stripes.Cell>[] stripes;
+    private final int mask;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private StripedAccumulator(@NonNull BiConsumable<? super K, ? super Long> downstream, int stripes) {
+        this.downstream = Objects.requireNonNull(downstream, "StripedAccumulator - downstream is null");
+        int size = Stripes.size(stripes);
+        this.stripes = new ConcurrentHashMap[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Добавляет вклад к накопленной сумме ключа
+     * @param key ключ (не null)
+     * @param value вклад (не null)
+     */
+    @Override
+    public void process(@NonNull K key, @NonNull Long value) {
+        add(key, value);
+    }
+
+    /**
+     * Добавляет вклад к накопленной сумме ключа без упаковки значения
+     * @param key ключ (не null)
+     * @param value вклад
+     */
+    public void add(@NonNull K key, long value) {
+        Objects.requireNonNull(key, "StripedAccumulator::add - key is null");
+        ConcurrentHashMap<K, Stripes.Cell> stripe = stripes[Stripes.index(mask)];
+        Stripes.Cell cell = stripe.get(key);
+        if (cell == null) {
+            cell = stripe.computeIfAbsent(key, ignore -> new Stripes.Cell());
+        }
+        cell.add(value);
+    }
+
+    /**
+     * Создаёт {@link Consumable}, считающий количество вызовов по ключу
+     * @return счётчик вызовов
+     */
+    public @NonNull Consumable<K> counting() {
+        return key -> add(key, 1L);
+    }
+
+    /**
+     * Текущая накопленная и ещё не сброшенная сумма ключа
+     * @param key ключ
+     * @return сумма по всем полосам
+     */
+    public long sum(@NonNull K key) {
+        Objects.requireNonNull(key, "StripedAccumulator::sum - key is null");
+        long sum = 0L;
+        for (ConcurrentHashMap<K, Stripes.Cell> stripe : stripes) {
+            Stripes.Cell cell = stripe.get(key);
+            if (cell != null) {
+                sum += cell.value;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Забирает накопленные суммы из всех полос и передаёт ненулевые суммы по ключам в нижестоящий {@link BiConsumable}.
+     * Вклады, добавленные во время сброса, попадут в этот или следующий сброс, но не теряются.
+     * @throws Exception исключение нижестоящего {@link BiConsumable}
+     */
+    public void flush() throws Exception {
+        Map<K, long[]> sums = new HashMap<>();
+        for (ConcurrentHashMap<K, Stripes.Cell> stripe : stripes) {
+            for (Map.Entry<K, Stripes.Cell> entry : stripe.entrySet()) {
+                long value = entry.getValue().reset();
+                if (value != 0L) {
+                    sums.computeIfAbsent(entry.getKey(), ignore -> new long[1])[0] += value;
+                }
+            }
+        }
+        for (Map.Entry<K, long[]> entry : sums.entrySet()) {
+            downstream.process(entry.getKey(), entry.getValue()[0]);
+        }
+    }
+
+    /**
+     * Планирует периодический {@link #flush()} на общем планировщике.
+     * Исключения передаются в {@link Thread.UncaughtExceptionHandler} потока планировщика.
+     * @param period период сброса
+     * @return {@link ScheduledFuture} для отмены периодического сброса
+     */
+    public @NonNull ScheduledFuture<?> flushEvery(@NonNull Duration period) {
+        long nanos = SharedScheduler.positiveNanos(period, "StripedAccumulator::flushEvery - period");
+        return SharedScheduler.scheduler().scheduleAtFixedRate(() -> {
+            try {
+                flush();
+            } catch (Exception exception) {
+                SerializedConsumable.uncaught(exception);
+            }
+        }, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Построение накопителя с числом полос по числу процессоров
+     * @param downstream получатель накопленных сумм по ключам
+     * @return накопитель
+     * @param <K> тип ключа
+     */
+    public static <K> @NonNull StripedAccumulator<K> accumulator(@NonNull BiConsumable<? super K, ? super Long> downstream) {
+        return accumulator(downstream, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Построение накопителя с заданным числом полос (округляется вверх до степени двойки)
+     * @param downstream получатель накопленных сумм по ключам
+     * @param stripes число полос
+     * @return накопитель
+     * @param <K> тип ключа
+     */
+    public static <K> @NonNull StripedAccumulator<K> accumulator(@NonNull BiConsumable<? super K, ? super Long> downstream, int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("StripedAccumulator::accumulator - stripes has to be positive: " + stripes);
+        }
+        return new StripedAccumulator<>(downstream, stripes);
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Общие средства полосных счётчиков ({@link StripedAccumulator}, {@link Bulkhead}): число полос - степень двойки,
+ * полоса выбирается по идентификатору потока, а счётчик полосы хранится в ячейке, выровненной padding-ом
+ * против false sharing.
+ */
+final class Stripes {
+
+    private Stripes() {
+    }
+
+    /**
+     * Число полос: заданное число, округлённое вверх до степени двойки
+     * @param stripes желаемое число полос (положительное)
+     * @return число полос
+     */
+    static int size(int stripes) {
+        return stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    }
+
+    /**
+     * Полоса текущего потока
+     * @param mask число полос минус один
+     * @return индекс полосы
+     */
+    static int index(int mask) {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Построение ячеек полос
+     * @param size число полос
+     * @return массив новых ячеек
+     */
+    static @NonNull Cell[] cells(int size) {
+        Cell[] cells = new Cell[size];
+        for (int i = 0; i < size; i++) {
+            cells[i] = new Cell();
+        }
+        return cells;
+    }
+
+    // Выравнивание ячейки: поле value отделено от соседних объектов не менее чем 64 байтами с каждой стороны
+    @SuppressWarnings("unused")
+    abstract static class CellLeftPadding {
+        long p1, p2, p3, p4, p5, p6, p7; //NOSONAR padding
+    }
+
+    abstract static class CellValue extends CellLeftPadding {
+        private static final AtomicLongFieldUpdater<CellValue> VALUE = AtomicLongFieldUpdater.newUpdater(CellValue.class, "value");
+        volatile long value;
+
+        void add(long delta) {
+            VALUE.getAndAdd(this, delta);
+        }
+
+        long reset() {
+            return VALUE.getAndSet(this, 0L);
+        }
+
+        // Увеличение на единицу, если значение меньше limit
+        boolean tryIncrement(long limit) {
+            for (long current = value; current < limit; current = value) {
+                if (VALUE.compareAndSet(this, current, current + 1L)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Выровненная ячейка счётчика полосы
+     */
+    @SuppressWarnings("unused")
+    static final class Cell extends CellValue {
+        long q1, q2, q3, q4, q5, q6, q7; //NOSONAR padding
+    }
+
+}
@@ -6,6 +6,7 @@ import lombok.SneakyThrows;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import static com.github.sftwnd.crayfish.common.functional.With.with;
@@ -73,7 +74,7 @@ public interface Supplyable<T> extends Supplier<T>, Callable<T> {
      */
     default <S> @NonNull Supplyable<S> furtherApply(@NonNull Functional<? super T, ? extends S> functional) {
         Objects.requireNonNull(functional, "Functional::furtherApply - functional is null");
-        return () -> functional.apply(this.get());
+        return () -> with(this).transform(functional);
     }
 
     /**
@@ -85,6 +86,102 @@ public interface Supplyable<T> extends Supplier<T>, Callable<T> {
         return () -> with(this).primarily(processable);
     }
 
+    /**
+     * Создаёт {@link Supplyable}, который перед вычислением проверяет текущий {@link Deadline} потока
+     * и при его истечении отказывает заранее созданным {@link DeadlineExceededException}
+     * @return {@link Supplyable} с проверкой срока исполнения
+     */
+    default @NonNull Supplyable<T> deadlined() {
+        return () -> {
+            Deadline.check();
+            return call();
+        };
+    }
+
+    /**
+     * Создаёт {@link Supplyable}, число одновременных вызовов которого ограничено {@link AdaptiveLimit}
+     * @param adaptiveLimit адаптивное ограничение (может использоваться несколькими вызовами одного исполнителя)
+     * @return {@link Supplyable} с ограничением числа одновременных вызовов
+     */
+    default @NonNull Supplyable<T> limited(@NonNull AdaptiveLimit adaptiveLimit) {
+        Objects.requireNonNull(adaptiveLimit, "Supplyable::limited - adaptiveLimit is null");
+        return () -> adaptiveLimit.call(this);
+    }
+
+    /**
+     * Создаёт {@link Supplyable} с ограничением частоты вызовов: вызовы сверх частоты сразу отклоняются
+     * @param permitsPerSecond число вызовов в секунду
+     * @param burst число вызовов, которые можно выполнить подряд после простоя
+     * @return {@link Supplyable} с ограничением частоты
+     */
+    default @NonNull Supplyable<T> rateLimited(double permitsPerSecond, int burst) {
+        return rateLimited(RateLimit.rateLimit(permitsPerSecond, burst));
+    }
+
+    /**
+     * Создаёт {@link Supplyable} с ограничением частоты вызовов, общим с другими вызовами
+     * @param rateLimit ограничение частоты
+     * @return {@link Supplyable} с ограничением частоты
+     */
+    default @NonNull Supplyable<T> rateLimited(@NonNull RateLimit rateLimit) {
+        Objects.requireNonNull(rateLimit, "Supplyable::rateLimited - rateLimit is null");
+        return () -> rateLimit.call(this);
+    }
+
+    /**
+     * Создаёт {@link Supplyable} с ограничением числа одновременных вызовов: вызовы сверх ограничения сразу отклоняются
+     * @param maxConcurrent максимальное число одновременных вызовов
+     * @return {@link Supplyable} с ограничением числа одновременных вызовов
+     */
+    default @NonNull Supplyable<T> bulkhead(int maxConcurrent) {
+        return bulkhead(Bulkhead.bulkhead(maxConcurrent));
+    }
+
+    /**
+     * Создаёт {@link Supplyable} с ограничением числа одновременных вызовов, общим с другими вызовами
+     * @param bulkhead ограничение числа одновременных вызовов
+     * @return {@link Supplyable} с ограничением числа одновременных вызовов
+     */
+    default @NonNull Supplyable<T> bulkhead(@NonNull Bulkhead bulkhead) {
+        Objects.requireNonNull(bulkhead, "Supplyable::bulkhead - bulkhead is null");
+        return () -> bulkhead.call(this);
+    }
+
+    /**
+     * Создаёт {@link Supplyable}, повторяющий неудачные вызовы по {@link RetryPolicy}. Паузы между попытками
+     * ожидаются в вызывающем потоке
+     * @param retryPolicy политика повторов
+     * @return {@link Supplyable} с повторами
+     */
+    default @NonNull Supplyable<T> retrying(@NonNull RetryPolicy retryPolicy) {
+        Objects.requireNonNull(retryPolicy, "Supplyable::retrying - retryPolicy is null");
+        return () -> retryPolicy.call(this);
+    }
+
+    /**
+     * Создаёт {@link Supplyable}, запускающий вызов с повторами по {@link RetryPolicy} на {@link Executor}: паузы между попытками
+     * отсчитываются общим планировщиком без занятия потоков
+     * @param retryPolicy политика повторов
+     * @param executor исполнитель попыток
+     * @return {@link Supplyable} с {@link CompletableFuture} результата
+     */
+    default @NonNull Supplyable<CompletableFuture<T>> retryingAsync(@NonNull RetryPolicy retryPolicy, @NonNull Executor executor) {
+        Objects.requireNonNull(retryPolicy, "Supplyable::retryingAsync - retryPolicy is null");
+        Objects.requireNonNull(executor, "Supplyable::retryingAsync - executor is null");
+        return () -> retryPolicy.callAsync(this, executor);
+    }
+
+    /**
+     * Создаёт {@link Supplyable}, вызываемый через {@link CircuitBreaker}: при разомкнутом выключателе
+     * вызовы сразу отклоняются без обращения к исходному {@link Supplyable}
+     * @param circuitBreaker автоматический выключатель (обычно общий для всех вызовов исполнителя)
+     * @return {@link Supplyable} с автоматическим выключателем
+     */
+    default @NonNull Supplyable<T> circuitBreaker(@NonNull CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(circuitBreaker, "Supplyable::circuitBreaker - circuitBreaker is null");
+        return () -> circuitBreaker.call(this);
+    }
+
     /**
      * Функция позволяет превратить функцию без параметров к {@link Supplyable} интерфейсу
      * @param supplyable оборачиваемая функция
@@ -117,7 +214,7 @@ public interface Supplyable<T> extends Supplier<T>, Callable<T> {
         return () -> {
             try {
                 if (!completableFuture.isDone()) {
-                    completableFuture.complete(this.call());
+                    completableFuture.complete(Cancellation.of(completableFuture).call(this));
                 }
             } catch (Exception exception) {
                 completableFuture.completeExceptionally(exception);
@@ -125,4 +222,24 @@ public interface Supplyable<T> extends Supplier<T>, Callable<T> {
         };
     }
 
+    /**
+     * Функция связывается с {@link Promise} аналогично связыванию с {@link CompletableFuture}: promise заполняется
+     * результатом в случае успешного выполнения или исключением при его возникновении. Вызов не выполняется,
+     * если promise уже завершён.
+     * @param promise связываемый {@link Promise}
+     * @return Consumer для вызова функции
+     */
+    default @NonNull Processable completable(@NonNull Promise<? super T> promise) {
+        Objects.requireNonNull(promise, "Supplyable::completable - promise is null");
+        return () -> {
+            try {
+                if (!promise.isDone()) {
+                    promise.complete(Cancellation.of(promise).call(this));
+                }
+            } catch (Exception exception) {
+                promise.completeExceptionally(exception);
+            }
+        };
+    }
+
 }
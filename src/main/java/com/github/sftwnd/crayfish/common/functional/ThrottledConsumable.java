@@ -0,0 +1,68 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Consumable}, вызывающий исходный метод не чаще одного раза за интервал. Первый вызов в свободном интервале
+ * исполняется сразу в потоке вызывающего (исключения пробрасываются ему), а вызовы внутри занятого интервала
+ * схлопываются в один завершающий вызов с последним значением в начале следующего интервала на общем планировщике.
+ * Исключения завершающего вызова передаются в {@link Thread.UncaughtExceptionHandler} потока планировщика.
+ * @param <T> тип параметра
+ */
+final class ThrottledConsumable<T> implements Consumable<T> {
+
+    private final Consumable<? super T> consumable;
+    private final long intervalNanos;
+    // Момент (System.nanoTime), начиная с которого разрешён следующий вызов
+    private final AtomicLong nextAllowed;
+    private final AtomicBoolean trailing = new AtomicBoolean(false);
+    private final Runnable fire = this::fire;
+    private volatile T value;
+
+    ThrottledConsumable(@NonNull Consumable<? super T> consumable, @NonNull Duration interval) {
+        this.consumable = Objects.requireNonNull(consumable, "ThrottledConsumable - consumable is null");
+        this.intervalNanos = SharedScheduler.positiveNanos(interval, "ThrottledConsumable - interval");
+        this.nextAllowed = new AtomicLong(System.nanoTime());
+    }
+
+    @Override
+    public void process(T parameter) throws Exception {
+        long now = System.nanoTime();
+        long allowed = nextAllowed.get();
+        if (now - allowed >= 0 && nextAllowed.compareAndSet(allowed, now + intervalNanos)) {
+            consumable.process(parameter);
+            return;
+        }
+        value = parameter;
+        if (trailing.compareAndSet(false, true)) {
+            schedule(nextAllowed.get() - now);
+        }
+    }
+
+    private void fire() {
+        long now = System.nanoTime();
+        long allowed = nextAllowed.get();
+        if (now - allowed < 0 || !nextAllowed.compareAndSet(allowed, now + intervalNanos)) {
+            // Интервал успел занять прямой вызов: завершающий вызов переносится на его окончание
+            schedule(nextAllowed.get() - now);
+            return;
+        }
+        trailing.set(false);
+        try {
+            consumable.process(value);
+        } catch (Exception exception) {
+            SerializedConsumable.uncaught(exception);
+        }
+    }
+
+    private void schedule(long delayNanos) {
+        SharedScheduler.scheduler().schedule(fire, Math.max(0L, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -128,6 +128,56 @@ public interface TreConsumable<T, U, V> {
         return this::functionally;
     }
 
+    /**
+     * Создаёт {@link TreConsumable} с ограничением частоты вызовов: вызовы сверх частоты сразу отклоняются
+     * @param permitsPerSecond число вызовов в секунду
+     * @param burst число вызовов, которые можно выполнить подряд после простоя
+     * @return {@link TreConsumable} с ограничением частоты
+     */
+    default @NonNull TreConsumable<T, U, V> rateLimited(double permitsPerSecond, int burst) {
+        return rateLimited(RateLimit.rateLimit(permitsPerSecond, burst));
+    }
+
+    /**
+     * Создаёт {@link TreConsumable} с ограничением частоты вызовов, общим с другими вызовами
+     * @param rateLimit ограничение частоты
+     * @return {@link TreConsumable} с ограничением частоты
+     */
+    default @NonNull TreConsumable<T, U, V> rateLimited(@NonNull RateLimit rateLimit) {
+        Objects.requireNonNull(rateLimit, "TreConsumable::rateLimited - rateLimit is null");
+        return (left, middle, right) -> rateLimit.run(() -> process(left, middle, right));
+    }
+
+    /**
+     * Создаёт {@link TreConsumable} с ограничением числа одновременных вызовов: вызовы сверх ограничения сразу отклоняются
+     * @param maxConcurrent максимальное число одновременных вызовов
+     * @return {@link TreConsumable} с ограничением числа одновременных вызовов
+     */
+    default @NonNull TreConsumable<T, U, V> bulkhead(int maxConcurrent) {
+        return bulkhead(Bulkhead.bulkhead(maxConcurrent));
+    }
+
+    /**
+     * Создаёт {@link TreConsumable} с ограничением числа одновременных вызовов, общим с другими вызовами
+     * @param bulkhead ограничение числа одновременных вызовов
+     * @return {@link TreConsumable} с ограничением числа одновременных вызовов
+     */
+    default @NonNull TreConsumable<T, U, V> bulkhead(@NonNull Bulkhead bulkhead) {
+        Objects.requireNonNull(bulkhead, "TreConsumable::bulkhead - bulkhead is null");
+        return (left, middle, right) -> bulkhead.run(() -> process(left, middle, right));
+    }
+
+    /**
+     * Создаёт {@link TreConsumable}, вызываемый через {@link CircuitBreaker}: при разомкнутом выключателе
+     * вызовы сразу отклоняются без обращения к исходному {@link TreConsumable}
+     * @param circuitBreaker автоматический выключатель (обычно общий для всех вызовов исполнителя)
+     * @return {@link TreConsumable} с автоматическим выключателем
+     */
+    default @NonNull TreConsumable<T, U, V> circuitBreaker(@NonNull CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(circuitBreaker, "TreConsumable::circuitBreaker - circuitBreaker is null");
+        return (left, middle, right) -> circuitBreaker.run(() -> process(left, middle, right));
+    }
+
     /**
      * Функция позволяет превратить метод от параметра к {@link TreConsumable} интерфейсу
      * @param treconsumable оборачиваемый метод
@@ -152,7 +202,7 @@ public interface TreConsumable<T, U, V> {
         return (left, middle, right) -> {
             try {
                 if (!completableFuture.isDone()) {
-                    this.process(left, middle, right);
+                    Cancellation.of(completableFuture).run(() -> this.process(left, middle, right));
                     completableFuture.complete(null);
                 }
             } catch (Exception exception) {
@@ -161,6 +211,27 @@ public interface TreConsumable<T, U, V> {
         };
     }
 
+    /**
+     * Функция связывается с {@link Promise} аналогично связыванию с {@link CompletableFuture}: promise заполняется
+     * результатом в случае успешного выполнения или исключением при его возникновении. Вызов не выполняется,
+     * если promise уже завершён.
+     * @param promise связываемый {@link Promise}
+     * @return Consumer для вызова функции
+     */
+    default @NonNull TreConsumable<T, U, V> completable(@NonNull Promise<?> promise) {
+        Objects.requireNonNull(promise, "TreConsumable::completable - promise is null");
+        return (left, middle, right) -> {
+            try {
+                if (!promise.isDone()) {
+                    Cancellation.of(promise).run(() -> this.process(left, middle, right));
+                    promise.complete(null);
+                }
+            } catch (Exception exception) {
+                promise.completeExceptionally(exception);
+            }
+        };
+    }
+
     /**
      * Returns a composed {@code TreConsumable} that performs, in sequence, this
      * operation followed by the {@code after} operation. If performing either
@@ -125,7 +125,7 @@ public interface TreFunctional<T, U, V, R> {
      */
     default <S> @NonNull TreFunctional<T, U, V, S> furtherApply(@NonNull Functional<? super R, ? extends S> functional) {
         Objects.requireNonNull(functional, "Functional::furtherApply - functional is null");
-        return (left, middle, right) -> functional.apply(this.apply(left, middle, right));
+        return (left, middle, right) -> with(this.supplyable(left, middle, right)).transform(functional);
     }
 
     /**
@@ -195,6 +195,56 @@ public interface TreFunctional<T, U, V, R> {
         return (left, middle) -> with(supplyable).transform(right -> apply(left, middle, right));
     }
 
+    /**
+     * Создаёт {@link TreFunctional} с ограничением частоты вызовов: вызовы сверх частоты сразу отклоняются
+     * @param permitsPerSecond число вызовов в секунду
+     * @param burst число вызовов, которые можно выполнить подряд после простоя
+     * @return {@link TreFunctional} с ограничением частоты
+     */
+    default @NonNull TreFunctional<T, U, V, R> rateLimited(double permitsPerSecond, int burst) {
+        return rateLimited(RateLimit.rateLimit(permitsPerSecond, burst));
+    }
+
+    /**
+     * Создаёт {@link TreFunctional} с ограничением частоты вызовов, общим с другими вызовами
+     * @param rateLimit ограничение частоты
+     * @return {@link TreFunctional} с ограничением частоты
+     */
+    default @NonNull TreFunctional<T, U, V, R> rateLimited(@NonNull RateLimit rateLimit) {
+        Objects.requireNonNull(rateLimit, "TreFunctional::rateLimited - rateLimit is null");
+        return (left, middle, right) -> rateLimit.call(() -> execute(left, middle, right));
+    }
+
+    /**
+     * Создаёт {@link TreFunctional} с ограничением числа одновременных вызовов: вызовы сверх ограничения сразу отклоняются
+     * @param maxConcurrent максимальное число одновременных вызовов
+     * @return {@link TreFunctional} с ограничением числа одновременных вызовов
+     */
+    default @NonNull TreFunctional<T, U, V, R> bulkhead(int maxConcurrent) {
+        return bulkhead(Bulkhead.bulkhead(maxConcurrent));
+    }
+
+    /**
+     * Создаёт {@link TreFunctional} с ограничением числа одновременных вызовов, общим с другими вызовами
+     * @param bulkhead ограничение числа одновременных вызовов
+     * @return {@link TreFunctional} с ограничением числа одновременных вызовов
+     */
+    default @NonNull TreFunctional<T, U, V, R> bulkhead(@NonNull Bulkhead bulkhead) {
+        Objects.requireNonNull(bulkhead, "TreFunctional::bulkhead - bulkhead is null");
+        return (left, middle, right) -> bulkhead.call(() -> execute(left, middle, right));
+    }
+
+    /**
+     * Создаёт {@link TreFunctional}, вызываемый через {@link CircuitBreaker}: при разомкнутом выключателе
+     * вызовы сразу отклоняются без обращения к исходному {@link TreFunctional}
+     * @param circuitBreaker автоматический выключатель (обычно общий для всех вызовов исполнителя)
+     * @return {@link TreFunctional} с автоматическим выключателем
+     */
+    default @NonNull TreFunctional<T, U, V, R> circuitBreaker(@NonNull CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(circuitBreaker, "TreFunctional::circuitBreaker - circuitBreaker is null");
+        return (left, middle, right) -> circuitBreaker.call(() -> execute(left, middle, right));
+    }
+
     /**
      * Функция позволяет превратить метод от двух параметров к {@link TreFunctional} интерфейсу
      * @param trefunctional оборачиваемый метод
@@ -220,7 +270,7 @@ public interface TreFunctional<T, U, V, R> {
         return (left, middle, right) -> {
             try {
                 if (!completableFuture.isDone()) {
-                    completableFuture.complete(this.execute(left, middle, right));
+                    completableFuture.complete(Cancellation.of(completableFuture).call(() -> this.execute(left, middle, right)));
                 }
             } catch (Exception exception) {
                 completableFuture.completeExceptionally(exception);
@@ -228,4 +278,24 @@ public interface TreFunctional<T, U, V, R> {
         };
     }
 
+    /**
+     * Функция связывается с {@link Promise} аналогично связыванию с {@link CompletableFuture}: promise заполняется
+     * результатом в случае успешного выполнения или исключением при его возникновении. Вызов не выполняется,
+     * если promise уже завершён.
+     * @param promise связываемый {@link Promise}
+     * @return Consumer для вызова функции
+     */
+    default @NonNull TreConsumable<T, U, V> completable(@NonNull Promise<? super R> promise) {
+        Objects.requireNonNull(promise, "BiFunctional::completable - promise is null");
+        return (left, middle, right) -> {
+            try {
+                if (!promise.isDone()) {
+                    promise.complete(Cancellation.of(promise).call(() -> this.execute(left, middle, right)));
+                }
+            } catch (Exception exception) {
+                promise.completeExceptionally(exception);
+            }
+        };
+    }
+
 }
@@ -8,6 +8,9 @@ import java.util.Objects;
 /**
  * Интерфейс для исполнения операция над вычисленным значением
  * FYI: Вычисление значения может быть не вычислено до произведения вызова
+ * Между вычислением значения и исполнением связанного кода проверяется текущий {@link Cancellation}
+ * Операции map, flatMap, filter, orElse и peek ленивы: они сливаются в один план, исходное значение
+ * которого вычисляется один раз при каждом терминальном вызове
  * @param <X> тип используемого значения
  */
 @FunctionalInterface
@@ -26,7 +29,10 @@ public interface With<X> {
      * @param <Y> тип итогового значения
      */
     default <Y> Y transform(@NonNull Functional<? super X, ? extends Y> functional) {
-        return Objects.requireNonNull(functional, "With::transform - functional is null").apply(value());
+        Objects.requireNonNull(functional, "With::transform - functional is null");
+        X value = value();
+        Cancellation.check();
+        return functional.apply(value);
     }
 
     /**
@@ -36,6 +42,7 @@ public interface With<X> {
      */
     default X consume(@NonNull Consumable<? super X> consumable) {
         X value = value();
+        Cancellation.check();
         Objects.requireNonNull(consumable, "With::consume - consumable is null").accept(value);
         return value;
     }
@@ -47,6 +54,7 @@ public interface With<X> {
      */
     default X further(@NonNull Processable processable) {
         X value = value();
+        Cancellation.check();
         Objects.requireNonNull(processable, "With::process - processable is null").run();
         return value;
     }
@@ -58,9 +66,58 @@ public interface With<X> {
      */
     default X primarily(@NonNull Processable processable) {
         Objects.requireNonNull(processable, "With::process - processable is null").run();
+        Cancellation.check();
         return value();
     }
 
+    /**
+     * Ленивое преобразование значения: стадия сливается с остальными, значение вычисляется при терминальном вызове
+     * @param functional функция преобразования значения
+     * @return {@link With} преобразованного значения
+     * @param <Y> тип преобразованного значения
+     */
+    default <Y> @NonNull With<Y> map(@NonNull Functional<? super X, ? extends Y> functional) {
+        return WithPlan.plan(this).map(functional);
+    }
+
+    /**
+     * Ленивое преобразование значения в другой {@link With}, значение которого становится значением результата
+     * @param functional функция построения {@link With} по значению (null - значение отсутствует)
+     * @return {@link With} значения построенного {@link With}
+     * @param <Y> тип преобразованного значения
+     */
+    default <Y> @NonNull With<Y> flatMap(@NonNull Functional<? super X, ? extends With<? extends Y>> functional) {
+        return WithPlan.plan(this).flatMap(functional);
+    }
+
+    /**
+     * Ленивый отбор значения: не удовлетворяющее условию значение отсутствует, последующие стадии, кроме
+     * {@link #orElse(Object)}, пропускаются, а {@link #value()} возвращает null
+     * @param predicable условие отбора
+     * @return {@link With} отобранного значения
+     */
+    default @NonNull With<X> filter(@NonNull Predicable<? super X> predicable) {
+        return WithPlan.plan(this).filter(predicable);
+    }
+
+    /**
+     * Замена отсутствующего после {@link #filter(Predicable)} значения
+     * @param other значение, используемое при отсутствии значения
+     * @return {@link With} значения или other
+     */
+    default @NonNull With<X> orElse(@Nullable X other) {
+        return WithPlan.plan(this).orElse(other);
+    }
+
+    /**
+     * Ленивое исполнение {@link Consumable} над значением при его прохождении через стадию
+     * @param consumable метод над значением
+     * @return {@link With} того же значения
+     */
+    default @NonNull With<X> peek(@NonNull Consumable<? super X> consumable) {
+        return WithPlan.plan(this).peek(consumable);
+    }
+
     /**
      * Построение {@link With}, где значение формируется с помощью заданного {@link Supplyable}
      * @param supplyable метод, используемый для вычисления значения
@@ -0,0 +1,118 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.SneakyThrows;
+
+import java.util.Objects;
+
+/**
+ * Ленивый план над значением {@link With}: операции map, flatMap, filter, orElse и peek не вычисляют значение,
+ * а сливают свои стадии в одну цепочку вызовов. При каждом терминальном вызове (value, transform, consume,
+ * further, primarily) исходное значение вычисляется один раз и проходит через все стадии. Значение, отвергнутое
+ * filter, отсутствует: следующие стадии, кроме orElse, пропускаются, а value возвращает null.
+ * Перед каждой стадией проверяется текущий {@link Cancellation}.
+ * @param <X> тип значения
+ */
+final class WithPlan<X> implements With<X> {
+
+    // Признак отсутствующего значения внутри плана
+    private static final Object ABSENT = new Object();
+
+    private final With<?> source;
+    private final Functional<Object, Object> stage;
+
+    private WithPlan(@NonNull With<?> source, @Nullable Functional<Object, Object> stage) {
+        this.source = source;
+        this.stage = stage;
+    }
+
+    @Override
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public X value() {
+        Object value = evaluate();
+        return value == ABSENT ? null : (X) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <Y> @NonNull With<Y> map(@NonNull Functional<? super X, ? extends Y> functional) {
+        Objects.requireNonNull(functional, "With::map - functional is null");
+        return then(value -> value == ABSENT ? ABSENT : functional.execute((X) value));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <Y> @NonNull With<Y> flatMap(@NonNull Functional<? super X, ? extends With<? extends Y>> functional) {
+        Objects.requireNonNull(functional, "With::flatMap - functional is null");
+        return then(value -> {
+            if (value == ABSENT) {
+                return ABSENT;
+            }
+            With<? extends Y> with = functional.execute((X) value);
+            if (with == null) {
+                return ABSENT;
+            }
+            return with instanceof WithPlan ? ((WithPlan<?>) with).evaluate() : with.value();
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @NonNull With<X> filter(@NonNull Predicable<? super X> predicable) {
+        Objects.requireNonNull(predicable, "With::filter - predicable is null");
+        return then(value -> value == ABSENT || predicable.verify((X) value) ? value : ABSENT);
+    }
+
+    @Override
+    public @NonNull With<X> orElse(@Nullable X other) {
+        return then(value -> value == ABSENT ? other : value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @NonNull With<X> peek(@NonNull Consumable<? super X> consumable) {
+        Objects.requireNonNull(consumable, "With::peek - consumable is null");
+        return then(value -> {
+            if (value != ABSENT) {
+                consumable.process((X) value);
+            }
+            return value;
+        });
+    }
+
+    private Object evaluate() throws Exception {
+        Object value = source.value();
+        if (stage == null) {
+            return value;
+        }
+        return stage.execute(value);
+    }
+
+    private <Y> WithPlan<Y> then(Functional<Object, Object> next) {
+        Functional<Object, Object> previous = stage;
+        if (previous == null) {
+            return new WithPlan<>(source, value -> {
+                Cancellation.check();
+                return next.execute(value);
+            });
+        }
+        return new WithPlan<>(source, value -> {
+            Object intermediate = previous.execute(value);
+            Cancellation.check();
+            return next.execute(intermediate);
+        });
+    }
+
+    /**
+     * Построение плана над {@link With}
+     * @param with исходный {@link With}
+     * @return план (сам with, если он уже является планом)
+     * @param <X> тип значения
+     */
+    static <X> @NonNull WithPlan<X> plan(@NonNull With<X> with) {
+        return with instanceof WithPlan ? (WithPlan<X>) with : new WithPlan<>(with, null);
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimitTest {
+
+    @Test
+    void rejectOverLimitTest() throws Exception {
+        AdaptiveLimit adaptiveLimit = AdaptiveLimit.vegas(1, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplyable<Integer> supplyable = Supplyable.<Integer>supplyable(() -> {
+            started.countDown();
+            assertTrue(release.await(1, TimeUnit.SECONDS), "Call is not released");
+            return 1;
+        }).limited(adaptiveLimit);
+        Thread thread = new Thread(supplyable::get);
+        thread.start();
+        assertTrue(started.await(1, TimeUnit.SECONDS), "Call is not started");
+        assertEquals(1, adaptiveLimit.inFlight(), "AdaptiveLimit.inFlight - wrong value");
+        Functional<Integer, Integer> functional = Functional.<Integer, Integer>functional(x -> x).limited(adaptiveLimit);
+        RejectedExecutionException first = assertThrows(RejectedExecutionException.class, () -> functional.execute(1), "Call over limit has to be rejected");
+        first.addSuppressed(new IllegalStateException());
+        RejectedExecutionException second = assertThrows(RejectedExecutionException.class, () -> functional.execute(1), "Call over limit has to be rejected");
+        assertNotSame(first, second, "Each rejection has to throw its own exception");
+        assertEquals(0, second.getSuppressed().length, "Suppressed exceptions have not to pass to another rejection");
+        assertEquals(0, second.getStackTrace().length, "Rejection has to be thrown without stack trace");
+        assertEquals(2L, adaptiveLimit.rejected(), "AdaptiveLimit.rejected - wrong value");
+        release.countDown();
+        thread.join();
+        assertEquals(0, adaptiveLimit.inFlight(), "AdaptiveLimit.inFlight has to be 0 after calls");
+        assertEquals(2, functional.execute(2), "Call under limit has to be executed");
+    }
+
+    @Test
+    void increaseOnStableLatencyTest() throws Exception {
+        AdaptiveLimit adaptiveLimit = AdaptiveLimit.vegas(1, 1, 10);
+        Supplyable<Integer> supplyable = Supplyable.supplyable(() -> 1).limited(adaptiveLimit);
+        for (int i = 0; i < 20; i++) {
+            supplyable.call();
+        }
+        assertTrue(adaptiveLimit.limit() > 1, "AdaptiveLimit has to grow without queueing");
+        assertTrue(adaptiveLimit.limit() < 10, "AdaptiveLimit has not to grow while calls do not reach the limit");
+    }
+
+    @Test
+    void decreaseOnGrowingLatencyTest() throws Exception {
+        AdaptiveLimit adaptiveLimit = AdaptiveLimit.vegas(10, 1, 10);
+        Functional<Integer, Integer> functional = Functional.<Integer, Integer>functional(millis -> {
+            Thread.sleep(millis);
+            return millis;
+        }).limited(adaptiveLimit);
+        Thread[] threads = new Thread[10];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> functional.apply(1));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int before = adaptiveLimit.limit();
+        for (int i = 0; i < 5; i++) {
+            Thread[] slow = new Thread[adaptiveLimit.limit()];
+            for (int j = 0; j < slow.length; j++) {
+                slow[j] = new Thread(() -> functional.apply(40));
+                slow[j].start();
+            }
+            for (Thread thread : slow) {
+                thread.join();
+            }
+        }
+        assertTrue(adaptiveLimit.limit() < before, "AdaptiveLimit has to decrease when latency grows");
+    }
+
+    @Test
+    void failureKeepsLimitTest() {
+        AdaptiveLimit adaptiveLimit = AdaptiveLimit.vegas(2, 1, 10);
+        Supplyable<Integer> supplyable = Supplyable.<Integer>supplyable(() -> { throw new IllegalStateException(); }).limited(adaptiveLimit);
+        assertThrows(IllegalStateException.class, supplyable::call, "Exception has to be passed through");
+        assertEquals(2, adaptiveLimit.limit(), "Failed call has not to change limit");
+        assertEquals(0, adaptiveLimit.inFlight(), "Failed call has to release limit");
+    }
+
+    @Test
+    void wrongLimitsTest() {
+        assertThrows(IllegalArgumentException.class, () -> AdaptiveLimit.vegas(0, 0, 1), "minLimit has to be positive");
+        assertThrows(IllegalArgumentException.class, () -> AdaptiveLimit.vegas(5, 1, 4), "initialLimit has to be not greater than maxLimit");
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptivePredicableTest {
+
+    @Test
+    void reorderTest() throws Exception {
+        Predicable<Integer> expensive = x -> {
+            long started = System.nanoTime();
+            while (System.nanoTime() - started < 200_000L) {
+                Thread.onSpinWait();
+            }
+            return x % 2 == 0;
+        };
+        Predicable<Integer> selective = x -> x % 10 == 0;
+        AdaptivePredicable<Integer> predicable = new AdaptivePredicable<>(List.of(expensive, selective), 1);
+        assertSame(expensive, predicable.order().get(0), "Initial order has to be kept");
+        for (int i = 0; i < AdaptivePredicable.REORDER_INTERVAL; i++) {
+            predicable.verify(i);
+        }
+        assertSame(selective, predicable.order().get(0), "Cheap selective condition has to be verified first");
+        assertTrue(predicable.verify(20), "AdaptivePredicable - wrong result");
+        assertFalse(predicable.verify(10 + 5), "AdaptivePredicable - wrong result");
+    }
+
+    @Test
+    void shortCircuitTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Predicable<Integer> counting = x -> calls.incrementAndGet() > 0;
+        AdaptivePredicable<Integer> predicable = new AdaptivePredicable<>(List.of(x -> false, counting), Integer.MAX_VALUE);
+        assertFalse(predicable.verify(1), "AdaptivePredicable - wrong result");
+        assertEquals(0, calls.get(), "Not sampled call has to stop on first false condition");
+    }
+
+    @Test
+    void adaptiveAllTest() throws Exception {
+        Predicable<Integer> predicable = Predicable.adaptiveAll(x -> x > 0, x -> x < 10, x -> x % 2 == 0);
+        for (int i = -100; i < 100; i++) {
+            assertEquals(i > 0 && i < 10 && i % 2 == 0, predicable.verify(i), "Predicable.adaptiveAll - wrong result for " + i);
+        }
+        assertTrue(Predicable.<Integer>adaptiveAll().verify(1), "Empty adaptiveAll has to be true");
+        assertThrows(NullPointerException.class, () -> Predicable.adaptiveAll(x -> true, null), "Null condition has to be rejected");
+    }
+
+}
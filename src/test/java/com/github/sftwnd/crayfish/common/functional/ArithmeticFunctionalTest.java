@@ -0,0 +1,62 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArithmeticFunctionalTest {
+
+    @Test
+    void doubleApplyAllTest() throws Exception {
+        DoubleFunctional functional = DoubleFunctional.mul(2.0).andThen(DoubleFunctional.add(1.0))
+                .andThen(DoubleFunctional.fma(0.5, -1.0)).andThen(DoubleFunctional.clamp(0.0, 100.0));
+        assertSame(ArithmeticDoubleFunctional.class, functional.getClass(), "Composition of arithmetic functions has to stay arithmetic");
+        double[] in = new double[ArithmeticDoubleFunctional.CHUNK * 2 + 7];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = i - 10.0;
+        }
+        double[] out = new double[in.length];
+        functional.applyAll(in, out);
+        for (int i = 0; i < in.length; i++) {
+            assertEquals(functional.execute(in[i]), out[i], "applyAll has to match execute at " + i);
+            assertEquals(Math.min(Math.max(Math.fma(in[i] * 2.0 + 1.0, 0.5, -1.0), 0.0), 100.0), out[i], "applyAll - wrong value at " + i);
+        }
+        functional.applyAll(in, in);
+        assertArrayEquals(out, in, "applyAll has to work in place");
+    }
+
+    @Test
+    void longApplyAllTest() throws Exception {
+        LongFunctional functional = LongFunctional.fma(3L, 1L).andThen(LongFunctional.clamp(-5L, 50L));
+        long[] in = { -10L, 0L, 5L, 100L };
+        long[] out = new long[5];
+        functional.applyAll(in, out);
+        assertArrayEquals(new long[] { -5L, 1L, 16L, 50L, 0L }, out, "LongFunctional.applyAll - wrong result");
+        assertEquals(16L, functional.execute(5L), "LongFunctional.execute - wrong result");
+    }
+
+    @Test
+    void genericApplyAllTest() throws Exception {
+        DoubleFunctional functional = DoubleFunctional.add(1.0).andThen(Math::sqrt);
+        double[] out = new double[3];
+        functional.applyAll(new double[] { 0.0, 3.0, 8.0 }, out);
+        assertArrayEquals(new double[] { 1.0, 2.0, 3.0 }, out, "DoubleFunctional.applyAll - wrong result");
+        LongFunctional failed = value -> { throw new IOException(); };
+        assertThrows(IOException.class, () -> failed.applyAll(new long[1], new long[1]), "applyAll has to pass exception");
+    }
+
+    @Test
+    void wrongParametersTest() {
+        assertThrows(IllegalArgumentException.class, () -> DoubleFunctional.add(1.0).applyAll(new double[2], new double[1]), "Short out has to be rejected");
+        assertThrows(IllegalArgumentException.class, () -> DoubleFunctional.clamp(1.0, 0.0), "min > max has to be rejected");
+        assertThrows(IllegalArgumentException.class, () -> LongFunctional.clamp(1L, 0L), "min > max has to be rejected");
+        assertTrue(Double.isNaN(DoubleFunctional.clamp(0.0, 1.0).applyAsDouble(Double.NaN)), "clamp has to keep NaN");
+    }
+
+}
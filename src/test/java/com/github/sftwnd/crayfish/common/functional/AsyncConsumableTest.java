@@ -0,0 +1,118 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncConsumableTest {
+
+    @Test
+    void asyncDropNewestTest() {
+        var async = consumable.async(tasks::add, 2, OverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 5; i++) {
+            async.accept(i);
+        }
+        assertEquals(2, async.depth(), "AsyncConsumable.depth - wrong value");
+        assertEquals(3L, async.dropped(), "AsyncConsumable.dropped - wrong value");
+        runTasks();
+        assertEquals(List.of(0, 1), received, "DROP_NEWEST has to keep the oldest elements");
+        assertEquals(0, async.depth(), "AsyncConsumable.depth has to be 0 after drain");
+    }
+
+    @Test
+    void asyncDropOldestTest() {
+        var async = consumable.async(tasks::add, 2, OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 5; i++) {
+            async.accept(i);
+        }
+        assertEquals(3L, async.dropped(), "AsyncConsumable.dropped - wrong value");
+        runTasks();
+        assertEquals(List.of(3, 4), received, "DROP_OLDEST has to keep the newest elements");
+    }
+
+    @Test
+    void asyncFailFastTest() {
+        var async = consumable.async(tasks::add, 1, OverflowPolicy.FAIL_FAST);
+        async.accept(0);
+        assertThrows(RejectedExecutionException.class, () -> async.accept(1), "FAIL_FAST has to throw RejectedExecutionException");
+        assertEquals(1L, async.dropped(), "AsyncConsumable.dropped - wrong value");
+        runTasks();
+        assertEquals(List.of(0), received, "FAIL_FAST has to keep accepted elements");
+        assertSame(OverflowPolicy.FAIL_FAST, async.overflowPolicy(), "AsyncConsumable.overflowPolicy - wrong value");
+    }
+
+    @Test
+    void asyncBlockTest() throws InterruptedException {
+        var async = consumable.async(tasks::add, 1, OverflowPolicy.BLOCK);
+        async.accept(0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            started.countDown();
+            async.accept(1);
+            finished.countDown();
+        });
+        producer.start();
+        assertTrue(started.await(1, TimeUnit.SECONDS), "Producer is not started");
+        assertFalse(finished.await(50, TimeUnit.MILLISECONDS), "BLOCK has to block producer on full queue");
+        tasks.remove(0).run();
+        assertTrue(finished.await(1, TimeUnit.SECONDS), "BLOCK has to release producer after drain");
+        producer.join();
+        runTasks();
+        assertEquals(List.of(0, 1), received, "BLOCK has to keep all elements");
+        assertEquals(0L, async.dropped(), "BLOCK has not to drop elements");
+    }
+
+    @Test
+    void asyncOnErrorTest() {
+        IllegalStateException exception = new IllegalStateException();
+        AtomicReference<Object> failed = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        var async = Consumable.<Integer>consumable(value -> {
+            if (value == 0) throw exception;
+            received.add(value);
+        }).async(tasks::add, 4, OverflowPolicy.BLOCK, (value, ex) -> { failed.set(value); error.set(ex); });
+        async.accept(0);
+        async.accept(1);
+        runTasks();
+        assertEquals(List.of(1), received, "AsyncConsumable has to continue after exception");
+        assertEquals(0, failed.get(), "AsyncConsumable has to pass failed parameter to onError");
+        assertSame(exception, error.get(), "AsyncConsumable has to pass exception to onError");
+    }
+
+    @Test
+    void asyncWrongCapacityTest() {
+        assertThrows(IllegalArgumentException.class, () -> consumable.async(tasks::add, 0, OverflowPolicy.BLOCK), "AsyncConsumable capacity has to be positive");
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    @BeforeEach
+    void startUp() {
+        this.received = new ArrayList<>();
+        this.tasks = Collections.synchronizedList(new ArrayList<>());
+        this.consumable = received::add;
+    }
+
+    private List<Integer> received;
+    private List<Runnable> tasks;
+    private Consumable<Integer> consumable;
+
+}
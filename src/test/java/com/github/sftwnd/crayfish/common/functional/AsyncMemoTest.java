@@ -0,0 +1,127 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncMemoTest {
+
+    @Test
+    void sharedInFlightLoadTest() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> backend = new CompletableFuture<>();
+        AsyncMemo<Integer, String> memo = AsyncMemo.asyncMemo(key -> {
+            loads.incrementAndGet();
+            return backend;
+        }, 16);
+        CompletableFuture<String> first = memo.execute(1);
+        CompletableFuture<String> second = memo.execute(1);
+        assertSame(first, second, "AsyncMemo has to share in-flight load");
+        assertEquals(1, loads.get(), "AsyncMemo has to load once while in flight");
+        backend.complete("one");
+        assertEquals("one", first.get(1, TimeUnit.SECONDS), "AsyncMemo - wrong value");
+        assertSame(first, memo.execute(1), "AsyncMemo has to cache completed load");
+        assertEquals(1, loads.get(), "AsyncMemo has not to reload cached value");
+    }
+
+    @Test
+    void failedLoadRemovedTest() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncMemo<Integer, Integer> memo = AsyncMemo.asyncMemo(key -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IOException("load");
+            }
+            return CompletableFuture.completedFuture(key * 10);
+        }, 16);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> memo.execute(2).get(), "AsyncMemo - failed load expected");
+        assertTrue(exception.getCause() instanceof IOException, "AsyncMemo - wrong exception");
+        assertEquals(0, memo.size(), "AsyncMemo has to remove failed load");
+        assertEquals(20, memo.execute(2).get(), "AsyncMemo has to reload after failure");
+        assertEquals(2, loads.get(), "AsyncMemo - wrong load count");
+        AsyncMemo<Integer, Integer> pending = AsyncMemo.asyncMemo(key -> new CompletableFuture<>(), 16);
+        CompletableFuture<Integer> cancelled = pending.execute(1);
+        cancelled.cancel(false);
+        assertEquals(0, pending.size(), "AsyncMemo has to remove cancelled load");
+        assertNotSame(cancelled, pending.execute(1), "AsyncMemo has to reload after cancellation");
+    }
+
+    @Test
+    void retryFromFailureHandlerTest() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<Integer> backend = new CompletableFuture<>();
+        AsyncMemo<Integer, Integer> memo = AsyncMemo.asyncMemo(key -> loads.incrementAndGet() == 1 ? backend : CompletableFuture.completedFuture(key), 16);
+        CompletableFuture<Integer> first = memo.execute(7);
+        // Обработчик неудачи вызывается до удаления записи из кеша (зависимые действия исполняются в обратном порядке)
+        CompletableFuture<Integer> retried = first
+                .handle((value, throwable) -> throwable == null ? CompletableFuture.completedFuture(value) : memo.execute(7))
+                .thenCompose(future -> future);
+        backend.completeExceptionally(new IOException("load"));
+        assertEquals(7, retried.get(1, TimeUnit.SECONDS), "AsyncMemo - retry from failure handler has to start a new load");
+        assertEquals(2, loads.get(), "AsyncMemo - wrong load count");
+        assertNotSame(first, memo.execute(7), "AsyncMemo has not to return failed load");
+        assertEquals(1, memo.size(), "AsyncMemo - failed entry has to be replaced");
+    }
+
+    @Test
+    void ttlTest() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncMemo<Integer, Integer> memo = AsyncMemo.asyncMemo(key -> CompletableFuture.completedFuture(loads.incrementAndGet()),
+                Duration.ofMillis(50), 16);
+        CompletableFuture<Integer> first = memo.execute(1);
+        assertSame(first, memo.execute(1), "AsyncMemo has to cache value before ttl");
+        Thread.sleep(100);
+        CompletableFuture<Integer> second = memo.execute(1);
+        assertNotSame(first, second, "AsyncMemo has to reload after ttl");
+        assertEquals(2, second.get(), "AsyncMemo - wrong reloaded value");
+        assertEquals(1, memo.size(), "AsyncMemo - expired entry has to be replaced");
+    }
+
+    @Test
+    void maximumSizeTest() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncMemo<Integer, Integer> memo = AsyncMemo.asyncMemo(key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(key);
+        }, 4);
+        for (int key = 0; key < 100; key++) {
+            assertEquals(key, memo.execute(key).get(), "AsyncMemo - wrong value");
+            assertTrue(memo.size() <= 4, "AsyncMemo - size has to be bounded");
+        }
+        memo.execute(99);
+        assertEquals(100, loads.get(), "AsyncMemo - recent entry has to stay cached");
+        memo.execute(0);
+        assertEquals(101, loads.get(), "AsyncMemo - eldest entry has to be evicted");
+        memo.invalidate(0);
+        memo.execute(0);
+        assertEquals(102, loads.get(), "AsyncMemo has to reload invalidated entry");
+    }
+
+    @Test
+    void executorTest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AsyncMemo<String, Integer> memo = AsyncMemo.asyncMemo(String::length, executor, Duration.ofMinutes(1), 16);
+            assertEquals(5, memo.execute("hello").get(1, TimeUnit.SECONDS), "AsyncMemo - wrong value from executor");
+            Functional<CharSequence, Integer> length = CharSequence::length;
+            AsyncMemo<String, Integer> unlimited = AsyncMemo.asyncMemo(length, executor, 16);
+            assertEquals(3, unlimited.execute("abc").get(1, TimeUnit.SECONDS), "AsyncMemo - wrong value from executor without ttl");
+            assertThrows(NullPointerException.class, () -> memo.execute(null), "AsyncMemo - NPE expected on null key");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
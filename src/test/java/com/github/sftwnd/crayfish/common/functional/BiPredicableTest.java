@@ -0,0 +1,38 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BiPredicableTest {
+
+    @Test
+    void verifyTest() throws Exception {
+        BiPredicable<Integer, Integer> less = BiPredicable.bipredicable((l, r) -> l < r);
+        BiPredicable<Integer, Integer> positive = (l, r) -> l > 0;
+        assertTrue(less.and(positive).verify(1, 2), "BiPredicable.and - wrong result");
+        assertFalse(less.and(positive).verify(-1, 2), "BiPredicable.and - wrong result");
+        assertTrue(less.or(positive).verify(3, 2), "BiPredicable.or - wrong result");
+        assertTrue(less.negate().verify(2, 1), "BiPredicable.negate - wrong result");
+        assertTrue(less.left(1).verify(2), "BiPredicable.left - wrong result");
+        assertTrue(less.right(2).verify(1), "BiPredicable.right - wrong result");
+        assertTrue(less.functional().execute(1, 2), "BiPredicable.functional - wrong result");
+        assertTrue(BiPredicable.<Integer, Integer>cast(Integer::equals).verify(1, 1), "BiPredicable.cast - wrong result");
+    }
+
+    @Test
+    void shortCircuitTest() throws Exception {
+        BiPredicable<Integer, Integer> failed = (l, r) -> { throw new IOException(); };
+        BiPredicable<Integer, Integer> never = (l, r) -> false;
+        BiPredicable<Integer, Integer> always = (l, r) -> true;
+        assertFalse(never.and(failed).verify(1, 2), "BiPredicable.and has not to verify second condition after false");
+        assertTrue(always.or(failed).verify(1, 2), "BiPredicable.or has not to verify second condition after true");
+        assertThrows(IOException.class, () -> always.and(failed).verify(1, 2), "BiPredicable.verify has to throw checked exception");
+        assertThrows(IOException.class, () -> always.and(failed).test(1, 2), "BiPredicable.test has to throw exception");
+    }
+
+}
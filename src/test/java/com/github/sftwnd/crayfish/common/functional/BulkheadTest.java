@@ -0,0 +1,91 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+    @Test
+    void bulkheadTest() throws Exception {
+        Bulkhead bulkhead = Bulkhead.bulkhead(3, 4);
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        Consumable<Integer> consumable = Consumable.<Integer>consumable(ignore -> {
+            started.countDown();
+            assertTrue(release.await(1, TimeUnit.SECONDS), "Call is not released");
+        }).bulkhead(bulkhead);
+        Thread[] threads = new Thread[3];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> consumable.accept(1));
+            threads[i].start();
+        }
+        assertTrue(started.await(1, TimeUnit.SECONDS), "Calls within bulkhead have to be started");
+        assertEquals(3, bulkhead.inFlight(), "Bulkhead.inFlight - wrong value");
+        Supplyable<Integer> supplyable = Supplyable.supplyable(() -> 1).bulkhead(bulkhead);
+        assertThrows(RejectedExecutionException.class, supplyable::call, "Call over bulkhead has to be rejected");
+        assertEquals(1L, bulkhead.rejected(), "Bulkhead.rejected - wrong value");
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, bulkhead.inFlight(), "Bulkhead.inFlight has to be 0 after calls");
+        assertEquals(1, supplyable.call(), "Call within bulkhead has to be executed");
+    }
+
+    @Test
+    void releaseOnExceptionTest() {
+        Processable processable = Processable.processable(() -> { throw new IllegalStateException(); }).bulkhead(1);
+        assertThrows(IllegalStateException.class, processable::process, "Exception has to be passed through");
+        assertThrows(IllegalStateException.class, processable::process, "Permit has to be released after exception");
+    }
+
+    @Test
+    void concurrentLimitTest() throws InterruptedException {
+        Bulkhead bulkhead = Bulkhead.bulkhead(4);
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        AtomicInteger executed = new AtomicInteger();
+        TreFunctional<Integer, Integer, Integer, Integer> trefunctional = TreFunctional.<Integer, Integer, Integer, Integer>trefunctional((l, m, r) -> {
+            int value = current.incrementAndGet();
+            max.accumulateAndGet(value, Math::max);
+            Thread.yield();
+            current.decrementAndGet();
+            return executed.incrementAndGet();
+        }).bulkhead(bulkhead);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    try {
+                        trefunctional.execute(1, 2, 3);
+                    } catch (RejectedExecutionException ignore) {
+                        // Отказ сверх ограничения ожидаем
+                    } catch (Exception exception) {
+                        throw new IllegalStateException(exception);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(max.get() <= 4, "Bulkhead has not to exceed maxConcurrent");
+        assertEquals(8000L, executed.get() + bulkhead.rejected(), "Every call has to be executed or rejected");
+    }
+
+    @Test
+    void wrongParametersTest() {
+        assertThrows(IllegalArgumentException.class, () -> Bulkhead.bulkhead(0), "maxConcurrent has to be positive");
+        assertThrows(IllegalArgumentException.class, () -> Bulkhead.bulkhead(1, 0), "stripes has to be positive");
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CancellationTest {
+
+    @Test
+    void cancelTest() {
+        Cancellation cancellation = Cancellation.cancellation();
+        assertFalse(cancellation.isCancelled(), "New Cancellation has not to be cancelled");
+        assertDoesNotThrow(cancellation::checkpoint, "Cancellation.checkpoint has not to throw before cancel");
+        cancellation.cancel();
+        assertTrue(cancellation.isCancelled(), "Cancellation has to be cancelled");
+        assertThrows(CancellationException.class, cancellation::checkpoint, "Cancellation.checkpoint has to throw after cancel");
+    }
+
+    @Test
+    void ofSourceTest() {
+        CompletableFuture<Object> completableFuture = new CompletableFuture<>();
+        Promise<Object> promise = new Promise<>();
+        Cancellation byFuture = Cancellation.of(completableFuture);
+        Cancellation byPromise = Cancellation.of(promise);
+        assertFalse(byFuture.isCancelled() || byPromise.isCancelled(), "Cancellation has not to be cancelled before completion");
+        completableFuture.cancel(false);
+        promise.cancel();
+        assertTrue(byFuture.isCancelled(), "Cancellation has to follow CompletableFuture");
+        assertTrue(byPromise.isCancelled(), "Cancellation has to follow Promise");
+    }
+
+    @Test
+    void currentTest() throws Exception {
+        Cancellation outer = Cancellation.cancellation();
+        Cancellation inner = Cancellation.cancellation();
+        assertNull(Cancellation.current(), "There is no current Cancellation outside of call");
+        outer.run(() -> {
+            assertSame(outer, Cancellation.current(), "Cancellation.current - wrong value");
+            inner.run(() -> assertSame(inner, Cancellation.current(), "Cancellation.current - wrong nested value"));
+            assertSame(outer, Cancellation.current(), "Cancellation.current has to be restored");
+        });
+        assertNull(Cancellation.current(), "Cancellation.current has to be removed after call");
+    }
+
+    @Test
+    void callOnCancelledTest() {
+        AtomicInteger counter = new AtomicInteger();
+        Cancellation cancellation = Cancellation.cancellation();
+        cancellation.cancel();
+        assertThrows(CancellationException.class, () -> cancellation.call(counter::incrementAndGet), "Cancellation.call has to throw on cancelled");
+        assertEquals(0, counter.get(), "Cancellation.call has not to call supplyable on cancelled");
+    }
+
+    @Test
+    void furtherStagesStopTest() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        Cancellation cancellation = Cancellation.cancellation();
+        Functional<Integer, Integer> pipeline = Functional.<Integer, Integer>functional(x -> {
+                    cancellation.cancel();
+                    return x + 1;
+                })
+                .furtherRun(counter::incrementAndGet)
+                .furtherAccept(ignore -> counter.incrementAndGet())
+                .furtherApply(x -> counter.incrementAndGet());
+        assertThrows(CancellationException.class, () -> cancellation.call(() -> pipeline.execute(1)), "Cancelled pipeline has to throw CancellationException");
+        assertEquals(0, counter.get(), "Stages after cancellation have not to be executed");
+        assertEquals(3, pipeline.execute(1), "Pipeline without current Cancellation has to execute all stages");
+    }
+
+    @Test
+    void previouslyAndWithStopTest() {
+        AtomicInteger counter = new AtomicInteger();
+        Cancellation cancellation = Cancellation.cancellation();
+        BiFunctional<Integer, Integer, Integer> bifunctional = (x, y) -> counter.incrementAndGet();
+        Functional<Integer, Integer> withLeft = bifunctional.withLeft(() -> { cancellation.cancel(); return 1; });
+        Supplyable<Integer> previously = Supplyable.supplyable(counter::incrementAndGet).previously(cancellation::cancel);
+        assertThrows(CancellationException.class, () -> cancellation.call(() -> withLeft.execute(2)), "BiFunctional.withLeft has to check Cancellation");
+        assertThrows(CancellationException.class, () -> Cancellation.cancellation().call(() -> {
+            Cancellation.current().cancel();
+            return previously.call();
+        }), "Supplyable.previously has to check Cancellation");
+        assertEquals(0, counter.get(), "Stages after cancellation have not to be executed");
+    }
+
+    @Test
+    void completableCancelStopsPipelineTest() {
+        AtomicInteger counter = new AtomicInteger();
+        CompletableFuture<Integer> completableFuture = new CompletableFuture<>();
+        Functional.<Integer, Integer>functional(x -> {
+                    completableFuture.cancel(false);
+                    return x;
+                })
+                .furtherApply(x -> counter.incrementAndGet())
+                .completable(completableFuture)
+                .accept(1);
+        assertTrue(completableFuture.isCancelled(), "CompletableFuture has to stay cancelled");
+        assertEquals(0, counter.get(), "Stages after CompletableFuture cancellation have not to be executed");
+    }
+
+}
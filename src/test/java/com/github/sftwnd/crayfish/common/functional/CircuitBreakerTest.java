@@ -0,0 +1,141 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    @Test
+    void openOnFailuresTest() throws Exception {
+        CircuitBreaker circuitBreaker = CircuitBreaker.circuitBreaker(0.5, 4, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        AtomicInteger calls = new AtomicInteger();
+        Functional<Integer, Integer> functional = Functional.<Integer, Integer>functional(x -> {
+            calls.incrementAndGet();
+            if (x < 0) throw new IllegalStateException();
+            return x;
+        }).circuitBreaker(circuitBreaker);
+        functional.execute(1);
+        functional.execute(2);
+        assertThrows(IllegalStateException.class, () -> functional.execute(-1), "Exception has to be passed through");
+        assertSame(CircuitBreaker.State.CLOSED, circuitBreaker.state(), "CircuitBreaker has not to open before minimumCalls");
+        assertThrows(IllegalStateException.class, () -> functional.execute(-1), "Exception has to be passed through");
+        assertSame(CircuitBreaker.State.OPEN, circuitBreaker.state(), "CircuitBreaker has to open on failure rate threshold");
+        assertThrows(RejectedExecutionException.class, () -> functional.execute(3), "Open CircuitBreaker has to reject calls");
+        assertEquals(4, calls.get(), "Open CircuitBreaker has not to call backend");
+        assertEquals(1L, circuitBreaker.rejected(), "CircuitBreaker.rejected - wrong value");
+    }
+
+    @Test
+    void halfOpenTest() throws Exception {
+        CircuitBreaker circuitBreaker = CircuitBreaker.circuitBreaker(1.0, 1, Duration.ofMinutes(1), Duration.ofMillis(10));
+        AtomicInteger failures = new AtomicInteger(2);
+        Supplyable<Integer> supplyable = Supplyable.<Integer>supplyable(() -> {
+            if (failures.getAndDecrement() > 0) throw new IllegalStateException();
+            return 1;
+        }).circuitBreaker(circuitBreaker);
+        assertThrows(IllegalStateException.class, supplyable::call, "Exception has to be passed through");
+        assertSame(CircuitBreaker.State.OPEN, circuitBreaker.state(), "CircuitBreaker has to open");
+        Thread.sleep(20);
+        assertThrows(IllegalStateException.class, supplyable::call, "Probe call has to be executed after openDuration");
+        assertSame(CircuitBreaker.State.OPEN, circuitBreaker.state(), "Failed probe call has to reopen CircuitBreaker");
+        assertThrows(RejectedExecutionException.class, supplyable::call, "Reopened CircuitBreaker has to reject calls");
+        Thread.sleep(20);
+        assertEquals(1, supplyable.call(), "Probe call has to be executed after openDuration");
+        assertSame(CircuitBreaker.State.CLOSED, circuitBreaker.state(), "Successful probe call has to close CircuitBreaker");
+    }
+
+    @Test
+    void probeErrorTest() throws Exception {
+        CircuitBreaker circuitBreaker = CircuitBreaker.circuitBreaker(1.0, 1, Duration.ofMinutes(1), Duration.ofMillis(10));
+        AtomicInteger calls = new AtomicInteger();
+        Supplyable<Integer> supplyable = Supplyable.<Integer>supplyable(() -> {
+            switch (calls.incrementAndGet()) {
+                case 1: throw new IllegalStateException();
+                case 2: throw new AssertionError("probe");
+                default: return 1;
+            }
+        }).circuitBreaker(circuitBreaker);
+        assertThrows(IllegalStateException.class, supplyable::call, "Exception has to be passed through");
+        Thread.sleep(20);
+        assertThrows(AssertionError.class, supplyable::call, "Error of probe call has to be passed through");
+        assertSame(CircuitBreaker.State.OPEN, circuitBreaker.state(), "Probe call failed with Error has to reopen CircuitBreaker");
+        Thread.sleep(20);
+        assertEquals(1, supplyable.call(), "Probe call has to be executed after openDuration");
+        assertSame(CircuitBreaker.State.CLOSED, circuitBreaker.state(), "Successful probe call has to close CircuitBreaker");
+    }
+
+    @Test
+    void hungProbeTest() throws Exception {
+        CircuitBreaker circuitBreaker = CircuitBreaker.circuitBreaker(1.0, 1, Duration.ofMinutes(1), Duration.ofMillis(50));
+        assertThrows(IllegalStateException.class, () -> circuitBreaker.run(() -> { throw new IllegalStateException(); }), "Exception has to be passed through");
+        Thread.sleep(60);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread probe = new Thread(() -> {
+            try {
+                circuitBreaker.run(() -> {
+                    started.countDown();
+                    release.await();
+                });
+            } catch (Exception ignored) {
+                // результат зависшего пробного вызова не проверяется
+            }
+        });
+        probe.start();
+        try {
+            assertTrue(started.await(1, TimeUnit.SECONDS), "Probe call has to be started");
+            assertSame(CircuitBreaker.State.HALF_OPEN, circuitBreaker.state(), "CircuitBreaker has to be half-open during probe call");
+            assertThrows(RejectedExecutionException.class, () -> circuitBreaker.call(() -> 1), "Concurrent call has to be rejected during probe call");
+            Thread.sleep(60);
+            assertEquals(2, circuitBreaker.call(() -> 2), "Hung probe call has to give the probe to the next call after openDuration");
+            assertSame(CircuitBreaker.State.CLOSED, circuitBreaker.state(), "Successful probe call has to close CircuitBreaker");
+        } finally {
+            release.countDown();
+            probe.join();
+        }
+    }
+
+    @Test
+    void failureOnTest() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.circuitBreaker(0.5, 1, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                IllegalStateException.class::isInstance);
+        Consumable<Integer> consumable = Consumable.<Integer>consumable(x -> { throw new IllegalArgumentException(); }).circuitBreaker(circuitBreaker);
+        assertThrows(IllegalArgumentException.class, () -> consumable.process(1), "Exception has to be passed through");
+        assertSame(CircuitBreaker.State.CLOSED, circuitBreaker.state(), "Exception not accepted by failureOn has not to open CircuitBreaker");
+        TreConsumable<Integer, Integer, Integer> treconsumable = TreConsumable.<Integer, Integer, Integer>treconsumable((l, m, r) -> { throw new IllegalStateException(); })
+                .circuitBreaker(circuitBreaker);
+        assertThrows(IllegalStateException.class, () -> treconsumable.process(1, 2, 3), "Exception has to be passed through");
+        assertSame(CircuitBreaker.State.OPEN, circuitBreaker.state(), "Exception accepted by failureOn has to open CircuitBreaker");
+        assertThrows(RejectedExecutionException.class, () -> consumable.process(1), "Shared CircuitBreaker has to reject calls");
+    }
+
+    @Test
+    void slidingWindowTest() throws Exception {
+        CircuitBreaker circuitBreaker = CircuitBreaker.circuitBreaker(1.0, 2, Duration.ofMillis(50), Duration.ofMinutes(1));
+        Processable processable = Processable.processable(() -> { throw new IllegalStateException(); }).circuitBreaker(circuitBreaker);
+        assertThrows(IllegalStateException.class, processable::process, "Exception has to be passed through");
+        Thread.sleep(120);
+        assertThrows(IllegalStateException.class, processable::process, "Exception has to be passed through");
+        assertSame(CircuitBreaker.State.CLOSED, circuitBreaker.state(), "Failures outside sliding window have not to be counted");
+        assertThrows(IllegalStateException.class, processable::process, "Exception has to be passed through");
+        assertSame(CircuitBreaker.State.OPEN, circuitBreaker.state(), "Failures inside sliding window have to open CircuitBreaker");
+    }
+
+    @Test
+    void wrongParametersTest() {
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.circuitBreaker(0.0, 1, Duration.ofSeconds(1), Duration.ofSeconds(1)), "failureRateThreshold has to be positive");
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.circuitBreaker(0.5, 0, Duration.ofSeconds(1), Duration.ofSeconds(1)), "minimumCalls has to be positive");
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.circuitBreaker(0.5, 1, Duration.ZERO, Duration.ofSeconds(1)), "window has to be positive");
+    }
+
+}
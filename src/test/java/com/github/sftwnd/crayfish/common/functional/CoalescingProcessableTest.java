@@ -0,0 +1,114 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoalescingProcessableTest {
+
+    @Test
+    void coalescingBeforeStartTest() {
+        Processable coalescing = Processable.processable(counter::incrementAndGet).coalescing(tasks::add);
+        for (int i = 0; i < 10; i++) {
+            coalescing.run();
+        }
+        assertEquals(1, tasks.size(), "Processable.coalescing has to schedule only one run");
+        runTasks();
+        assertEquals(1, counter.get(), "Calls before start have to be covered by the scheduled run");
+    }
+
+    @Test
+    void coalescingDuringRunTest() {
+        AtomicReference<Processable> self = new AtomicReference<>();
+        Processable coalescing = Processable.processable(() -> {
+            if (counter.incrementAndGet() == 1) {
+                for (int i = 0; i < 10; i++) {
+                    self.get().run();
+                }
+            }
+        }).coalescing(tasks::add);
+        self.set(coalescing);
+        coalescing.run();
+        runTasks();
+        assertEquals(2, counter.get(), "Calls during run have to collapse into exactly one follow-up run");
+    }
+
+    @Test
+    void coalescingAfterRunTest() {
+        Processable coalescing = Processable.processable(counter::incrementAndGet).coalescing(tasks::add);
+        coalescing.run();
+        runTasks();
+        coalescing.run();
+        runTasks();
+        assertEquals(2, counter.get(), "Processable.coalescing has to run again after completion");
+    }
+
+    @Test
+    void coalescingOnErrorTest() {
+        IllegalStateException exception = new IllegalStateException();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        Processable coalescing = Processable.processable(() -> {
+            counter.incrementAndGet();
+            throw exception;
+        }).coalescing(tasks::add, error::set);
+        coalescing.run();
+        runTasks();
+        assertSame(exception, error.get(), "Processable.coalescing has to pass exception to onError");
+        coalescing.run();
+        runTasks();
+        assertEquals(2, counter.get(), "Processable.coalescing has to run after exception");
+    }
+
+    @Test
+    void coalescingOnThrowableTest() {
+        AtomicReference<Processable> self = new AtomicReference<>();
+        Processable coalescing = Processable.processable(() -> {
+            if (counter.incrementAndGet() == 1) {
+                self.get().run();
+                throw new AssertionError();
+            }
+        }).coalescing(tasks::add);
+        self.set(coalescing);
+        coalescing.run();
+        assertThrows(AssertionError.class, () -> tasks.remove(0).run(), "Processable.coalescing has to rethrow Error");
+        runTasks();
+        assertEquals(2, counter.get(), "Call during run failed with Error has to be executed");
+        coalescing.run();
+        runTasks();
+        assertEquals(3, counter.get(), "Processable.coalescing has to run after Error");
+    }
+
+    @Test
+    void coalescingRejectedTest() {
+        Processable coalescing = Processable.processable(counter::incrementAndGet).coalescing(task -> { throw new RejectedExecutionException(); });
+        assertThrows(RejectedExecutionException.class, coalescing::run, "Processable.coalescing has to throw RejectedExecutionException");
+        assertThrows(RejectedExecutionException.class, coalescing::run, "Processable.coalescing has to try schedule after rejection");
+        assertTrue(tasks.isEmpty(), "Nothing has to be scheduled");
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    @BeforeEach
+    void startUp() {
+        this.counter = new AtomicInteger();
+        this.tasks = new ArrayList<>();
+    }
+
+    private AtomicInteger counter;
+    private List<Runnable> tasks;
+
+}
@@ -0,0 +1,76 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConflatingConsumableTest {
+
+    @Test
+    void conflatingExecutorTest() {
+        List<Runnable> tasks = new ArrayList<>();
+        List<String> received = new ArrayList<>();
+        Consumable<String> conflating = Consumable.conflating(value -> value.charAt(0), received::add, tasks::add);
+        for (String value : List.of("a1", "b1", "a2", "c1", "b2", "a3")) {
+            conflating.accept(value);
+        }
+        assertEquals(1, tasks.size(), "Consumable.conflating has to schedule only one drain");
+        tasks.remove(0).run();
+        assertEquals(List.of("a3", "b2", "c1"), received, "Consumable.conflating has to deliver latest value per key in order of keys");
+        assertTrue(tasks.isEmpty(), "Consumable.conflating has not to reschedule on empty table");
+    }
+
+    @Test
+    void conflatingCallerDrainTest() throws InterruptedException {
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> received = new ArrayList<>();
+        Consumable<String> conflating = Consumable.conflating(value -> value.charAt(0), value -> {
+            received.add(value);
+            if ("a0".equals(value)) {
+                busy.countDown();
+                release.await();
+            }
+        });
+        Thread drainer = new Thread(() -> conflating.accept("a0"));
+        drainer.start();
+        assertTrue(busy.await(1, TimeUnit.SECONDS), "Downstream is not busy");
+        for (String value : List.of("a1", "b1", "a2", "b2")) {
+            conflating.accept(value);
+        }
+        release.countDown();
+        drainer.join();
+        assertEquals(List.of("a0", "a2", "b2"), received, "Busy downstream has to see latest value per key only");
+    }
+
+    @Test
+    void conflatingCallerExceptionTest() {
+        Map<String, String> received = new ConcurrentHashMap<>();
+        AtomicReference<String> fail = new AtomicReference<>("a1");
+        Consumable<String> conflating = Consumable.conflating(value -> value.charAt(0), value -> {
+            if (value.equals(fail.get())) throw new IllegalStateException();
+            received.put(value, value);
+        });
+        assertThrows(IllegalStateException.class, () -> conflating.accept("a1"), "Consumable.conflating has to throw downstream exception to caller");
+        conflating.accept("b1");
+        assertEquals(Map.of("b1", "b1"), received, "Consumable.conflating has to continue after exception");
+    }
+
+    @Test
+    void conflatingNullTest() {
+        Consumable<String> conflating = Consumable.conflating(value -> null, ignore -> { });
+        assertThrows(NullPointerException.class, () -> conflating.accept("a"), "Consumable.conflating has to reject null key");
+        assertThrows(NullPointerException.class, () -> conflating.accept(null), "Consumable.conflating has to reject null element");
+    }
+
+}
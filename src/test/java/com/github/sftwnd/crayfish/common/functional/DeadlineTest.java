@@ -0,0 +1,104 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineTest {
+
+    @Test
+    void expiredTest() {
+        Deadline expired = Deadline.after(Duration.ofMillis(-1));
+        Deadline future = Deadline.after(Duration.ofMinutes(1));
+        assertTrue(expired.isExpired(), "Deadline in the past has to be expired");
+        assertTrue(expired.remaining().isNegative(), "Deadline.remaining has to be negative for expired Deadline");
+        assertFalse(future.isExpired(), "Deadline in the future has not to be expired");
+        assertSame(DeadlineExceededException.deadlineExceeded(), assertThrows(DeadlineExceededException.class, expired::checkpoint, "Deadline.checkpoint has to throw"),
+                "Deadline.checkpoint has to throw preallocated exception");
+        assertEquals(0, DeadlineExceededException.deadlineExceeded().getStackTrace().length, "DeadlineExceededException has to be stackless");
+    }
+
+    @Test
+    void deadlinedTest() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        Functional<Integer, Integer> functional = Functional.<Integer, Integer>functional(x -> counter.incrementAndGet()).deadlined();
+        Supplyable<Integer> supplyable = Supplyable.supplyable(counter::incrementAndGet).deadlined();
+        Consumable<Integer> consumable = Consumable.<Integer>consumable(x -> counter.incrementAndGet()).deadlined();
+        functional.execute(1);
+        supplyable.call();
+        consumable.process(1);
+        Deadline.after(Duration.ofMinutes(1)).run(() -> {
+            functional.execute(1);
+            supplyable.call();
+            consumable.process(1);
+        });
+        assertEquals(6, counter.get(), "Decorated calls have to be executed before deadline");
+        Deadline expired = Deadline.after(Duration.ofNanos(1));
+        Thread.sleep(1);
+        Deadline current = Deadline.after(Duration.ofMinutes(1));
+        current.run(() -> {
+            assertThrows(DeadlineExceededException.class, () -> expired.run(() -> functional.execute(1)), "Functional.deadlined has to fail fast");
+            assertSame(current, Deadline.current(), "Deadline.current has to be restored");
+        });
+        assertNull(Deadline.current(), "Deadline.current has to be removed after call");
+        assertEquals(6, counter.get(), "Decorated calls have not to be executed after deadline");
+    }
+
+    @Test
+    void expiresDuringPipelineTest() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        Supplyable<Integer> slow = () -> {
+            Thread.sleep(20);
+            return counter.incrementAndGet();
+        };
+        Supplyable<Integer> pipeline = slow.furtherApply(Functional.<Integer, Integer>functional(x -> counter.incrementAndGet()).deadlined());
+        assertThrows(DeadlineExceededException.class, () -> Deadline.after(Duration.ofMillis(5)).call(pipeline), "Stage after deadline has to fail fast");
+        assertEquals(1, counter.get(), "Stage after deadline has not to be executed");
+    }
+
+    @Test
+    void nestedDeadlineIsNotLaterTest() throws Exception {
+        Deadline outer = Deadline.after(Duration.ofMillis(10));
+        Deadline inner = Deadline.after(Duration.ofMinutes(1));
+        outer.run(() -> inner.run(() -> assertSame(outer, Deadline.current(), "Nested Deadline has not to be later than outer one")));
+    }
+
+    @Test
+    void wrapForExecutorTest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+            Future<Deadline> propagated = deadline.call(() -> executor.submit(Deadline.wrap(Deadline::current)));
+            assertSame(deadline, propagated.get(1, TimeUnit.SECONDS), "Deadline.wrap has to propagate deadline to executor thread");
+            assertNull(executor.submit(Deadline::current).get(1, TimeUnit.SECONDS), "Deadline has to be restored on executor thread");
+            AtomicInteger runs = new AtomicInteger();
+            Future<?> expired = Deadline.after(Duration.ofMillis(10)).call(() -> {
+                Runnable runnable = Deadline.wrap((Runnable) runs::incrementAndGet);
+                Thread.sleep(20);
+                return executor.submit(runnable);
+            });
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> expired.get(1, TimeUnit.SECONDS),
+                    "Wrapped work has to fail on expired deadline");
+            assertTrue(exception.getCause() instanceof DeadlineExceededException, "DeadlineExceededException expected");
+            assertEquals(0, runs.get(), "Wrapped work has not to run after deadline");
+            Runnable plain = runs::incrementAndGet;
+            assertSame(plain, Deadline.wrap(plain), "Deadline.wrap without current deadline has to return original");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
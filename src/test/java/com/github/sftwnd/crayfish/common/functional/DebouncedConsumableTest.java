@@ -0,0 +1,56 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DebouncedConsumableTest {
+
+    @Test
+    void debounceLatestValueTest() throws InterruptedException {
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CountDownLatch cdl = new CountDownLatch(1);
+        Consumable<Integer> debounced = Consumable.<Integer>consumable(value -> {
+            received.add(value);
+            cdl.countDown();
+        }).debounce(Duration.ofMillis(50));
+        for (int i = 0; i < 100; i++) {
+            debounced.accept(i);
+        }
+        assertTrue(cdl.await(1, TimeUnit.SECONDS), "Consumable.debounce has to call consumable after quiet period");
+        Thread.sleep(100);
+        assertEquals(List.of(99), received, "Consumable.debounce has to call consumable once with the latest value");
+    }
+
+    @Test
+    void debounceQuietPeriodTest() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        Processable debounced = Processable.processable(counter::incrementAndGet).debounce(Duration.ofMillis(100));
+        long start = System.nanoTime();
+        debounced.run();
+        Thread.sleep(50);
+        debounced.run();
+        while (counter.get() == 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1)) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, counter.get(), "Processable.debounce has to run processable once");
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150), "Processable.debounce has to wait quiet period after the last call");
+    }
+
+    @Test
+    void debounceWrongPeriodTest() {
+        Consumable<Object> consumable = ignore -> { };
+        assertThrows(IllegalArgumentException.class, () -> consumable.debounce(Duration.ZERO), "Consumable.debounce has to reject zero period");
+        assertThrows(NullPointerException.class, () -> consumable.debounce(null), "Consumable.debounce has to reject null period");
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedMemoTest {
+
+    private Path file;
+    private AtomicInteger calls;
+    private Functional<Long, String> functional;
+
+    @BeforeEach
+    void startUp() throws IOException {
+        file = Files.createTempFile("mapped-memo", ".log");
+        calls = new AtomicInteger();
+        functional = key -> {
+            calls.incrementAndGet();
+            return key < 0 ? null : "value-" + key;
+        };
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private MappedMemo<Long, String> open() throws IOException {
+        return MappedMemo.mappedMemo(functional, file, OffHeapMemo.Serializer.longs(), OffHeapMemo.Serializer.strings(), 64 * 1024);
+    }
+
+    @Test
+    void survivesReopenTest() throws Exception {
+        try (MappedMemo<Long, String> memo = open()) {
+            for (long key = -1; key < 100; key++) {
+                memo.execute(key);
+                memo.execute(key);
+            }
+            assertEquals(101, calls.get(), "MappedMemo has to compute every key once");
+            assertEquals(101, memo.size(), "MappedMemo - wrong size");
+        }
+        try (MappedMemo<Long, String> reopened = open()) {
+            assertEquals(101, reopened.size(), "MappedMemo - records have to be loaded on reopen");
+            for (long key = 0; key < 100; key++) {
+                assertEquals("value-" + key, reopened.execute(key), "MappedMemo - wrong value after reopen");
+            }
+            assertNull(reopened.execute(-1L), "MappedMemo - null value has to be restored");
+            assertEquals(101, calls.get(), "MappedMemo has not to compute loaded keys");
+        }
+    }
+
+    @Test
+    void truncatedRecordTest() throws Exception {
+        int used;
+        try (MappedMemo<Long, String> memo = open()) {
+            memo.execute(1L);
+            memo.execute(2L);
+            used = memo.bytesUsed();
+        }
+        // Конец журнала указывает внутрь последней записи, как при падении во время записи
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, used - 3), 8);
+        }
+        try (MappedMemo<Long, String> reopened = open()) {
+            assertEquals(1, reopened.size(), "MappedMemo - truncated record has to be dropped");
+            assertEquals("value-2", reopened.execute(2L), "MappedMemo - wrong value");
+            assertEquals(3, calls.get(), "MappedMemo - truncated record has to be computed again");
+        }
+    }
+
+    @Test
+    void exclusiveFileTest() throws Exception {
+        MappedMemo<Long, String> memo = open();
+        try {
+            assertThrows(IOException.class, this::open, "MappedMemo - second instance on the same file has to fail");
+        } finally {
+            memo.close();
+        }
+        memo.close();
+        assertThrows(IllegalStateException.class, () -> memo.execute(1L), "MappedMemo - closed memo has to reject calls");
+        try (MappedMemo<Long, String> reopened = open()) {
+            assertEquals("value-1", reopened.execute(1L), "MappedMemo - file has to be released on close");
+        }
+    }
+
+    @Test
+    void fullAndClearTest() throws Exception {
+        try (MappedMemo<Long, String> memo = MappedMemo.mappedMemo(functional, file, OffHeapMemo.Serializer.longs(), OffHeapMemo.Serializer.strings(), 64)) {
+            for (long key = 0; key < 10; key++) {
+                assertEquals("value-" + key, memo.execute(key), "MappedMemo - wrong value");
+            }
+            assertEquals(2, memo.size(), "MappedMemo has to stop appending when full");
+            memo.clear();
+            assertEquals(0, memo.size(), "MappedMemo - size has to be zero after clear");
+            assertEquals(16, memo.bytesUsed(), "MappedMemo - only header has to be used after clear");
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> MappedMemo.mappedMemo(functional, file, OffHeapMemo.Serializer.longs(), OffHeapMemo.Serializer.strings(), 8),
+                "MappedMemo - IAE expected on too small capacity");
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MemoizedRecursionTest {
+
+    @Test
+    void fixMemoizesRecursiveCallsTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Functional<Integer, BigInteger> fibonacci = Functional.fix((self, n) -> {
+            calls.incrementAndGet();
+            return n < 2 ? BigInteger.valueOf(n) : self.execute(n - 1).add(self.execute(n - 2));
+        });
+        assertEquals(new BigInteger("354224848179261915075"), fibonacci.execute(100), "Functional.fix - wrong result");
+        assertEquals(101, calls.get(), "Functional.fix has to compute every value once");
+        assertEquals(BigInteger.valueOf(55), fibonacci.execute(10), "Functional.fix - wrong result on the second call");
+    }
+
+    @Test
+    void fixIntTest() throws Exception {
+        Functional<Integer, Long> paths = Functional.fixInt((self, n) -> n <= 1 ? 1L : self.execute(n - 1) + self.execute(n - 2) + self.execute(n / 2), false);
+        Functional<Integer, Long> expected = Functional.fix((self, n) -> n <= 1 ? 1L : self.execute(n - 1) + self.execute(n - 2) + self.execute(n / 2));
+        assertEquals(expected.execute(60), paths.execute(60), "Functional.fixInt - wrong result");
+    }
+
+    @Test
+    void fixLongIterativeDeepRecursionTest() throws Exception {
+        Functional<Long, Long> sum = Functional.fixLong((self, n) -> n == 0L ? 0L : n + self.execute(n - 1), true);
+        assertEquals(500_000L * 500_001L / 2, sum.execute(500_000L), "Functional.fixLong iterative - wrong result");
+    }
+
+    @Test
+    void fixIterativeTest() throws Exception {
+        Functional<Integer, Long> fibonacci = Functional.fix((self, n) -> n < 2 ? (long) n : self.execute(n - 1) + self.execute(n - 2), true);
+        assertEquals(12586269025L, fibonacci.execute(50), "Functional.fix iterative - wrong result");
+        Functional<Integer, Long> primitive = Functional.fixInt((self, n) -> n < 2 ? (long) n : self.execute(n - 1) + self.execute(n - 2), true);
+        assertEquals(12586269025L, primitive.execute(50), "Functional.fixInt iterative - wrong result");
+    }
+
+    @Test
+    void fixNullResultTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Functional<Integer, String> functional = Functional.fix((self, n) -> {
+            calls.incrementAndGet();
+            return n == 0 ? null : self.execute(n - 1) == null && self.execute(n - 1) == null ? null : "";
+        });
+        assertNull(functional.execute(3), "Functional.fix - null result expected");
+        assertEquals(4, calls.get(), "Functional.fix has to memoize null results");
+    }
+
+    @Test
+    void fixExceptionTest() {
+        Functional<Integer, Integer> functional = Functional.fix((self, n) -> {
+            if (n == 0) {
+                throw new IOException("bottom");
+            }
+            return self.execute(n - 1);
+        }, true);
+        assertThrows(IOException.class, () -> functional.execute(10), "Functional.fix has to propagate exceptions");
+    }
+
+    @Test
+    void fixCycleTest() {
+        Functional<Integer, Integer> functional = Functional.fix((self, n) -> self.execute(1 - n), true);
+        assertThrows(IllegalStateException.class, () -> functional.execute(0), "Functional.fix iterative has to detect cycles");
+    }
+
+    @Test
+    void fixNullBodyTest() {
+        assertThrows(NullPointerException.class, () -> Functional.fix(null), "Functional.fix - NPE expected on null body");
+    }
+
+}
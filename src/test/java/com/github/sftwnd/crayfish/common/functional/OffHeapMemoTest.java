@@ -0,0 +1,88 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapMemoTest {
+
+    @Test
+    void memoizeTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        OffHeapMemo<Long, String> memo = OffHeapMemo.offHeapMemo(key -> {
+            calls.incrementAndGet();
+            return "value-" + key;
+        }, OffHeapMemo.Serializer.longs(), OffHeapMemo.Serializer.strings(), 1024, 64);
+        for (long key = 0; key < 100; key++) {
+            assertEquals("value-" + key, memo.execute(key), "OffHeapMemo - wrong value on miss");
+        }
+        for (long key = 0; key < 100; key++) {
+            assertEquals("value-" + key, memo.execute(key), "OffHeapMemo - wrong value on hit");
+        }
+        assertEquals(100, calls.get(), "OffHeapMemo has to compute every key once");
+        assertEquals(100L, memo.size(), "OffHeapMemo - wrong size");
+        memo.clear();
+        assertEquals(0L, memo.size(), "OffHeapMemo - size has to be zero after clear");
+        memo.execute(1L);
+        assertEquals(101, calls.get(), "OffHeapMemo has to compute again after clear");
+    }
+
+    @Test
+    void clockEvictionTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        OffHeapMemo<Integer, Integer> memo = OffHeapMemo.offHeapMemo(key -> {
+            calls.incrementAndGet();
+            return key * 2;
+        }, OffHeapMemo.Serializer.ints(), OffHeapMemo.Serializer.ints(), OffHeapMemo.WAYS, 32);
+        for (int key = 0; key < OffHeapMemo.WAYS; key++) {
+            memo.execute(key);
+        }
+        // Обращение к ключу 0 защищает его от первого вытеснения
+        memo.execute(0);
+        assertEquals(6, memo.execute(3), "OffHeapMemo - wrong value");
+        assertEquals(200, memo.execute(100), "OffHeapMemo - wrong value on eviction");
+        assertEquals(OffHeapMemo.WAYS, memo.size(), "OffHeapMemo - size has to be bounded by capacity");
+        assertEquals(1L, memo.evictions(), "OffHeapMemo - wrong eviction count");
+        int before = calls.get();
+        memo.execute(0);
+        assertEquals(before, calls.get(), "OffHeapMemo - referenced entry has not to be evicted");
+    }
+
+    @Test
+    void nullAndOversizedTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        OffHeapMemo<String, String> memo = OffHeapMemo.offHeapMemo(key -> {
+            calls.incrementAndGet();
+            return key.isEmpty() ? null : key.repeat(10);
+        }, OffHeapMemo.Serializer.strings(), OffHeapMemo.Serializer.strings(), 64, 40);
+        assertNull(memo.execute(""), "OffHeapMemo - null value expected");
+        assertNull(memo.execute(""), "OffHeapMemo - null value expected on hit");
+        assertEquals(1, calls.get(), "OffHeapMemo has to memoize null values");
+        assertEquals("ab".repeat(10), memo.execute("ab"), "OffHeapMemo - wrong value");
+        assertEquals("ab".repeat(10), memo.execute("ab"), "OffHeapMemo - wrong value");
+        assertEquals(2, calls.get(), "OffHeapMemo has to memoize fitting entries");
+        assertEquals("abc".repeat(10), memo.execute("abc"), "OffHeapMemo - wrong value");
+        assertEquals("abc".repeat(10), memo.execute("abc"), "OffHeapMemo - wrong value");
+        assertEquals(4, calls.get(), "OffHeapMemo has not to memoize oversized entries");
+        assertTrue(memo.size() <= 2L, "OffHeapMemo - oversized entry has not to be stored");
+    }
+
+    @Test
+    void exceptionTest() {
+        OffHeapMemo<Integer, Integer> memo = OffHeapMemo.offHeapMemo(key -> {
+            throw new IOException("load");
+        }, OffHeapMemo.Serializer.ints(), OffHeapMemo.Serializer.ints(), 16, 32);
+        assertThrows(IOException.class, () -> memo.execute(1), "OffHeapMemo has to propagate exceptions");
+        assertEquals(0L, memo.size(), "OffHeapMemo has not to store failed results");
+        assertThrows(IllegalArgumentException.class,
+                () -> OffHeapMemo.offHeapMemo(key -> key, OffHeapMemo.Serializer.ints(), OffHeapMemo.Serializer.ints(), 16, 16),
+                "OffHeapMemo - IAE expected on too small slot");
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OnceProcessableTest {
+
+    @Test
+    void onceTest() {
+        AtomicInteger counter = new AtomicInteger();
+        Processable once = Processable.processable(counter::incrementAndGet).once();
+        for (int i = 0; i < 10; i++) {
+            once.run();
+        }
+        assertEquals(1, counter.get(), "Processable.once has to run processable only once");
+    }
+
+    @Test
+    void onceRetryAfterExceptionTest() {
+        AtomicInteger counter = new AtomicInteger();
+        OnceProcessable once = new OnceProcessable(() -> {
+            if (counter.incrementAndGet() == 1) throw new IllegalStateException();
+        });
+        assertThrows(IllegalStateException.class, once::process, "Processable.once has to throw right exception");
+        assertFalse(once.isDone(), "Processable.once has not to be done after exception");
+        once.run();
+        assertTrue(once.isDone(), "Processable.once has to be done after successful run");
+        once.run();
+        assertEquals(2, counter.get(), "Processable.once has to retry after exception only");
+    }
+
+    @Test
+    void onceConcurrentCallTest() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger counter = new AtomicInteger();
+        Processable once = Processable.processable(() -> {
+            counter.incrementAndGet();
+            started.countDown();
+            release.await();
+        }).once();
+        Thread thread = new Thread(once);
+        thread.start();
+        assertTrue(started.await(1, TimeUnit.SECONDS), "Processable.once is not started");
+        once.run();
+        release.countDown();
+        thread.join();
+        once.run();
+        assertEquals(1, counter.get(), "Processable.once has not to run processable concurrently");
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PredicableTest {
+
+    @Test
+    void verifyTest() throws Exception {
+        Predicable<Integer> positive = Predicable.predicable(x -> x > 0);
+        Predicable<Integer> even = x -> x % 2 == 0;
+        assertTrue(positive.and(even).verify(2), "Predicable.and - wrong result");
+        assertFalse(positive.and(even).verify(1), "Predicable.and - wrong result");
+        assertTrue(positive.or(even).verify(-2), "Predicable.or - wrong result");
+        assertFalse(positive.or(even).verify(-1), "Predicable.or - wrong result");
+        assertTrue(positive.negate().verify(-1), "Predicable.negate - wrong result");
+        assertTrue(positive.functional().execute(1), "Predicable.functional - wrong result");
+        assertTrue(Predicable.cast((Predicate<Integer>) x -> x == 0).verify(0), "Predicable.cast - wrong result");
+    }
+
+    @Test
+    void shortCircuitTest() throws Exception {
+        Predicable<Integer> failed = x -> { throw new IOException(); };
+        Predicable<Integer> never = x -> false;
+        Predicable<Integer> always = x -> true;
+        assertFalse(never.and(failed).verify(1), "Predicable.and has not to verify second condition after false");
+        assertTrue(always.or(failed).verify(1), "Predicable.or has not to verify second condition after true");
+        assertThrows(IOException.class, () -> always.and(failed).verify(1), "Predicable.verify has to throw checked exception");
+        assertThrows(IOException.class, () -> always.and(failed).test(1), "Predicable.test has to throw exception");
+        assertThrows(IOException.class, () -> failed.processable(1).process(), "Predicable.processable has to throw exception");
+    }
+
+}
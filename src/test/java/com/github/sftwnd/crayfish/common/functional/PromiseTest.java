@@ -0,0 +1,177 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromiseTest {
+
+    @Test
+    void completeTest() throws Exception {
+        assertFalse(promise.isDone(), "New Promise has not to be done");
+        assertTrue(promise.complete("value"), "Promise.complete has to set result");
+        assertFalse(promise.complete("other"), "Promise.complete has to set result only once");
+        assertFalse(promise.completeExceptionally(new IllegalStateException()), "Promise.completeExceptionally has not to override result");
+        assertTrue(promise.isDone(), "Promise has to be done");
+        assertEquals("value", promise.get(), "Promise.get - wrong result");
+        assertEquals("value", promise.getNow("absent"), "Promise.getNow - wrong result");
+    }
+
+    @Test
+    void completeNullTest() throws Exception {
+        assertTrue(promise.complete(null), "Promise.complete(null) has to set result");
+        assertTrue(promise.isDone(), "Promise has to be done");
+        assertNull(promise.get(1, TimeUnit.SECONDS), "Promise.get - wrong result");
+    }
+
+    @Test
+    void completeExceptionallyTest() {
+        IllegalStateException exception = new IllegalStateException();
+        assertTrue(promise.completeExceptionally(exception), "Promise.completeExceptionally has to set result");
+        assertTrue(promise.isCompletedExceptionally(), "Promise has to be completed exceptionally");
+        ExecutionException eex = assertThrows(ExecutionException.class, promise::get, "Promise.get has to throw ExecutionException");
+        assertSame(exception, eex.getCause(), "Promise.get has to throw ExecutionException with right cause");
+    }
+
+    @Test
+    void cancelTest() {
+        assertTrue(promise.cancel(), "Promise.cancel has to set result");
+        assertTrue(promise.isCancelled(), "Promise has to be cancelled");
+        assertThrows(CancellationException.class, promise::get, "Promise.get has to throw CancellationException");
+    }
+
+    @Test
+    void getWaitsForCompletionTest() throws Exception {
+        Thread thread = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+            }
+            promise.complete("value");
+        });
+        thread.start();
+        assertEquals("value", promise.get(), "Promise.get has to wait for result");
+        thread.join();
+    }
+
+    @Test
+    void getTimeoutTest() {
+        assertThrows(TimeoutException.class, () -> promise.get(10, TimeUnit.MILLISECONDS), "Promise.get has to throw TimeoutException");
+        assertEquals("absent", assertDoesNotThrow(() -> promise.getNow("absent"), "Promise.getNow throws exception"), "Promise.getNow has to return absent value");
+    }
+
+    @Test
+    void getInterruptedTest() {
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, promise::get, "Promise.get has to throw InterruptedException");
+        assertFalse(Thread.currentThread().isInterrupted(), "Interrupted flag has to be cleared");
+        assertEquals(0, promise.waiting(), "Interrupted waiter has to be unlinked");
+    }
+
+    @Test
+    void getTimeoutUnlinkTest() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            assertThrows(TimeoutException.class, () -> promise.get(1, TimeUnit.NANOSECONDS), "Promise.get has to throw TimeoutException");
+        }
+        assertEquals(0, promise.waiting(), "Timed out waiters have to be unlinked");
+        Thread thread = new Thread(() -> assertDoesNotThrow(() -> promise.get(), "Promise.get throws exception"));
+        thread.start();
+        while (promise.waiting() == 0) {
+            Thread.onSpinWait();
+        }
+        assertThrows(TimeoutException.class, () -> promise.get(1, TimeUnit.MILLISECONDS), "Promise.get has to throw TimeoutException");
+        assertEquals(1, promise.waiting(), "Waiting thread has to stay linked");
+        promise.complete("value");
+        thread.join();
+    }
+
+    @Test
+    void toCompletableFutureBeforeCompletionTest() throws Exception {
+        CompletableFuture<String> future = promise.toCompletableFuture();
+        assertSame(future, promise.toCompletableFuture(), "Promise.toCompletableFuture has to return the same future");
+        assertFalse(future.isDone(), "CompletableFuture has not to be done");
+        promise.complete("value");
+        assertEquals("value", future.get(), "CompletableFuture has to be completed with Promise");
+    }
+
+    @Test
+    void toCompletionStageAfterCompletionTest() {
+        IllegalStateException exception = new IllegalStateException();
+        promise.completeExceptionally(exception);
+        CompletableFuture<String> future = promise.toCompletionStage().toCompletableFuture();
+        assertTrue(future.isCompletedExceptionally(), "CompletableFuture has to be completed exceptionally");
+        ExecutionException eex = assertThrows(ExecutionException.class, future::get, "CompletableFuture has to be completed exceptionally");
+        assertSame(exception, eex.getCause(), "CompletableFuture has to be completed with the same exception");
+    }
+
+    @Test
+    void completableTest() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        Promise<Object> processable = new Promise<>();
+        Processable.processable(counter::incrementAndGet).completable(processable).run();
+        Promise<Integer> supplyable = new Promise<>();
+        Supplyable.supplyable(() -> 1).completable(supplyable).run();
+        Promise<Object> consumable = new Promise<>();
+        Consumable.consumable(ignore -> counter.incrementAndGet()).completable(consumable).accept(1);
+        Promise<Integer> functional = new Promise<>();
+        Functional.<Integer, Integer>functional(x -> x + 1).completable(functional).accept(1);
+        Promise<Object> biconsumable = new Promise<>();
+        BiConsumable.<Integer, Integer>biconsumable((x, y) -> counter.incrementAndGet()).completable(biconsumable).accept(1, 2);
+        Promise<Integer> bifunctional = new Promise<>();
+        BiFunctional.<Integer, Integer, Integer>bifunctional(Integer::sum).completable(bifunctional).accept(1, 2);
+        Promise<Object> treconsumable = new Promise<>();
+        TreConsumable.<Integer, Integer, Integer>treconsumable((x, y, z) -> counter.incrementAndGet()).completable(treconsumable).accept(1, 2, 3);
+        Promise<Integer> trefunctional = new Promise<>();
+        TreFunctional.<Integer, Integer, Integer, Integer>trefunctional((x, y, z) -> x + y + z).completable(trefunctional).accept(1, 2, 3);
+        assertNull(processable.get(), "Processable.completable(Promise) - wrong result");
+        assertEquals(1, supplyable.get(), "Supplyable.completable(Promise) - wrong result");
+        assertNull(consumable.get(), "Consumable.completable(Promise) - wrong result");
+        assertEquals(2, functional.get(), "Functional.completable(Promise) - wrong result");
+        assertNull(biconsumable.get(), "BiConsumable.completable(Promise) - wrong result");
+        assertEquals(3, bifunctional.get(), "BiFunctional.completable(Promise) - wrong result");
+        assertNull(treconsumable.get(), "TreConsumable.completable(Promise) - wrong result");
+        assertEquals(6, trefunctional.get(), "TreFunctional.completable(Promise) - wrong result");
+        assertEquals(4, counter.get(), "completable(Promise) has to call methods once");
+    }
+
+    @Test
+    void completableExceptionallyTest() {
+        IllegalStateException exception = new IllegalStateException();
+        Promise<Integer> promise = new Promise<>();
+        Functional.<Integer, Integer>functional(ignore -> { throw exception; }).completable(promise).accept(1);
+        ExecutionException eex = assertThrows(ExecutionException.class, promise::get, "Promise has to be completed exceptionally");
+        assertSame(exception, eex.getCause(), "Promise has to be completed with the same exception");
+    }
+
+    @Test
+    void completableOnCompletedPromiseTest() {
+        AtomicInteger counter = new AtomicInteger();
+        Promise<Object> promise = new Promise<>();
+        promise.complete(null);
+        Processable.processable(counter::incrementAndGet).completable(promise).run();
+        assertEquals(0, counter.get(), "completable(Promise) has not to call method on completed Promise");
+    }
+
+    @BeforeEach
+    void startUp() {
+        this.promise = new Promise<>();
+    }
+
+    private Promise<String> promise;
+
+}
@@ -0,0 +1,88 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitTest {
+
+    @Test
+    void burstTest() {
+        RateLimit rateLimit = RateLimit.rateLimit(1.0, 3);
+        assertTrue(rateLimit.tryAcquire(), "First permit of burst has to be acquired");
+        assertTrue(rateLimit.tryAcquire(), "Second permit of burst has to be acquired");
+        assertTrue(rateLimit.tryAcquire(), "Third permit of burst has to be acquired");
+        assertFalse(rateLimit.tryAcquire(), "Permit over burst has not to be acquired");
+        RateLimit slow = RateLimit.rateLimit(1e-3, 1_000_000);
+        assertTrue(slow.tryAcquire(), "Permit of long burst window has to be acquired");
+        assertTrue(slow.tryAcquire(), "Permit of long burst window has to be acquired");
+    }
+
+    @Test
+    void refillTest() throws InterruptedException {
+        RateLimit rateLimit = RateLimit.rateLimit(100.0, 1);
+        assertTrue(rateLimit.tryAcquire(), "Permit has to be acquired");
+        assertFalse(rateLimit.tryAcquire(), "Permit has not to be acquired before refill");
+        Thread.sleep(20);
+        assertTrue(rateLimit.tryAcquire(), "Permit has to be acquired after refill");
+    }
+
+    @Test
+    void sharedRateLimitTest() throws Exception {
+        RateLimit rateLimit = RateLimit.rateLimit(0.001, 2);
+        AtomicInteger counter = new AtomicInteger();
+        Functional<Integer, Integer> functional = Functional.<Integer, Integer>functional(counter::addAndGet).rateLimited(rateLimit);
+        Processable processable = Processable.processable(counter::incrementAndGet).rateLimited(rateLimit);
+        assertEquals(2, functional.execute(2), "Call within burst has to be executed");
+        processable.process();
+        RejectedExecutionException first = assertThrows(RejectedExecutionException.class, () -> functional.execute(1), "Call over rate has to be rejected");
+        first.addSuppressed(new IllegalStateException());
+        RejectedExecutionException second = assertThrows(RejectedExecutionException.class, processable::process, "Call over rate has to be rejected");
+        assertNotSame(first, second, "Each rejection has to throw its own exception");
+        assertEquals(0, second.getSuppressed().length, "Suppressed exceptions have not to pass to another rejection");
+        assertEquals(0, second.getStackTrace().length, "Rejection has to be thrown without stack trace");
+        assertEquals(3, counter.get(), "Rejected calls have not to be executed");
+        assertEquals(2L, rateLimit.rejected(), "RateLimit.rejected - wrong value");
+    }
+
+    @Test
+    void rateLimitedTest() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        Supplyable<Integer> supplyable = Supplyable.supplyable(counter::incrementAndGet).rateLimited(0.001, 1);
+        Consumable<Integer> consumable = Consumable.<Integer>consumable(counter::addAndGet).rateLimited(0.001, 1);
+        BiConsumable<Integer, Integer> biconsumable = BiConsumable.<Integer, Integer>biconsumable((l, r) -> counter.addAndGet(l + r)).rateLimited(0.001, 1);
+        BiFunctional<Integer, Integer, Integer> bifunctional = BiFunctional.<Integer, Integer, Integer>bifunctional((l, r) -> counter.addAndGet(l + r)).rateLimited(0.001, 1);
+        TreConsumable<Integer, Integer, Integer> treconsumable = TreConsumable.<Integer, Integer, Integer>treconsumable((l, m, r) -> counter.addAndGet(l + m + r)).rateLimited(0.001, 1);
+        TreFunctional<Integer, Integer, Integer, Integer> trefunctional = TreFunctional.<Integer, Integer, Integer, Integer>trefunctional((l, m, r) -> counter.addAndGet(l + m + r)).rateLimited(0.001, 1);
+        supplyable.call();
+        consumable.process(1);
+        biconsumable.process(1, 0);
+        bifunctional.execute(1, 0);
+        treconsumable.process(1, 0, 0);
+        trefunctional.execute(1, 0, 0);
+        assertEquals(6, counter.get(), "Calls within rate have to be executed");
+        assertThrows(RejectedExecutionException.class, supplyable::call, "Supplyable over rate has to be rejected");
+        assertThrows(RejectedExecutionException.class, () -> consumable.process(1), "Consumable over rate has to be rejected");
+        assertThrows(RejectedExecutionException.class, () -> biconsumable.process(1, 0), "BiConsumable over rate has to be rejected");
+        assertThrows(RejectedExecutionException.class, () -> bifunctional.execute(1, 0), "BiFunctional over rate has to be rejected");
+        assertThrows(RejectedExecutionException.class, () -> treconsumable.process(1, 0, 0), "TreConsumable over rate has to be rejected");
+        assertThrows(RejectedExecutionException.class, () -> trefunctional.execute(1, 0, 0), "TreFunctional over rate has to be rejected");
+        assertEquals(6, counter.get(), "Calls over rate have not to be executed");
+    }
+
+    @Test
+    void wrongParametersTest() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.rateLimit(0.0, 1), "permitsPerSecond has to be positive");
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.rateLimit(1.0, 0), "burst has to be positive");
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.rateLimit(1e-12, 1), "Interval has to fit into long");
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.rateLimit(1e-3, 10_000_000), "Burst window has to fit into long");
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceMemoTest {
+
+    @Test
+    void weakIdentityKeysTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Functional<String, Integer> functional = Functional.<String, Integer>functional(key -> {
+            calls.incrementAndGet();
+            return key.length();
+        }).memoizedWeakly();
+        String key = new String("request");
+        assertEquals(7, functional.execute(key), "Functional::memoizedWeakly - wrong value");
+        assertEquals(7, functional.execute(key), "Functional::memoizedWeakly - wrong value on hit");
+        assertEquals(1, calls.get(), "Functional::memoizedWeakly has to memoize the same key object");
+        assertEquals(7, functional.execute(new String("request")), "Functional::memoizedWeakly - wrong value");
+        assertEquals(2, calls.get(), "Functional::memoizedWeakly has to compare keys by identity");
+    }
+
+    @Test
+    void weakKeyClearedTest() throws Exception {
+        ReferenceMemo<Object, String> memo = new ReferenceMemo<>(Object::toString, true, false);
+        Object key = new Object();
+        memo.execute(key);
+        memo.execute(new Object());
+        assertEquals(2, memo.size(), "ReferenceMemo - wrong size");
+        Reference<?> reference = memo.reference(key);
+        assertNotNull(reference, "ReferenceMemo - weak key has to be stored");
+        reference.clear();
+        assertTrue(reference.enqueue(), "ReferenceMemo - weak key has to be registered in queue");
+        assertEquals(1, memo.size(), "ReferenceMemo - entry of cleared key has to be drained");
+    }
+
+    @Test
+    void softValueClearedTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ReferenceMemo<Integer, String> memo = new ReferenceMemo<>(key -> "value-" + calls.incrementAndGet(), false, true);
+        assertEquals("value-1", memo.execute(1), "ReferenceMemo - wrong value");
+        Reference<?> reference = memo.reference(1);
+        assertNotNull(reference, "ReferenceMemo - soft value has to be stored");
+        reference.clear();
+        assertTrue(reference.enqueue(), "ReferenceMemo - soft value has to be registered in queue");
+        assertEquals(0, memo.size(), "ReferenceMemo - entry of cleared value has to be drained");
+        assertEquals("value-2", memo.execute(1), "ReferenceMemo - cleared value has to be recomputed");
+    }
+
+    @Test
+    void softValuesTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Functional<Integer, String> functional = Functional.<Integer, String>functional(key -> {
+            calls.incrementAndGet();
+            return key == null || key == 0 ? null : "value-" + key;
+        }).memoizedSoftly();
+        assertEquals("value-1000", functional.execute(1000), "Functional::memoizedSoftly - wrong value");
+        assertEquals("value-1000", functional.execute(Integer.valueOf(1000)), "Functional::memoizedSoftly - wrong value on hit");
+        assertNull(functional.execute(0), "Functional::memoizedSoftly - null value expected");
+        assertNull(functional.execute(0), "Functional::memoizedSoftly - null value expected on hit");
+        assertEquals(2, calls.get(), "Functional::memoizedSoftly has to compare keys by equals");
+        assertNull(functional.execute(null), "Functional::memoizedSoftly - null parameter has to be passed through");
+        assertNull(functional.execute(null), "Functional::memoizedSoftly - null parameter has to be passed through");
+        assertEquals(4, calls.get(), "Functional::memoizedSoftly has not to memoize null parameter");
+    }
+
+    @Test
+    void weakKeysSoftValuesTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Functional<StringBuilder, String> functional = Functional.<StringBuilder, String>functional(key -> {
+            calls.incrementAndGet();
+            return key.toString();
+        }).memoizedWeaklySoftly();
+        StringBuilder key = new StringBuilder("meta");
+        assertEquals("meta", functional.execute(key), "Functional::memoizedWeaklySoftly - wrong value");
+        key.append("-changed");
+        assertEquals("meta", functional.execute(key), "Functional::memoizedWeaklySoftly - identity key has to hit");
+        assertEquals(1, calls.get(), "Functional::memoizedWeaklySoftly - wrong call count");
+    }
+
+}
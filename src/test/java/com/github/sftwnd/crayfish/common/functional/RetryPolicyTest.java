@@ -0,0 +1,165 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+
+    private static final RetryPolicy POLICY = RetryPolicy.retryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5));
+
+    @Test
+    void backoffTest() {
+        RetryPolicy policy = RetryPolicy.retryPolicy(100, Duration.ofMillis(1), Duration.ofMillis(5));
+        assertEquals(Duration.ofMillis(1).toNanos(), policy.backoff(1), "RetryPolicy.backoff for first retry");
+        assertEquals(Duration.ofMillis(2).toNanos(), policy.backoff(2), "RetryPolicy.backoff for second retry");
+        assertEquals(Duration.ofMillis(4).toNanos(), policy.backoff(3), "RetryPolicy.backoff for third retry");
+        assertEquals(Duration.ofMillis(5).toNanos(), policy.backoff(4), "RetryPolicy.backoff has to be limited by maxBackoff");
+        assertEquals(Duration.ofMillis(5).toNanos(), policy.backoff(99), "RetryPolicy.backoff has not to overflow");
+    }
+
+    @Test
+    void retryingTest() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Supplyable<Integer> supplyable = Supplyable.<Integer>supplyable(() -> {
+            if (attempts.incrementAndGet() < 3) throw new IllegalStateException();
+            return attempts.get();
+        }).retrying(POLICY);
+        assertEquals(3, supplyable.call(), "Supplyable.retrying has to return result of successful attempt");
+    }
+
+    @Test
+    void attemptsExhaustedTest() {
+        AtomicInteger attempts = new AtomicInteger();
+        IllegalStateException exception = new IllegalStateException();
+        Functional<Integer, Integer> functional = Functional.<Integer, Integer>functional(x -> {
+            attempts.incrementAndGet();
+            throw exception;
+        }).retrying(POLICY);
+        assertSame(exception, assertThrows(IllegalStateException.class, () -> functional.execute(1), "Last exception has to be thrown"),
+                "Last exception has to be thrown");
+        assertEquals(3, attempts.get(), "Functional.retrying has to make maxAttempts attempts");
+    }
+
+    @Test
+    void retryOnTest() {
+        AtomicInteger attempts = new AtomicInteger();
+        BiFunctional<Integer, Integer, Integer> bifunctional = BiFunctional.<Integer, Integer, Integer>bifunctional((l, r) -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException();
+        }).retrying(POLICY.retryOn(IllegalStateException.class::isInstance));
+        assertThrows(IllegalArgumentException.class, () -> bifunctional.execute(1, 2), "Not retryable exception has to be thrown");
+        assertEquals(1, attempts.get(), "Not retryable exception has not to be retried");
+        Processable processable = Processable.processable(() -> {
+            attempts.incrementAndGet();
+            throw DeadlineExceededException.deadlineExceeded();
+        }).retrying(POLICY);
+        assertThrows(DeadlineExceededException.class, processable::process, "DeadlineExceededException has to be thrown");
+        assertEquals(2, attempts.get(), "DeadlineExceededException has not to be retried by default");
+    }
+
+    @Test
+    void budgetTest() {
+        RetryBudget budget = RetryBudget.retryBudget(0.1, 2);
+        AtomicInteger attempts = new AtomicInteger();
+        Processable processable = Processable.processable(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException();
+        }).retrying(RetryPolicy.retryPolicy(10, Duration.ofNanos(1), Duration.ofNanos(1)).budget(budget));
+        assertThrows(IllegalStateException.class, processable::process, "Exception has to be thrown");
+        assertEquals(3, attempts.get(), "Retries have to be limited by budget");
+        assertThrows(IllegalStateException.class, processable::process, "Exception has to be thrown");
+        assertEquals(4, attempts.get(), "Retries have not to be allowed with exhausted budget");
+        for (int i = 0; i < 9; i++) {
+            budget.deposit();
+        }
+        assertEquals(1.0, budget.available(), "Deposits of first calls have to refill budget");
+    }
+
+    @Test
+    void retryingAsyncTest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicInteger attempts = new AtomicInteger();
+            Functional<Integer, CompletableFuture<Integer>> functional = Functional.<Integer, Integer>functional(x -> {
+                if (attempts.incrementAndGet() < 3) throw new IllegalStateException();
+                return x;
+            }).retryingAsync(POLICY, executor);
+            assertEquals(7, functional.execute(7).get(1, TimeUnit.SECONDS), "retryingAsync has to complete with result of successful attempt");
+            assertEquals(3, attempts.get(), "retryingAsync has to retry failed attempts");
+            IllegalStateException exception = new IllegalStateException();
+            Supplyable<CompletableFuture<Void>> supplyable = Processable.processable(() -> { throw exception; }).retryingAsync(POLICY, executor);
+            ExecutionException failed = assertThrows(ExecutionException.class, () -> supplyable.call().get(1, TimeUnit.SECONDS), "retryingAsync has to fail");
+            assertSame(exception, failed.getCause(), "retryingAsync has to complete with last exception");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void deadlineStopsRetryTest() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Supplyable<Integer> supplyable = Supplyable.<Integer>supplyable(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException();
+        }).retrying(RetryPolicy.retryPolicy(100, Duration.ofSeconds(10), Duration.ofSeconds(10)));
+        long started = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> Deadline.after(Duration.ofMillis(1)).call(supplyable), "Exception has to be thrown");
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5), "Retry pause has not to outlive Deadline");
+    }
+
+    @Test
+    void deadlineStopsRetryAsyncTest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Deadline deadline = Deadline.after(Duration.ofMillis(200));
+            AtomicInteger attempts = new AtomicInteger();
+            AtomicInteger withoutDeadline = new AtomicInteger();
+            Supplyable<CompletableFuture<Integer>> supplyable = Supplyable.<Integer>supplyable(() -> {
+                attempts.incrementAndGet();
+                if (Deadline.current() == null) withoutDeadline.incrementAndGet();
+                throw new IllegalStateException();
+            }).retryingAsync(RetryPolicy.retryPolicy(1000, Duration.ofMillis(20), Duration.ofMillis(20)), executor);
+            CompletableFuture<Integer> future = deadline.call(supplyable);
+            assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS), "retryingAsync has to fail when Deadline expires");
+            assertTrue(attempts.get() > 1, "retryingAsync has to retry within Deadline");
+            assertTrue(attempts.get() < 1000, "retryingAsync has not to retry after Deadline");
+            assertEquals(0, withoutDeadline.get(), "Every attempt has to be executed with caller's Deadline");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void deadlineKeepsBudgetTest() {
+        RetryBudget budget = RetryBudget.retryBudget(0.1, 2);
+        AtomicInteger attempts = new AtomicInteger();
+        Processable processable = Processable.processable(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException();
+        }).retrying(RetryPolicy.retryPolicy(10, Duration.ofDays(365), Duration.ofDays(365)).budget(budget));
+        assertThrows(IllegalStateException.class, () -> Deadline.after(Duration.ofSeconds(1)).run(processable), "Exception has to be thrown");
+        assertEquals(1, attempts.get(), "Retry beyond Deadline has not to be executed");
+        assertEquals(2.0, budget.available(), "Retry cancelled by Deadline has not to spend budget");
+    }
+
+    @Test
+    void wrongParametersTest() {
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.retryPolicy(0, Duration.ofMillis(1), Duration.ofMillis(1)), "maxAttempts has to be positive");
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.retryPolicy(1, Duration.ofMillis(2), Duration.ofMillis(1)), "maxBackoff has to be not less than initialBackoff");
+        assertThrows(IllegalArgumentException.class, () -> RetryBudget.retryBudget(0.0, 1), "ratio has to be positive");
+        assertThrows(IllegalArgumentException.class, () -> RetryBudget.retryBudget(0.1, 0), "maxTokens has to be positive");
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.sftwnd.crayfish.common.functional.RingDispatcher.WaitStrategy.busySpin;
+import static com.github.sftwnd.crayfish.common.functional.RingDispatcher.WaitStrategy.parking;
+import static com.github.sftwnd.crayfish.common.functional.RingDispatcher.WaitStrategy.yielding;
+import static com.github.sftwnd.crayfish.common.functional.RingDispatcher.dispatcher;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingDispatcherTest {
+
+    @Test
+    void dispatcherChainOrderTest() {
+        List<Integer> first = new ArrayList<>();
+        List<Integer> second = new ArrayList<>();
+        AtomicInteger violations = new AtomicInteger();
+        AtomicInteger handled = new AtomicInteger();
+        RingDispatcher<Integer> ring = dispatcher(8, yielding(), value -> {
+            first.add(value);
+            handled.incrementAndGet();
+        }, value -> {
+            if (handled.get() <= value) violations.incrementAndGet();
+            second.add(value);
+        });
+        for (int i = 0; i < 10_000; i++) {
+            ring.accept(i);
+        }
+        ring.close();
+        assertEquals(10_000, first.size(), "RingDispatcher: first handler lost events");
+        assertEquals(10_000, second.size(), "RingDispatcher: second handler lost events");
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, second.get(i), "RingDispatcher has to keep order of events");
+        }
+        assertEquals(0, violations.get(), "RingDispatcher: second handler has to see event after the first one");
+        assertEquals(9_999L, ring.cursor(), "RingDispatcher.cursor - wrong value");
+    }
+
+    @Test
+    void dispatcherMultiProducerTest() throws InterruptedException {
+        AtomicInteger sum = new AtomicInteger();
+        RingDispatcher<Integer> ring = dispatcher(64, busySpin(), sum::addAndGet);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> { for (int j = 1; j <= 1_000; j++) ring.accept(j); });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        ring.close();
+        assertEquals(4 * 500_500, sum.get(), "RingDispatcher lost events from concurrent producers");
+    }
+
+    @Test
+    void dispatcherEndOfBatchTest() {
+        AtomicInteger batches = new AtomicInteger();
+        AtomicInteger events = new AtomicInteger();
+        List<BiConsumable<Integer, Boolean>> handlers = List.of((value, endOfBatch) -> {
+            events.incrementAndGet();
+            if (endOfBatch) batches.incrementAndGet();
+        });
+        RingDispatcher<Integer> ring = dispatcher(16, parking(Duration.ofNanos(100)), Thread::new, handlers, (value, exception) -> { });
+        for (int i = 0; i < 1_000; i++) {
+            ring.accept(i);
+        }
+        ring.close();
+        assertEquals(1_000, events.get(), "RingDispatcher lost events");
+        assertTrue(batches.get() > 0 && batches.get() <= 1_000, "RingDispatcher has to mark end of batch");
+    }
+
+    @Test
+    void dispatcherOnErrorTest() {
+        IllegalStateException exception = new IllegalStateException();
+        AtomicReference<Object> failed = new AtomicReference<>();
+        AtomicInteger events = new AtomicInteger();
+        List<BiConsumable<Integer, Boolean>> handlers = List.of((value, endOfBatch) -> {
+            events.incrementAndGet();
+            if (value == 1) throw exception;
+        });
+        AtomicReference<Exception> error = new AtomicReference<>();
+        RingDispatcher<Integer> ring = dispatcher(4, yielding(), Thread::new, handlers, (value, ex) -> { failed.set(value); error.set(ex); });
+        ring.accept(1);
+        ring.accept(2);
+        ring.close();
+        assertEquals(2, events.get(), "RingDispatcher has to continue after exception");
+        assertEquals(1, failed.get(), "RingDispatcher has to pass failed event to onError");
+        assertSame(exception, error.get(), "RingDispatcher has to pass exception to onError");
+    }
+
+    @Test
+    void dispatcherClosedTest() {
+        RingDispatcher<Object> ring = dispatcher(2, busySpin(), ignore -> { });
+        ring.close();
+        assertThrows(IllegalStateException.class, () -> ring.accept(new Object()), "Closed RingDispatcher has to reject events");
+    }
+
+    @Test
+    void dispatcherWrongCapacityTest() {
+        assertThrows(IllegalArgumentException.class, () -> dispatcher(3, busySpin(), ignore -> { }), "RingDispatcher capacity has to be a power of 2");
+        assertThrows(IllegalArgumentException.class, () -> dispatcher(0, busySpin(), ignore -> { }), "RingDispatcher capacity has to be positive");
+        assertFalse(Thread.currentThread().isInterrupted(), "Thread has not to be interrupted");
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouteTableTest {
+
+    @Test
+    void enumTableTest() {
+        RouteTable<String> table = RouteTable.compile(Map.of(DayOfWeek.MONDAY, "mon", DayOfWeek.FRIDAY, "fri"), "test");
+        assertEquals("EnumTable", table.getClass().getSimpleName(), "Enum keys have to be compiled to EnumTable");
+        assertEquals("mon", table.get(DayOfWeek.MONDAY), "EnumTable.get - wrong route");
+        assertEquals("fri", table.get(DayOfWeek.FRIDAY), "EnumTable.get - wrong route");
+        assertNull(table.get(DayOfWeek.SUNDAY), "EnumTable.get has to return null for key without route");
+        assertNull(table.get(TimeUnit.DAYS), "EnumTable.get has to return null for key of another enum");
+        assertNull(table.get(null), "EnumTable.get has to return null for null key");
+    }
+
+    @Test
+    void intTableTest() {
+        RouteTable<String> table = RouteTable.compile(Map.of(-2, "a", 3, "b", 10, "c"), "test");
+        assertEquals("IntTable", table.getClass().getSimpleName(), "Dense int keys have to be compiled to IntTable");
+        assertEquals("a", table.get(-2), "IntTable.get - wrong route");
+        assertEquals("b", table.get(3), "IntTable.get - wrong route");
+        assertEquals("c", table.get(10), "IntTable.get - wrong route");
+        assertNull(table.get(11), "IntTable.get has to return null outside range");
+        assertNull(table.get(-3), "IntTable.get has to return null outside range");
+        assertNull(table.get(4), "IntTable.get has to return null for key without route");
+        assertNull(table.get(3L), "IntTable.get has to return null for non Integer key");
+    }
+
+    @Test
+    void perfectHashTableTest() {
+        Map<Object, Integer> routes = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            routes.put("type-" + i, i);
+        }
+        routes.put(1_000_000, -1);
+        RouteTable<Integer> table = RouteTable.compile(routes, "test");
+        assertEquals("PerfectHashTable", table.getClass().getSimpleName(), "String keys have to be compiled to PerfectHashTable");
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, table.get("type-" + i), "PerfectHashTable.get - wrong route");
+        }
+        assertEquals(-1, table.get(1_000_000), "PerfectHashTable.get - wrong route");
+        assertNull(table.get("type-100"), "PerfectHashTable.get has to return null for key without route");
+        assertNull(table.get(null), "PerfectHashTable.get has to return null for null key");
+    }
+
+    @Test
+    void routerTest() throws Exception {
+        List<String> received = new ArrayList<>();
+        Consumable<String> consumable = Consumable.router(value -> value.substring(0, 1),
+                Map.<String, Consumable<String>>of("a", value -> received.add("A:" + value), "b", value -> received.add("B:" + value)),
+                value -> received.add("?:" + value));
+        consumable.process("a1");
+        consumable.process("b2");
+        consumable.process("c3");
+        assertEquals(List.of("A:a1", "B:b2", "?:c3"), received, "Consumable.router - wrong routes");
+        Functional<Integer, String> functional = Functional.router(value -> value % 3,
+                Map.<Integer, Functional<Integer, String>>of(0, value -> "fizz", 1, String::valueOf), value -> "fallback");
+        assertEquals("fizz", functional.execute(3), "Functional.router - wrong route");
+        assertEquals("4", functional.execute(4), "Functional.router - wrong route");
+        assertEquals("fallback", functional.execute(5), "Functional.router - wrong fallback");
+    }
+
+    @Test
+    void wrongRoutesTest() {
+        Map<String, Consumable<String>> routes = new HashMap<>();
+        routes.put("a", null);
+        assertThrows(NullPointerException.class, () -> Consumable.router(value -> value, routes, value -> {}), "Null route has to be rejected");
+        assertThrows(NullPointerException.class, () -> Functional.router(value -> value, Map.of(), null), "Null fallback has to be rejected");
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeqTest {
+
+    @Test
+    void pipelineTest() throws Exception {
+        List<String> result = Seq.of(1, 2, 3, 4, 5, 6)
+                .filter(x -> x % 2 == 0)
+                .map(x -> "#" + x)
+                .toList();
+        assertEquals(List.of("#2", "#4", "#6"), result, "Seq pipeline - wrong result");
+        assertEquals(List.of(1, 2), Seq.seq(new LinkedList<>(List.of(1, 2))).toList(), "Seq.seq - wrong result for Iterable");
+        assertEquals(0L, Seq.empty().count(), "Seq.empty has to be empty");
+    }
+
+    @Test
+    void fusedLazyTest() throws Exception {
+        List<String> trace = new ArrayList<>();
+        Seq<Integer> seq = Seq.seq(List.of(1, 2, 3))
+                .peek(x -> trace.add("peek" + x))
+                .map(x -> { trace.add("map" + x); return x * 10; });
+        assertTrue(trace.isEmpty(), "Seq has to be lazy");
+        seq.forEach(x -> trace.add("each" + x));
+        assertEquals(List.of("peek1", "map1", "each10", "peek2", "map2", "each20", "peek3", "map3", "each30"), trace,
+                "Seq stages have to be fused into one loop per element");
+        assertEquals(60, seq.reduce(0, Integer::sum), "Seq plan has to be reusable");
+    }
+
+    @Test
+    void takeTest() throws Exception {
+        AtomicInteger pulled = new AtomicInteger();
+        Seq<Integer> seq = Seq.of(1, 2, 3, 4, 5).peek(x -> pulled.incrementAndGet());
+        assertEquals(List.of(1, 2), seq.take(2).toList(), "Seq.take - wrong result");
+        assertEquals(2, pulled.get(), "Seq.take has to stop source");
+        assertEquals(List.of(), seq.take(0).toList(), "Seq.take(0) has to be empty");
+        assertEquals(List.of(1, 2, 3, 4, 5), seq.take(10).toList(), "Seq.take over size - wrong result");
+        assertEquals(List.of(1, 1, 2, 1, 2), Seq.of(1, 2, 3).flatMap(x -> Seq.of(1, 2, 3).take(x)).take(5).toList(),
+                "Seq.take inside flatMap has not to stop outer sequence");
+        assertThrows(IllegalArgumentException.class, () -> seq.take(-1), "Negative limit has to be rejected");
+    }
+
+    @Test
+    void flatMapTest() throws Exception {
+        assertEquals(List.of(1, 1, 2, 1, 2, 3), Seq.of(1, 2, 3).flatMap(x -> IntSeq.range(1, x + 1).boxed()).toList(), "Seq.flatMap - wrong result");
+        assertEquals(List.of(2), Seq.of(1, 2).flatMap(x -> x == 1 ? null : Seq.of(x)).toList(), "Seq.flatMap has to skip null");
+        assertTrue(Seq.of(1, 2, 3).flatMap(x -> Seq.of(x, x)).anyMatch(x -> x == 2), "Seq.anyMatch - wrong result");
+        assertFalse(Seq.of(1, 2, 3).anyMatch(x -> x == 4), "Seq.anyMatch - wrong result");
+    }
+
+    @Test
+    void checkedExceptionTest() {
+        Seq<Integer> seq = Seq.of(1, 2).map(x -> { if (x == 2) throw new IOException(); return x; });
+        assertThrows(IOException.class, seq::toList, "Seq has to pass checked exception");
+    }
+
+    @Test
+    void primitiveLaneTest() throws Exception {
+        assertEquals(13, Seq.of("a", "bb", "ccc").mapToInt(String::length).map(x -> x * x).filter(x -> x > 1).sum(),
+                "IntSeq pipeline - wrong result");
+        assertArrayEquals(new Object[] {0, 2, 4}, Seq.seq(List.of(0, 1, 2)).mapToInt(x -> x).map(x -> x * 2).boxed().toList().toArray(),
+                "IntSeq.boxed - wrong result");
+        assertEquals(10L, LongSeq.range(0L, 100L).take(10).count(), "LongSeq.take - wrong result");
+        assertEquals(45L, LongSeq.range(0L, 10L).sum(), "LongSeq.sum - wrong result");
+        assertArrayEquals(new double[] {0.5, 1.0, 1.5}, DoubleSeq.of(1.0, 2.0, 3.0).map(x -> x / 2).toArray(), "DoubleSeq.toArray - wrong result");
+        assertEquals(6.0, Seq.of(1, 2, 3).mapToDouble(Integer::doubleValue).sum(), "DoubleSeq.sum - wrong result");
+        int[] large = IntSeq.range(0, 100).toArray();
+        assertEquals(100, large.length, "IntSeq.toArray has to grow");
+        assertEquals(99, large[99], "IntSeq.toArray - wrong element");
+        List<Long> longs = new ArrayList<>();
+        Seq.of(1, 2).mapToLong(Integer::longValue).forEach(longs::add);
+        assertEquals(List.of(1L, 2L), longs, "LongSeq.forEach - wrong result");
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SerializedConsumableTest {
+
+    @Test
+    void serializedDeliversAllMessagesOneAtATimeTest() throws InterruptedException {
+        int producers = 8;
+        int messages = 10_000;
+        List<Integer> received = new ArrayList<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(producers * messages);
+        Consumable<Integer> consumable = Consumable.<Integer>consumable(value -> {
+            if (inFlight.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            received.add(value);
+            inFlight.decrementAndGet();
+            done.countDown();
+        }).serialized(executor);
+        Thread[] threads = new Thread[producers];
+        for (int i = 0; i < producers; i++) {
+            threads[i] = new Thread(() -> { for (int j = 0; j < messages; j++) consumable.accept(j); });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS), "Consumable.serialized has to deliver all messages");
+        assertEquals(producers * messages, received.size(), "Consumable.serialized lost messages");
+        assertEquals(0, overlaps.get(), "Consumable.serialized has to call consumable sequentially");
+    }
+
+    @Test
+    void serializedKeepsProducerOrderTest() throws InterruptedException {
+        List<Integer> received = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1_000);
+        Consumable<Integer> consumable = Consumable.<Integer>consumable(value -> {
+            received.add(value);
+            done.countDown();
+        }).serialized(executor);
+        for (int i = 0; i < 1_000; i++) {
+            consumable.accept(i);
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS), "Consumable.serialized has to deliver all messages");
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, received.get(i), "Consumable.serialized has to keep order of single producer");
+        }
+    }
+
+    @Test
+    void serializedBatchesMessagesTest() {
+        List<Runnable> tasks = new ArrayList<>();
+        AtomicInteger counter = new AtomicInteger();
+        Consumable<Object> consumable = Consumable.consumable(ignore -> counter.incrementAndGet()).serialized(tasks::add);
+        for (int i = 0; i < SerializedConsumable.BATCH_SIZE + 1; i++) {
+            consumable.accept(i);
+        }
+        assertEquals(1, tasks.size(), "Consumable.serialized has to schedule only one drain task");
+        tasks.remove(0).run();
+        assertEquals(SerializedConsumable.BATCH_SIZE, counter.get(), "Drain task has to process one batch");
+        assertEquals(1, tasks.size(), "Drain task has to reschedule itself for the rest of messages");
+        tasks.remove(0).run();
+        assertEquals(SerializedConsumable.BATCH_SIZE + 1, counter.get(), "Drain task has to process the rest of messages");
+        assertTrue(tasks.isEmpty(), "Drain task has not to be rescheduled on empty mailbox");
+    }
+
+    @Test
+    void serializedOnErrorTest() throws InterruptedException {
+        IllegalStateException exception = new IllegalStateException();
+        AtomicReference<Object> failed = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(2);
+        Consumable<Object> consumable = Consumable.consumable(value -> {
+            done.countDown();
+            if ("fail".equals(value)) throw exception;
+        }).serialized(executor, (value, ex) -> { failed.set(value); error.set(ex); });
+        consumable.accept("fail");
+        consumable.accept("next");
+        assertTrue(done.await(1, TimeUnit.SECONDS), "Consumable.serialized has to continue after exception");
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS), "Executor is not terminated");
+        assertEquals("fail", failed.get(), "Consumable.serialized has to pass failed parameter to onError");
+        assertSame(exception, error.get(), "Consumable.serialized has to pass exception to onError");
+    }
+
+    @Test
+    void serializedRejectedTest() {
+        AtomicInteger counter = new AtomicInteger();
+        AtomicInteger attempt = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        Consumable<Object> consumable = Consumable.consumable(ignore -> counter.incrementAndGet()).serialized(task -> {
+            if (attempt.getAndIncrement() == 0) throw new RejectedExecutionException();
+            tasks.add(task);
+        });
+        assertThrows(RejectedExecutionException.class, () -> consumable.accept(1), "Consumable.serialized has to throw RejectedExecutionException");
+        consumable.accept(2);
+        assertEquals(1, tasks.size(), "Consumable.serialized has to reschedule after rejection");
+        tasks.get(0).run();
+        assertEquals(2, counter.get(), "Consumable.serialized has to keep rejected messages");
+    }
+
+    @BeforeEach
+    void startUp() {
+        this.executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    private ExecutorService executor;
+
+}
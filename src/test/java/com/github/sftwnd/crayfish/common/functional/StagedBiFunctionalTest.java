@@ -0,0 +1,84 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StagedBiFunctionalTest {
+
+    @Test
+    void preparesOnceTest() throws Exception {
+        AtomicInteger preparations = new AtomicInteger();
+        StagedBiFunctional<String, String, Boolean> matches = StagedBiFunctional.staged(regex -> {
+            preparations.incrementAndGet();
+            Pattern pattern = Pattern.compile(regex);
+            return input -> pattern.matcher(input).matches();
+        });
+        assertTrue(matches.execute("a+b", "aaab"), "StagedBiFunctional - wrong result");
+        assertFalse(matches.execute("a+b", "b"), "StagedBiFunctional - wrong result");
+        Functional<String, Boolean> digits = matches.left("\\d+");
+        assertTrue(digits.execute("123"), "StagedBiFunctional::left - wrong result");
+        assertTrue(matches.right("42").execute("\\d+"), "StagedBiFunctional::right - wrong result");
+        assertSame(digits, matches.left("\\d+"), "StagedBiFunctional::left has to return cached function");
+        assertEquals(2, preparations.get(), "StagedBiFunctional has to prepare once per bound value");
+        assertEquals(2, matches.size(), "StagedBiFunctional - wrong cache size");
+        matches.clear();
+        matches.execute("a+b", "ab");
+        assertEquals(3, preparations.get(), "StagedBiFunctional has to prepare again after clear");
+    }
+
+    @Test
+    void maximumSizeTest() throws Exception {
+        AtomicInteger preparations = new AtomicInteger();
+        StagedBiFunctional<Integer, Integer, Integer> add = StagedBiFunctional.staged(left -> {
+            preparations.incrementAndGet();
+            return right -> left + right;
+        }, 2);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1, add.execute(i, 1), "StagedBiFunctional - wrong result");
+        }
+        assertTrue(add.size() <= 2, "StagedBiFunctional - cache has to be bounded");
+        assertEquals(10, preparations.get(), "StagedBiFunctional - wrong preparation count");
+        assertThrows(IllegalArgumentException.class, () -> StagedBiFunctional.staged(left -> right -> left, 0),
+                "StagedBiFunctional - IAE expected on non-positive maximumSize");
+    }
+
+    @Test
+    void reentrantPreparationTest() throws Exception {
+        AtomicReference<StagedBiFunctional<Integer, Integer, Integer>> self = new AtomicReference<>();
+        self.set(StagedBiFunctional.staged(left -> {
+            // подготовка значения использует подготовленную функцию предыдущего значения
+            Functional<Integer, Integer> previous = left == 0 ? right -> right : self.get().left(left - 1);
+            return right -> previous.execute(right) + left;
+        }));
+        assertEquals(1 + 2 + 3 + 10, self.get().execute(3, 10), "StagedBiFunctional - wrong result of reentrant preparation");
+        assertEquals(4, self.get().size(), "StagedBiFunctional has to cache reentrant preparations");
+    }
+
+    @Test
+    void failedPreparationTest() throws Exception {
+        AtomicInteger preparations = new AtomicInteger();
+        StagedBiFunctional<String, String, String> functional = StagedBiFunctional.staged(left -> {
+            if (preparations.incrementAndGet() == 1) {
+                throw new IOException("prepare");
+            }
+            return right -> left + right;
+        });
+        assertThrows(IOException.class, () -> functional.execute("a", "b"), "StagedBiFunctional has to propagate preparation exception");
+        assertEquals(0, functional.size(), "StagedBiFunctional has not to cache failed preparation");
+        assertEquals("ab", functional.execute("a", "b"), "StagedBiFunctional - wrong result after failed preparation");
+        assertEquals("nullb", functional.execute(null, "b"), "StagedBiFunctional - wrong result on null");
+        assertEquals(1, functional.size(), "StagedBiFunctional has not to cache null left");
+        assertThrows(NullPointerException.class, () -> StagedBiFunctional.staged(null), "StagedBiFunctional - NPE expected on null stage");
+    }
+
+}
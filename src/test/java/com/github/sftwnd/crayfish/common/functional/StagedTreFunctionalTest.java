@@ -0,0 +1,44 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StagedTreFunctionalTest {
+
+    @Test
+    void preparesOnceTest() throws Exception {
+        AtomicInteger preparations = new AtomicInteger();
+        StagedTreFunctional<Integer, Integer, Integer, Integer> table = StagedTreFunctional.staged(size -> {
+            preparations.incrementAndGet();
+            int[][] products = new int[size][size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    products[i][j] = i * j;
+                }
+            }
+            return (row, column) -> products[row][column];
+        });
+        assertEquals(12, table.execute(10, 3, 4), "StagedTreFunctional - wrong result");
+        assertEquals(12, table.middle(4).execute(10, 3), "StagedTreFunctional::middle - wrong result");
+        BiFunctional<Integer, Integer, Integer> prepared = table.left(10);
+        assertEquals(81, prepared.execute(9, 9), "StagedTreFunctional::left - wrong result");
+        assertSame(prepared, table.left(10), "StagedTreFunctional::left has to return cached function");
+        assertEquals(1, preparations.get(), "StagedTreFunctional has to prepare once per bound value");
+        assertEquals(1, table.size(), "StagedTreFunctional - wrong cache size");
+        table.clear();
+        assertEquals(0, table.size(), "StagedTreFunctional - cache has to be empty after clear");
+    }
+
+    @Test
+    void nullStageTest() {
+        assertThrows(NullPointerException.class, () -> StagedTreFunctional.staged(null), "StagedTreFunctional - NPE expected on null stage");
+        assertThrows(NullPointerException.class, () -> StagedTreFunctional.<Integer, Integer, Integer, Integer>staged(left -> null).execute(1, 2, 3),
+                "StagedTreFunctional - NPE expected on null stage result");
+    }
+
+}
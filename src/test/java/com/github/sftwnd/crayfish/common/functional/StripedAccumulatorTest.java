@@ -0,0 +1,101 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.sftwnd.crayfish.common.functional.StripedAccumulator.accumulator;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedAccumulatorTest {
+
+    @Test
+    void accumulateConcurrentlyTest() throws Exception {
+        StripedAccumulator<String> accumulator = accumulator(this::merge, 4);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    accumulator.accept("a", 1L);
+                    accumulator.add("b", 2L);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80_000L, accumulator.sum("a"), "StripedAccumulator.sum - wrong value");
+        accumulator.flush();
+        assertEquals(Map.of("a", 80_000L, "b", 160_000L), received, "StripedAccumulator.flush - wrong sums");
+        assertEquals(0L, accumulator.sum("a"), "StripedAccumulator.sum has to be 0 after flush");
+    }
+
+    @Test
+    void flushSkipsZeroSumsTest() throws Exception {
+        StripedAccumulator<String> accumulator = accumulator(this::merge);
+        accumulator.add("a", 1L);
+        accumulator.flush();
+        accumulator.flush();
+        assertEquals(Map.of("a", 1L), received, "StripedAccumulator.flush has not to pass zero sums");
+    }
+
+    @Test
+    void countingTest() throws Exception {
+        StripedAccumulator<String> accumulator = accumulator(this::merge, 1);
+        Consumable<String> counting = accumulator.counting();
+        counting.accept("a");
+        counting.accept("a");
+        counting.accept("b");
+        accumulator.flush();
+        assertEquals(Map.of("a", 2L, "b", 1L), received, "StripedAccumulator.counting - wrong counts");
+    }
+
+    @Test
+    void flushEveryTest() throws InterruptedException {
+        StripedAccumulator<String> accumulator = accumulator(this::merge, 2);
+        accumulator.add("a", 5L);
+        ScheduledFuture<?> future = accumulator.flushEvery(Duration.ofMillis(10));
+        try {
+            long start = System.nanoTime();
+            while (received.isEmpty() && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1)) {
+                Thread.sleep(5);
+            }
+        } finally {
+            future.cancel(false);
+        }
+        assertEquals(Map.of("a", 5L), received, "StripedAccumulator.flushEvery has to flush periodically");
+        assertTrue(future.isCancelled(), "StripedAccumulator.flushEvery has to be cancellable");
+    }
+
+    @Test
+    void wrongArgumentsTest() {
+        assertThrows(IllegalArgumentException.class, () -> accumulator(this::merge, 0), "StripedAccumulator has to reject non positive stripes");
+        assertThrows(NullPointerException.class, () -> accumulator(null), "StripedAccumulator has to reject null downstream");
+        assertDoesNotThrow(() -> accumulator(this::merge, 3), "StripedAccumulator has to accept non power of 2 stripes");
+        StripedAccumulator<String> accumulator = accumulator(this::merge);
+        assertEquals("StripedAccumulator::add - key is null",
+                assertThrows(NullPointerException.class, () -> accumulator.add(null, 1L), "StripedAccumulator has to reject null key").getMessage(),
+                "StripedAccumulator.add - wrong message");
+    }
+
+    private void merge(String key, Long value) {
+        received.merge(key, value, Long::sum);
+    }
+
+    @BeforeEach
+    void startUp() {
+        this.received = new ConcurrentHashMap<>();
+    }
+
+    private Map<String, Long> received;
+
+}
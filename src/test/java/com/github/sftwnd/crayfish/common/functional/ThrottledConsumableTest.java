@@ -0,0 +1,59 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThrottledConsumableTest {
+
+    @Test
+    void throttleLeadingAndTrailingTest() throws InterruptedException {
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CountDownLatch cdl = new CountDownLatch(2);
+        Consumable<Integer> throttled = Consumable.<Integer>consumable(value -> {
+            received.add(value);
+            cdl.countDown();
+        }).throttle(Duration.ofMillis(200));
+        for (int i = 0; i < 100; i++) {
+            throttled.accept(i);
+        }
+        assertEquals(List.of(0), received, "Consumable.throttle has to call consumable immediately on the first call");
+        assertTrue(cdl.await(1, TimeUnit.SECONDS), "Consumable.throttle has to make trailing call");
+        assertEquals(List.of(0, 99), received, "Consumable.throttle has to make trailing call with the latest value");
+    }
+
+    @Test
+    void throttleIntervalTest() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        Processable throttled = Processable.processable(counter::incrementAndGet).throttle(Duration.ofMillis(100));
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(350)) {
+            throttled.run();
+            Thread.sleep(1);
+        }
+        Thread.sleep(150);
+        assertTrue(counter.get() >= 3 && counter.get() <= 5, "Processable.throttle has to run processable once per interval: " + counter.get());
+    }
+
+    @Test
+    void throttleLeadingExceptionTest() {
+        Processable throttled = Processable.processable(() -> { throw new IllegalStateException(); }).throttle(Duration.ofSeconds(1));
+        assertThrows(IllegalStateException.class, throttled::process, "Processable.throttle has to throw exception of the leading call");
+    }
+
+    @Test
+    void throttleWrongIntervalTest() {
+        Consumable<Object> consumable = ignore -> { };
+        assertThrows(IllegalArgumentException.class, () -> consumable.throttle(Duration.ofMillis(-1)), "Consumable.throttle has to reject negative interval");
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.github.sftwnd.crayfish.common.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.sftwnd.crayfish.common.functional.With.valued;
+import static com.github.sftwnd.crayfish.common.functional.With.with;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WithPlanTest {
+
+    @Test
+    void lazyFusedTest() {
+        AtomicInteger evaluations = new AtomicInteger();
+        List<String> trace = new ArrayList<>();
+        With<String> with = with(evaluations::incrementAndGet)
+                .map(x -> x * 10)
+                .peek(x -> trace.add("peek" + x))
+                .map(x -> "#" + x);
+        assertEquals(0, evaluations.get(), "With.map has to be lazy");
+        assertTrue(trace.isEmpty(), "With.peek has to be lazy");
+        assertEquals("#10", with.value(), "With plan - wrong value");
+        assertEquals(1, evaluations.get(), "Source has to be evaluated once per terminal call");
+        assertEquals(3, with.transform(String::length), "With.transform over plan - wrong value");
+        assertEquals(2, evaluations.get(), "Source has to be evaluated once per terminal call");
+        assertEquals(List.of("peek10", "peek20"), trace, "With.peek - wrong calls");
+    }
+
+    @Test
+    void filterOrElseTest() {
+        With<Integer> with = valued(5).filter(x -> x > 10);
+        assertNull(with.value(), "Filtered out value has to be null");
+        assertNull(with.map(x -> x + 1).value(), "Stages after filtered out value have to be skipped");
+        assertEquals(0, with.map(x -> x + 1).orElse(0).value(), "With.orElse has to replace absent value");
+        assertEquals(6, valued(5).filter(x -> x < 10).map(x -> x + 1).orElse(0).value(), "With.orElse has to keep present value");
+        assertNull(valued((Integer) null).orElse(1).value(), "With.orElse has not to replace null value");
+    }
+
+    @Test
+    void flatMapTest() {
+        AtomicInteger evaluations = new AtomicInteger();
+        With<Integer> inner = with(evaluations::incrementAndGet);
+        assertEquals(11, valued(10).flatMap(x -> inner.map(y -> x + y)).value(), "With.flatMap - wrong value");
+        assertEquals(-1, valued(10).flatMap(x -> inner.filter(y -> y < 0)).orElse(-1).value(), "With.flatMap has to keep absence");
+        assertEquals(-1, valued(10).<Integer>flatMap(x -> null).orElse(-1).value(), "With.flatMap null has to be absent");
+        assertEquals(2, evaluations.get(), "Inner With has to be evaluated once per outer evaluation");
+    }
+
+    @Test
+    void exceptionTest() {
+        With<Integer> with = valued(1).map(x -> { throw new IOException(); });
+        assertThrows(IOException.class, with::value, "With plan has to throw stage exception");
+    }
+
+    @Test
+    void cancellationTest() {
+        Cancellation cancellation = Cancellation.cancellation();
+        AtomicInteger calls = new AtomicInteger();
+        With<Integer> with = with(() -> {
+            cancellation.cancel();
+            return 1;
+        }).map(x -> calls.incrementAndGet());
+        assertThrows(CancellationException.class, () -> cancellation.call(with::value),
+                "Cancelled plan has to throw CancellationException");
+        assertEquals(0, calls.get(), "Stages after cancellation have not to be executed");
+    }
+
+}